@@ -1,19 +1,33 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.controller;
 
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.*;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.ExecutionMetrics;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.common.ApiResponse;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.CodingQuestionService;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionRejectedException;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.jobs.ExecutionJob;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.streaming.SseExecutionListener;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/coding")
 public class CodingController {
     private static final Logger logger = LoggerFactory.getLogger(CodingController.class);
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+    // Longest a poll may wait for a job to finish, kept below the servlet container's async timeout
+    private static final long MAX_POLL_WAIT_MS = 25_000;
     private final CodingQuestionService codingQuestionService;
 
     public CodingController(CodingQuestionService codingQuestionService) {
@@ -109,7 +123,9 @@ public class CodingController {
      * Submits user code for validation against all test cases (visible + hidden).
      * This is the final submission that determines if the solution is correct.
      *
-     * @param submission The {@link CodeSubmission} containing questionId and user code
+     * @param submission The {@link CodeSubmission} containing questionId, user code, an optional
+     *                   failure limit after which the remaining tests are skipped and an optional
+     *                   request to analyse the solution's time complexity
      * @return A {@link ResponseEntity} wrapping a generic {@link ApiResponse}. On success,
      * the ApiResponse's data field will contain an {@link ExecutionResult} with all test results.
      */
@@ -119,10 +135,14 @@ public class CodingController {
         try {
             ExecutionResult result = codingQuestionService.submitCodingQuestion(
                     submission.getQuestionId(),
-                    submission.getCode()
+                    submission.getCode(),
+                    submission.getMaxFailures(),
+                    submission.isAnalyzeComplexity()
             );
             ApiResponse<ExecutionResult> successResponse = new ApiResponse<>("Success", "200_OK", result);
             return ResponseEntity.ok(successResponse);
+        } catch (SubmissionRejectedException e) {
+            return tooManySubmissions(e);
         } catch (IllegalArgumentException e) {
             logger.warn("Code submission failed: {}", e.getMessage());
 
@@ -144,6 +164,177 @@ public class CodingController {
         }
     }
 
+    /**
+     * Submits user code like {@code /coding-question/submit}, streaming progress as Server-Sent Events
+     * instead of waiting for every test to finish: a {@code compiled} event, a {@code test-result}
+     * event per test as it completes, then a {@code result} event with the final {@link ExecutionResult}.
+     * Failures are sent as an {@code error} event carrying the same {@link ApiResponse} codes as the
+     * other endpoints. Closing the stream stops the run from starting further tests.
+     *
+     * @param submission The {@link CodeSubmission} containing questionId, user code, an optional
+     *                   failure limit and an optional request to analyse the solution's time complexity
+     * @return An {@link SseEmitter} carrying the events of the run
+     */
+    @PostMapping(value = "/coding-question/submit/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCodingQuestion(@Valid @RequestBody CodeSubmission submission) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        SseExecutionListener listener = new SseExecutionListener(emitter);
+        try {
+            codingQuestionService.streamCodingQuestion(
+                    submission.getQuestionId(),
+                    submission.getCode(),
+                    submission.getMaxFailures(),
+                    submission.isAnalyzeComplexity(),
+                    listener
+            ).whenComplete((result, error) -> {
+                if (error == null) {
+                    listener.finish(result);
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                if (cause instanceof SubmissionRejectedException rejected) {
+                    logger.warn("Streamed submission rejected: {}", rejected.getMessage());
+                    listener.fail(new ApiResponse<>(rejected.getMessage(), "TOO_MANY_SUBMISSIONS",
+                            rejected.getRetryAfterSeconds()));
+                } else {
+                    logger.error("Error executing streamed code", cause);
+                    listener.fail(new ApiResponse<>("Unable to execute code: " + cause.getMessage(),
+                            "EXECUTION_ERROR", null));
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Streamed code submission failed: {}", e.getMessage());
+            listener.fail(new ApiResponse<>(e.getMessage(), "INVALID_QUESTION_ID", null));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Streamed code submission rejected: too many open streams");
+            listener.fail(new ApiResponse<>("Too many submissions are running, please try again shortly",
+                    "TOO_MANY_SUBMISSIONS", null));
+        }
+        return emitter;
+    }
+
+    /**
+     * Starts a submission like {@code /coding-question/submit} as a background job and returns its
+     * id right away, without holding the request while the code compiles and runs.
+     *
+     * @param submission The {@link CodeSubmission} containing questionId, user code, an optional
+     *                   failure limit and an optional request to analyse the solution's time complexity
+     * @return A {@link ResponseEntity} wrapping a generic {@link ApiResponse}. On success (202),
+     * the ApiResponse's data field will contain a {@link JobStatus} with the job id to poll.
+     */
+    @PostMapping(value = "/coding-question/jobs")
+    public ResponseEntity<ApiResponse<?>> submitCodingQuestionJob(
+            @Valid @RequestBody CodeSubmission submission) {
+        try {
+            ExecutionJob job = codingQuestionService.submitCodingQuestionJob(
+                    submission.getQuestionId(),
+                    submission.getCode(),
+                    submission.getMaxFailures(),
+                    submission.isAnalyzeComplexity()
+            );
+            ApiResponse<JobStatus> successResponse = new ApiResponse<>("Accepted", "202_ACCEPTED", job.toStatus());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(successResponse);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Job submission failed: {}", e.getMessage());
+
+            ApiResponse<Void> errorResponse = new ApiResponse<>(
+                    e.getMessage(),
+                    "INVALID_QUESTION_ID",
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Job submission rejected: {}", e.getMessage());
+
+            ApiResponse<Void> errorResponse = new ApiResponse<>(
+                    "Too many submissions are running, please try again shortly",
+                    "TOO_MANY_SUBMISSIONS",
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+        }
+    }
+
+    /**
+     * Returns the state of a job started by this session, with its result once it has finished.
+     * With {@code waitMs} the request is held (without blocking a server thread) until the job
+     * finishes or the wait is over, whichever comes first.
+     *
+     * @param jobId The id returned when the job was submitted
+     * @param waitMs Optional long-poll wait in milliseconds, capped at 25 seconds
+     * @return A {@link ResponseEntity} wrapping a generic {@link ApiResponse}. On success,
+     * the ApiResponse's data field will contain a {@link JobStatus}.
+     */
+    @GetMapping(value = "/coding-question/jobs/{jobId}")
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> getCodingQuestionJob(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        ExecutionJob job = codingQuestionService.getCodingQuestionJob(jobId);
+        if (job == null) {
+            return CompletableFuture.completedFuture(jobNotFound(jobId));
+        }
+        return job.awaitFinished(Math.min(waitMs, MAX_POLL_WAIT_MS))
+                .thenApply(finished -> ResponseEntity.ok(new ApiResponse<>("Success", "200_OK", finished.toStatus())));
+    }
+
+    /**
+     * Cancels a job started by this session. A job still waiting for an execution slot leaves the
+     * queue immediately; a running job stops before its next test case.
+     *
+     * @param jobId The id returned when the job was submitted
+     * @return A {@link ResponseEntity} wrapping a generic {@link ApiResponse}. On success,
+     * the ApiResponse's data field will contain the {@link JobStatus} at the time of cancelling.
+     */
+    @DeleteMapping(value = "/coding-question/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<?>> cancelCodingQuestionJob(@PathVariable String jobId) {
+        ExecutionJob job = codingQuestionService.cancelCodingQuestionJob(jobId);
+        if (job == null) {
+            return jobNotFound(jobId);
+        }
+        return ResponseEntity.ok(new ApiResponse<>("Success", "200_OK", job.toStatus()));
+    }
+
+    /**
+     * Compiles an editor snapshot in the background and reports the compiler's diagnostics, so
+     * mistakes show up while typing. Snapshots sent in quick succession are debounced, and a newer
+     * snapshot from the same session supersedes an older one still waiting or compiling. Successful
+     * compiles are cached, so testing the same code afterwards goes straight to execution.
+     *
+     * @param submission The {@link CodeSubmission} containing questionId and the current code
+     * @return A {@link ResponseEntity} wrapping a generic {@link ApiResponse}. On success,
+     * the ApiResponse's data field will contain a {@link CompileCheck}.
+     */
+    @PostMapping(value = "/coding-question/compile")
+    public CompletableFuture<ResponseEntity<ApiResponse<?>>> compileCodingQuestion(
+            @Valid @RequestBody CodeSubmission submission) {
+        try {
+            return codingQuestionService.compileSnapshot(submission.getQuestionId(), submission.getCode())
+                    .<ResponseEntity<ApiResponse<?>>>thenApply(check ->
+                            ResponseEntity.ok(new ApiResponse<>("Success", "200_OK", check)))
+                    .exceptionally(e -> {
+                        logger.error("Error compiling code snapshot", e);
+
+                        ApiResponse<Void> errorResponse = new ApiResponse<>(
+                                "Unable to compile code: " + e.getMessage(),
+                                "EXECUTION_ERROR",
+                                null
+                        );
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+                    });
+        } catch (IllegalArgumentException e) {
+            logger.warn("Compile check failed: {}", e.getMessage());
+
+            ApiResponse<Void> errorResponse = new ApiResponse<>(
+                    e.getMessage(),
+                    "INVALID_QUESTION_ID",
+                    null
+            );
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+        }
+    }
+
     /**
      * Tests user code against only visible test cases (for practice/debugging).
      * This allows users to test their solution before final submission.
@@ -158,10 +349,14 @@ public class CodingController {
         try {
             ExecutionResult result = codingQuestionService.testCodingQuestion(
                     submission.getQuestionId(),
-                    submission.getCode()
+                    submission.getCode(),
+                    submission.getMaxFailures(),
+                    submission.isAnalyzeComplexity()
             );
             ApiResponse<ExecutionResult> successResponse = new ApiResponse<>("Success", "200_OK", result);
             return ResponseEntity.ok(successResponse);
+        } catch (SubmissionRejectedException e) {
+            return tooManySubmissions(e);
         } catch (IllegalArgumentException e) {
             logger.warn("Code test failed: {}", e.getMessage());
 
@@ -182,4 +377,90 @@ public class CodingController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * Benchmarks user code on the visible test inputs, with warmup and measurement iterations.
+     * Unlike the execution time of a test run, the reported latencies exclude compilation and
+     * JIT warmup, so solutions can be compared on speed.
+     *
+     * @param submission The {@link CodeSubmission} containing questionId and user code
+     * @return A {@link ResponseEntity} wrapping a generic {@link ApiResponse}. On success,
+     * the ApiResponse's data field will contain a {@link BenchmarkResult} with throughput and latency percentiles.
+     */
+    @PostMapping(value = "/coding-question/benchmark")
+    public ResponseEntity<ApiResponse<?>> benchmarkCodingQuestion(
+            @Valid @RequestBody CodeSubmission submission) {
+        try {
+            BenchmarkResult result = codingQuestionService.benchmarkCodingQuestion(
+                    submission.getQuestionId(),
+                    submission.getCode()
+            );
+            ApiResponse<BenchmarkResult> successResponse = new ApiResponse<>("Success", "200_OK", result);
+            return ResponseEntity.ok(successResponse);
+        } catch (SubmissionRejectedException e) {
+            return tooManySubmissions(e);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Code benchmark failed: {}", e.getMessage());
+
+            ApiResponse<Void> errorResponse = new ApiResponse<>(
+                    e.getMessage(),
+                    "INVALID_QUESTION_ID",
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (Exception e) {
+            logger.error("Error benchmarking code", e);
+
+            ApiResponse<Void> errorResponse = new ApiResponse<>(
+                    "Unable to benchmark code: " + e.getMessage(),
+                    "EXECUTION_ERROR",
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Returns runtime counters of the code execution subsystem, such as compile cache hit rates.
+     *
+     * @return A {@link ResponseEntity} wrapping a generic {@link ApiResponse} whose data field
+     * contains an {@link ExecutionMetrics} snapshot.
+     */
+    @GetMapping(value = "/metrics")
+    public ResponseEntity<ApiResponse<?>> getExecutionMetrics() {
+        ExecutionMetrics metrics = codingQuestionService.getExecutionMetrics();
+        ApiResponse<ExecutionMetrics> successResponse = new ApiResponse<>("Success", "200_OK", metrics);
+        return ResponseEntity.ok(successResponse);
+    }
+
+    /**
+     * Builds the response for a job id that is unknown, expired or owned by another session.
+     */
+    private ResponseEntity<ApiResponse<?>> jobNotFound(String jobId) {
+        logger.warn("Job {} not found", jobId);
+
+        ApiResponse<Void> errorResponse = new ApiResponse<>(
+                "Job with ID " + jobId + " not found",
+                "JOB_NOT_FOUND",
+                null
+        );
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    /**
+     * Builds the response for a submission rejected by the admission queue, telling the client
+     * when to retry.
+     */
+    private ResponseEntity<ApiResponse<?>> tooManySubmissions(SubmissionRejectedException e) {
+        logger.warn("Submission rejected: {}", e.getMessage());
+
+        ApiResponse<Void> errorResponse = new ApiResponse<>(
+                e.getMessage(),
+                "TOO_MANY_SUBMISSIONS",
+                null
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
 }
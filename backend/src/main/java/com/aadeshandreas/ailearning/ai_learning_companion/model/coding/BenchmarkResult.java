@@ -0,0 +1,41 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Response DTO for a solution benchmark.
+ * Unlike {@link ExecutionResult#getExecutionTime()}, the latencies only cover calls to the solution
+ * method after warmup, excluding compilation, class loading and input parsing.
+ */
+@Getter
+@Setter
+public class BenchmarkResult {
+    private boolean success;                    // At least one measurement iteration completed
+    private String error;                       // Why the benchmark could not run
+    private String message;                     // Why the benchmark stopped early, if it did
+    private String isolation;                   // "worker process" or "in-process"
+    private int warmupIterations;               // Warmup iterations completed
+    private int measurementIterations;          // Measurement iterations completed
+    private long iterationTime;                 // Target length of each iteration, in milliseconds
+    private long operations;                    // Calls measured across all measurement iterations
+    private double opsPerSecond;                // Measured calls per second of call time
+    private List<Double> iterationOpsPerSecond; // Throughput of each measurement iteration
+    private double meanNanos;                   // Mean latency per call, in nanoseconds
+    private long p50Nanos;                      // Median latency per call, in nanoseconds
+    private long p99Nanos;                      // 99th percentile latency per call, in nanoseconds
+    private long cpuTime;                       // CPU time used by the benchmark, in milliseconds
+
+    /**
+     * Creates a result for a benchmark that could not be run.
+     */
+    public static BenchmarkResult failed(String error) {
+        BenchmarkResult result = new BenchmarkResult();
+        result.setSuccess(false);
+        result.setError(error);
+        result.setIterationOpsPerSecond(List.of());
+        return result;
+    }
+}
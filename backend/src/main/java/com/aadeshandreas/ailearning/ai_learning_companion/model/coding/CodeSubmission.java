@@ -12,4 +12,6 @@ import lombok.Setter;
 public class CodeSubmission {
     private String questionId;
     private String code;            // User's complete solution
+    private Integer maxFailures;    // Optional: stop after this many failed tests (1 = fail fast)
+    private boolean analyzeComplexity; // Optional: time the solution on growing inputs once all tests pass
 }
\ No newline at end of file
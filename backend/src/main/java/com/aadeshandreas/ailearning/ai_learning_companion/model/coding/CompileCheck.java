@@ -0,0 +1,25 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Response DTO for a background compile of an editor snapshot.
+ * A superseded check was dropped in favour of a newer snapshot and carries no diagnostics.
+ */
+@Getter
+@Setter
+public class CompileCheck {
+    private CompileCheckStatus status;
+    private List<CompileDiagnostic> diagnostics = List.of(); // Compiler errors and warnings, if any
+    private String error;               // Why the code could not be compiled, if not a compiler error
+    private long compilationTime;       // Time spent compiling (or fetching cached bytecode), in milliseconds
+
+    public static CompileCheck superseded() {
+        CompileCheck check = new CompileCheck();
+        check.setStatus(CompileCheckStatus.SUPERSEDED);
+        return check;
+    }
+}
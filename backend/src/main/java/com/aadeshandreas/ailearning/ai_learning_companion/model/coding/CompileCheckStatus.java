@@ -0,0 +1,10 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+/**
+ * Enum representing the outcome of a background compile of an editor snapshot.
+ */
+public enum CompileCheckStatus {
+    COMPILED,
+    FAILED,
+    SUPERSEDED
+}
@@ -0,0 +1,23 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A single javac message about the submitted code, positioned for display in the editor.
+ */
+@Getter
+@Setter
+public class CompileDiagnostic {
+    private String kind;                // ERROR, WARNING, ...
+    private long line;                  // 1-based line in the submitted code, or -1 if unknown
+    private long column;                // 1-based column on that line, or -1 if unknown
+    private String message;
+
+    public CompileDiagnostic(String kind, long line, long column, String message) {
+        this.kind = kind;
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+}
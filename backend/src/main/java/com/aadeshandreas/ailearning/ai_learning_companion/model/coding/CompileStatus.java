@@ -0,0 +1,19 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Streamed once a submission has compiled, before its first test result.
+ */
+@Getter
+@Setter
+public class CompileStatus {
+    private int totalTests;             // Number of test cases that will be run
+    private long compilationTime;       // Time spent compiling (or fetching cached bytecode), in milliseconds
+
+    public CompileStatus(int totalTests, long compilationTime) {
+        this.totalTests = totalTests;
+        this.compilationTime = compilationTime;
+    }
+}
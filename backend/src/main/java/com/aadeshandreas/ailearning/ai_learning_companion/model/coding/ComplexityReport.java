@@ -0,0 +1,32 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Result of the optional empirical time-complexity analysis of a submission.
+ * Compares how the running time grows over generated inputs against the question's constraints.
+ */
+@Getter
+@Setter
+public class ComplexityReport {
+    private String expectedComplexity;      // As stated in the question, e.g. "O(n log n)"
+    private String measuredComplexity;      // Best-fitting growth curve, e.g. "O(n^2)"; null if inconclusive
+    private Boolean withinExpected;         // Measured growth no worse than expected; null if unknown
+    private double growthExponent;          // Slope of log(time) over log(size) across the larger sizes
+    private List<ComplexitySample> samples; // Timings per generated input size
+    private String message;                 // Verdict, or why the analysis could not be done
+
+    /**
+     * Creates a report for a submission that could not be analysed.
+     */
+    public static ComplexityReport unavailable(String expectedComplexity, String message) {
+        ComplexityReport report = new ComplexityReport();
+        report.setExpectedComplexity(expectedComplexity);
+        report.setSamples(List.of());
+        report.setMessage(message);
+        return report;
+    }
+}
@@ -0,0 +1,10 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+/**
+ * Measured running time of a solution for one generated input size.
+ *
+ * @param inputSize Number of elements (or characters) in the generated input
+ * @param nanosPerCall Fastest observed average time of one call, in nanoseconds
+ */
+public record ComplexitySample(int inputSize, long nanosPerCall) {
+}
@@ -15,7 +15,13 @@ public class ExecutionResult {
     private boolean success;            // All tests passed
     private int passedTests;
     private int totalTests;
+    private int skippedTests;           // Tests not run because the submission stopped early
     private List<TestResult> results;   // Individual test results
     private String error;               // Compilation or runtime error
     private long executionTime;         // Total execution time in milliseconds
+    private long validationTime;        // Time spent on security validation, in milliseconds
+    private long compilationTime;       // Time spent compiling (or fetching cached bytecode), in milliseconds
+    private long classLoadTime;         // Time spent defining the compiled classes, in milliseconds
+    private long runTime;               // Time spent running the test cases, in milliseconds
+    private ComplexityReport complexity; // Optional empirical time-complexity analysis
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+/**
+ * Enum representing the lifecycle of an asynchronous code execution job.
+ */
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,20 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Response DTO describing an asynchronous code execution job.
+ * The result is only present once the job has finished.
+ */
+@Getter
+@Setter
+public class JobStatus {
+    private String jobId;
+    private JobState state;
+    private int completedTests;         // Tests that have a result so far
+    private int totalTests;             // Tests that will be run, known once the code has compiled
+    private ExecutionResult result;     // Final result, or the partial result of a cancelled run
+    private String error;               // Why the job failed, if it did
+    private Long retryAfterSeconds;     // Suggested wait before resubmitting a job that was not admitted
+}
@@ -15,6 +15,15 @@ public class TestResult {
     private String expectedOutput;
     private String actualOutput;
     private String error;           // If test failed (exception message)
+    private boolean skipped;        // Not run because the submission stopped early
+    private boolean memoryLimitExceeded; // Stopped for allocating more memory than allowed
+    private boolean transientFailure; // Failed for a reason that depends on server load, e.g. a wall-clock timeout
+    private long cpuTimeNanos;      // CPU time of the thread running the user code
+    private long wallTimeNanos;     // Wall-clock time of the user code itself
+    private long allocatedBytes;    // Heap allocated by the thread running the user code
+    private int peakThreads;        // Peak live JVM threads while the test ran; worker mode only
+    private int runs;               // Times a concurrency scenario was run (counter simulations)
+    private int failedRuns;         // Runs of the scenario that produced a wrong value
 
     /**
      * Creates a failed test result due to timeout.
@@ -25,6 +34,48 @@ public class TestResult {
         result.setPassed(false);
         result.setInput(input);
         result.setError("Time Limit Exceeded (2 seconds)");
+        result.setTransientFailure(true);
+        return result;
+    }
+
+    /**
+     * Creates a result for a test that was not run because too many earlier tests failed.
+     */
+    public static TestResult skipped(int testId, String input, int failureLimit) {
+        TestResult result = new TestResult();
+        result.setTestId(testId);
+        result.setPassed(false);
+        result.setSkipped(true);
+        result.setInput(input);
+        result.setError("Skipped: stopped after " + failureLimit + " failed test(s)");
+        return result;
+    }
+
+    /**
+     * Creates a result for a test that was not run because the run was cancelled, e.g. because the
+     * client disconnected. Marked transient, since a rerun would reach it.
+     */
+    public static TestResult cancelled(int testId, String input) {
+        TestResult result = new TestResult();
+        result.setTestId(testId);
+        result.setPassed(false);
+        result.setSkipped(true);
+        result.setInput(input);
+        result.setError("Skipped: run was cancelled");
+        result.setTransientFailure(true);
+        return result;
+    }
+
+    /**
+     * Creates a failed test result for code that allocated more memory than allowed.
+     */
+    public static TestResult memoryLimitExceeded(int testId, String input, String errorMessage) {
+        TestResult result = new TestResult();
+        result.setTestId(testId);
+        result.setPassed(false);
+        result.setMemoryLimitExceeded(true);
+        result.setInput(input);
+        result.setError(errorMessage);
         return result;
     }
 
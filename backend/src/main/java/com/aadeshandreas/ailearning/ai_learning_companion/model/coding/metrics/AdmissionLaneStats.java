@@ -0,0 +1,17 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics;
+
+/**
+ * Point-in-time counters for one priority lane of the admission queue.
+ *
+ * @param lane The lane name, e.g. "INTERACTIVE" or "BATCH"
+ * @param running Number of submissions from this lane currently compiling or executing
+ * @param queued Number of submissions waiting in this lane
+ * @param admitted Total number of submissions admitted from this lane
+ * @param rejected Total number of submissions of this lane rejected with a retry hint
+ * @param starvationPromotions Times a long-waiting submission of this lane was served ahead of higher priority work
+ * @param averageWaitMillis Average time admitted submissions of this lane spent waiting
+ * @param maxWaitMillis Longest time an admitted submission of this lane spent waiting
+ */
+public record AdmissionLaneStats(String lane, int running, int queued, long admitted, long rejected,
+                                 long starvationPromotions, double averageWaitMillis, long maxWaitMillis) {
+}
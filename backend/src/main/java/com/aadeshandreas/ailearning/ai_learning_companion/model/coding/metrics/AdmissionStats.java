@@ -0,0 +1,21 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics;
+
+import java.util.List;
+
+/**
+ * Point-in-time counters for the admission queue in front of code execution.
+ *
+ * @param maxConcurrent Maximum number of submissions compiling or executing at once
+ * @param running Number of submissions currently compiling or executing
+ * @param queued Number of submissions waiting to be admitted
+ * @param queuedSessions Number of sessions with at least one waiting submission
+ * @param admitted Total number of submissions admitted
+ * @param rejected Total number of submissions rejected with a retry hint
+ * @param averageWaitMillis Average time admitted submissions spent waiting in the queue
+ * @param averageJobMillis Recent average time a submission holds its slot, used for retry estimates
+ * @param lanes Counters per priority lane, highest priority first
+ */
+public record AdmissionStats(int maxConcurrent, int running, int queued, int queuedSessions,
+                             long admitted, long rejected, double averageWaitMillis, double averageJobMillis,
+                             List<AdmissionLaneStats> lanes) {
+}
@@ -0,0 +1,23 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics;
+
+/**
+ * Point-in-time counters for a bounded cache.
+ *
+ * @param hits Number of lookups that were served from the cache
+ * @param misses Number of lookups that were not found in the cache
+ * @param evictions Number of entries removed to stay within the configured bounds
+ * @param size Number of entries currently held
+ * @param weightBytes Approximate memory held by the current entries, in bytes
+ * @param hitRate Fraction of lookups served from the cache (0.0 when there were no lookups)
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, long weightBytes, double hitRate) {
+
+    /**
+     * Creates a snapshot, deriving the hit rate from the hit and miss counters.
+     */
+    public static CacheStats of(long hits, long misses, long evictions, int size, long weightBytes) {
+        long lookups = hits + misses;
+        double hitRate = lookups == 0 ? 0.0 : (double) hits / lookups;
+        return new CacheStats(hits, misses, evictions, size, weightBytes, hitRate);
+    }
+}
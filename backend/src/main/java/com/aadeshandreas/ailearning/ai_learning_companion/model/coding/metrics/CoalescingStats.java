@@ -0,0 +1,11 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics;
+
+/**
+ * Point-in-time counters for coalescing of identical concurrent submissions.
+ *
+ * @param inFlight Number of distinct submissions currently running
+ * @param executed Total number of submissions that ran
+ * @param coalesced Total number of requests that shared the result of an identical submission already running
+ */
+public record CoalescingStats(int inFlight, long executed, long coalesced) {
+}
@@ -0,0 +1,18 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Response DTO exposing runtime counters of the code execution subsystem.
+ */
+@Getter
+@Setter
+public class ExecutionMetrics {
+    private CacheStats compileCache;    // Compiled bytecode cache (InMemoryCodeCompiler)
+    private CacheStats resultCache;     // Stored results of unchanged resubmissions
+    private PoolStats executionPool;    // Shared worker pool running user code
+    private WorkerPoolStats workerPool; // Out-of-process execution workers
+    private AdmissionStats admission;   // Admission queue in front of compilation and execution
+    private CoalescingStats coalescing; // Sharing of identical concurrent submissions
+}
@@ -0,0 +1,16 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics;
+
+/**
+ * Point-in-time counters for a bounded worker pool.
+ *
+ * @param poolSize Number of worker threads currently alive
+ * @param activeCount Number of workers currently running a task
+ * @param queueDepth Number of tasks waiting for a worker
+ * @param queueCapacity Maximum number of tasks that may wait before submissions are rejected
+ * @param completedTasks Total number of tasks that finished running
+ * @param rejectedTasks Total number of tasks refused because the queue was full
+ * @param abandonedTasks Number of timed-out tasks that were cancelled but are still occupying a worker
+ */
+public record PoolStats(int poolSize, int activeCount, int queueDepth, int queueCapacity,
+                        long completedTasks, long rejectedTasks, int abandonedTasks) {
+}
@@ -0,0 +1,14 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics;
+
+/**
+ * Point-in-time counters for the pool of out-of-process execution workers.
+ *
+ * @param workers Number of worker processes currently alive or starting
+ * @param idleWorkers Number of worker processes waiting for a job
+ * @param completedJobs Number of jobs that returned results from a worker
+ * @param recycledWorkers Number of healthy workers replaced after reaching a job or thread limit
+ * @param killedWorkers Number of workers killed for exceeding a limit or crashing mid-job
+ */
+public record WorkerPoolStats(int workers, int idleWorkers, long completedJobs, long recycledWorkers,
+                              long killedWorkers) {
+}
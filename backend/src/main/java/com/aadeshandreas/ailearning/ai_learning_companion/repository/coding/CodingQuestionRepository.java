@@ -1,35 +1,45 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.repository.coding;
 
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching.ExecutionResultCache;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.SessionScope;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Session-scoped repository for caching generated coding questions.
  * Stores questions by their UUID for submission validation.
  * Maintains a mapping between topic IDs and question IDs for caching.
+ * Replacing or clearing questions drops their stored execution results.
  */
 @Component
 @SessionScope
 @Setter
 @Getter
-@NoArgsConstructor
 public class CodingQuestionRepository {
+    private final ExecutionResultCache executionResultCache;
     private Map<String, CodingQuestion> questions = new HashMap<>();
     private Map<Integer, String> topicToQuestionMap = new HashMap<>();
 
+    public CodingQuestionRepository(ExecutionResultCache executionResultCache) {
+        this.executionResultCache = executionResultCache;
+    }
+
     /**
      * Stores a coding question by its ID and maintains the topic-to-question mapping.
+     * When the topic already had a question (regeneration), results of the replaced question are invalidated.
      */
     public void save(CodingQuestion question) {
+        String previousId = topicToQuestionMap.put(question.getTopicId(), question.getId());
         questions.put(question.getId(), question);
-        topicToQuestionMap.put(question.getTopicId(), question.getId());
+        executionResultCache.invalidate(previousId != null
+                ? List.of(previousId, question.getId())
+                : List.of(question.getId()));
     }
 
     /**
@@ -52,6 +62,7 @@ public class CodingQuestionRepository {
      * Clears all cached questions and topic mappings (called when new document is uploaded).
      */
     public void clear() {
+        executionResultCache.invalidate(List.copyOf(questions.keySet()));
         questions.clear();
         topicToQuestionMap.clear();
     }
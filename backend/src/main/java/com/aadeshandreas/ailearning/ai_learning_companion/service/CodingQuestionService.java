@@ -1,6 +1,7 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service;
 
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.*;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.ExecutionMetrics;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.content.Summary;
 import com.aadeshandreas.ailearning.ai_learning_companion.repository.DocumentRepository;
 import com.aadeshandreas.ailearning.ai_learning_companion.repository.coding.CodingQuestionRepository;
@@ -9,7 +10,25 @@ import com.aadeshandreas.ailearning.ai_learning_companion.repository.content.Sum
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.CodeExecutor;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.CodingQuestionGenerator;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.CodingTopicExtractor;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.ExecutionMetricsCollector;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionAdmission;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionCoalescer;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionLane;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching.CodeFingerprint;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching.ExecutionResultCache;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionListener;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.jobs.ExecutionJob;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.jobs.ExecutionJobStore;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.speculative.SpeculativeCompiler;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.streaming.SubmissionStreamExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @Service
 public class CodingQuestionService {
@@ -20,6 +39,13 @@ public class CodingQuestionService {
     private final CodingTopicExtractor codingTopicExtractor;
     private final CodingQuestionGenerator codingQuestionGenerator;
     private final CodeExecutor codeExecutor;
+    private final ExecutionMetricsCollector executionMetricsCollector;
+    private final SubmissionAdmission submissionAdmission;
+    private final SubmissionCoalescer submissionCoalescer;
+    private final ExecutionResultCache executionResultCache;
+    private final SubmissionStreamExecutor submissionStreamExecutor;
+    private final ExecutionJobStore executionJobStore;
+    private final SpeculativeCompiler speculativeCompiler;
 
     public CodingQuestionService(
             CodingTopicRepository codingTopicRepository,
@@ -28,7 +54,14 @@ public class CodingQuestionService {
             CodingQuestionRepository codingQuestionRepository,
             CodingTopicExtractor codingTopicExtractor,
             CodingQuestionGenerator codingQuestionGenerator,
-            CodeExecutor codeExecutor
+            CodeExecutor codeExecutor,
+            ExecutionMetricsCollector executionMetricsCollector,
+            SubmissionAdmission submissionAdmission,
+            SubmissionCoalescer submissionCoalescer,
+            ExecutionResultCache executionResultCache,
+            SubmissionStreamExecutor submissionStreamExecutor,
+            ExecutionJobStore executionJobStore,
+            SpeculativeCompiler speculativeCompiler
     ) {
         this.codingTopicRepository = codingTopicRepository;
         this.documentRepository = documentRepository;
@@ -37,6 +70,13 @@ public class CodingQuestionService {
         this.codingTopicExtractor = codingTopicExtractor;
         this.codingQuestionGenerator = codingQuestionGenerator;
         this.codeExecutor = codeExecutor;
+        this.executionMetricsCollector = executionMetricsCollector;
+        this.submissionAdmission = submissionAdmission;
+        this.submissionCoalescer = submissionCoalescer;
+        this.executionResultCache = executionResultCache;
+        this.submissionStreamExecutor = submissionStreamExecutor;
+        this.executionJobStore = executionJobStore;
+        this.speculativeCompiler = speculativeCompiler;
     }
 
     /**
@@ -138,29 +178,286 @@ public class CodingQuestionService {
      * Submits user code for validation against all test cases.
      * @param questionId The UUID of the question being solved
      * @param userCode The user's complete Java solution
+     * @param maxFailures Optional number of failed tests after which execution stops (null runs every test)
+     * @param analyzeComplexity If true and every test passes, also estimates the solution's time complexity
      * @return ExecutionResult with all test results
+     * @throws com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionRejectedException
+     *         if too many submissions are waiting to run
      */
-    public ExecutionResult submitCodingQuestion(String questionId, String userCode) {
+    public ExecutionResult submitCodingQuestion(String questionId, String userCode, Integer maxFailures,
+                                                boolean analyzeComplexity) {
         CodingQuestion question = codingQuestionRepository.findById(questionId);
         if (question == null) {
             throw new IllegalArgumentException("Question with ID " + questionId + " not found");
         }
 
-        return codeExecutor.executeCode(userCode, question, false);
+        SubmissionKey key = new SubmissionKey("submit", questionId, userCode, maxFailures, analyzeComplexity);
+        return cachedOrRun(key, () -> admit(SubmissionLane.BATCH, key, () -> {
+            ExecutionResult result = codeExecutor.executeCode(userCode, question, false, maxFailures != null ? maxFailures : 0);
+            return withComplexity(result, userCode, question, analyzeComplexity);
+        }));
+    }
+
+    /**
+     * Submits user code like {@link #submitCodingQuestion}, reporting the compile status and each
+     * test result to a listener as soon as they are available.
+     * The question and the caller's session are resolved on the calling request thread; compiling and
+     * running happen on a stream thread, so the caller can start pushing events right away.
+     * @param questionId The UUID of the question being solved
+     * @param userCode The user's complete Java solution
+     * @param maxFailures Optional number of failed tests after which execution stops (null runs every test)
+     * @param analyzeComplexity If true and every test passes, also estimates the solution's time complexity
+     * @param listener Receives progress from the stream thread, and stops the run once it reports cancellation
+     * @return A future completed with the final ExecutionResult, or exceptionally with a
+     *         SubmissionRejectedException if too many submissions are waiting to run
+     * @throws java.util.concurrent.RejectedExecutionException if too many streams are open
+     */
+    public CompletableFuture<ExecutionResult> streamCodingQuestion(String questionId, String userCode,
+                                                                   Integer maxFailures, boolean analyzeComplexity,
+                                                                   ExecutionListener listener) {
+        CodingQuestion question = codingQuestionRepository.findById(questionId);
+        if (question == null) {
+            throw new IllegalArgumentException("Question with ID " + questionId + " not found");
+        }
+
+        SubmissionKey key = new SubmissionKey("submit", questionId, userCode, maxFailures, analyzeComplexity);
+        ExecutionResult cached = executionResultCache.get(questionId, cacheVariant(key), CodeFingerprint.of(userCode));
+        if (cached != null) {
+            replay(cached, listener);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return runInBackground(key, question, currentSessionId(), listener, null);
+    }
+
+    /**
+     * Starts a submission of user code as a background job and returns without waiting for it.
+     * The job runs like {@link #submitCodingQuestion}; its progress and result are collected with
+     * {@link #getCodingQuestionJob} and it can be stopped with {@link #cancelCodingQuestionJob}.
+     * @param questionId The UUID of the question being solved
+     * @param userCode The user's complete Java solution
+     * @param maxFailures Optional number of failed tests after which execution stops (null runs every test)
+     * @param analyzeComplexity If true and every test passes, also estimates the solution's time complexity
+     * @return The new job, already finished if the same code was run before
+     * @throws RejectedExecutionException if too many jobs or streams are open
+     */
+    public ExecutionJob submitCodingQuestionJob(String questionId, String userCode, Integer maxFailures,
+                                                boolean analyzeComplexity) {
+        CodingQuestion question = codingQuestionRepository.findById(questionId);
+        if (question == null) {
+            throw new IllegalArgumentException("Question with ID " + questionId + " not found");
+        }
+
+        String sessionId = currentSessionId();
+        ExecutionJob job = executionJobStore.create(sessionId);
+        SubmissionKey key = new SubmissionKey("submit", questionId, userCode, maxFailures, analyzeComplexity);
+        ExecutionResult cached = executionResultCache.get(questionId, cacheVariant(key), CodeFingerprint.of(userCode));
+        if (cached != null) {
+            replay(cached, job);
+            job.finish(cached, null);
+            return job;
+        }
+
+        try {
+            runInBackground(key, question, sessionId, job, job)
+                    .whenComplete(job::finish);
+        } catch (RejectedExecutionException e) {
+            executionJobStore.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Looks up a job started by the current session.
+     * @param jobId The id returned when the job was submitted
+     * @return The job, or null if it does not exist, has expired or belongs to another session
+     */
+    public ExecutionJob getCodingQuestionJob(String jobId) {
+        return executionJobStore.get(jobId, currentSessionId());
+    }
+
+    /**
+     * Cancels a job started by the current session. A waiting job leaves the queue immediately;
+     * a running one stops before its next test case.
+     * @param jobId The id returned when the job was submitted
+     * @return The job, or null if it does not exist, has expired or belongs to another session
+     */
+    public ExecutionJob cancelCodingQuestionJob(String jobId) {
+        ExecutionJob job = executionJobStore.get(jobId, currentSessionId());
+        if (job != null) {
+            job.cancel();
+        }
+        return job;
+    }
+
+    /**
+     * Compiles an editor snapshot in the background, the way a visible-test run would compile it, so
+     * that compile errors show up while typing and a later test run of the same code skips compiling.
+     * A newer snapshot from the same session supersedes this one.
+     * @param questionId The UUID of the question being solved
+     * @param userCode The current contents of the editor
+     * @return A future completed with the compile outcome and its diagnostics
+     */
+    public CompletableFuture<CompileCheck> compileSnapshot(String questionId, String userCode) {
+        CodingQuestion question = codingQuestionRepository.findById(questionId);
+        if (question == null) {
+            throw new IllegalArgumentException("Question with ID " + questionId + " not found");
+        }
+        return speculativeCompiler.submit(currentSessionId(),
+                superseded -> codeExecutor.precompile(userCode, question, superseded));
     }
 
     /**
      * Tests user code against only visible test cases (for practice).
      * @param questionId The UUID of the question being solved
      * @param userCode The user's complete Java solution
+     * @param maxFailures Optional number of failed tests after which execution stops (null runs every test)
+     * @param analyzeComplexity If true and every test passes, also estimates the solution's time complexity
      * @return ExecutionResult with visible test results only
+     * @throws com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionRejectedException
+     *         if too many submissions are waiting to run
+     */
+    public ExecutionResult testCodingQuestion(String questionId, String userCode, Integer maxFailures,
+                                              boolean analyzeComplexity) {
+        CodingQuestion question = codingQuestionRepository.findById(questionId);
+        if (question == null) {
+            throw new IllegalArgumentException("Question with ID " + questionId + " not found");
+        }
+
+        SubmissionKey key = new SubmissionKey("test", questionId, userCode, maxFailures, analyzeComplexity);
+        return cachedOrRun(key, () -> admit(SubmissionLane.INTERACTIVE, key, () -> {
+            ExecutionResult result = codeExecutor.executeCode(userCode, question, true, maxFailures != null ? maxFailures : 0);
+            return withComplexity(result, userCode, question, analyzeComplexity);
+        }));
+    }
+
+    /**
+     * Benchmarks user code on the visible test inputs of a question.
+     * The code must pass the visible tests first, since timing a wrong answer is not meaningful.
+     * @param questionId The UUID of the question being solved
+     * @param userCode The user's complete Java solution
+     * @return BenchmarkResult with throughput and latency percentiles, or the reason no benchmark ran
+     * @throws com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionRejectedException
+     *         if too many submissions are waiting to run
      */
-    public ExecutionResult testCodingQuestion(String questionId, String userCode) {
+    public BenchmarkResult benchmarkCodingQuestion(String questionId, String userCode) {
         CodingQuestion question = codingQuestionRepository.findById(questionId);
         if (question == null) {
             throw new IllegalArgumentException("Question with ID " + questionId + " not found");
         }
 
-        return codeExecutor.executeCode(userCode, question, true);
+        SubmissionKey key = new SubmissionKey("benchmark", questionId, userCode, null, false);
+        return admit(SubmissionLane.BATCH, key, () -> {
+            ExecutionResult check = codeExecutor.executeCode(userCode, question, true, 1);
+            if (!check.isSuccess()) {
+                return BenchmarkResult.failed(check.getError() != null
+                        ? check.getError()
+                        : "The solution must pass every visible test before it can be benchmarked");
+            }
+            return codeExecutor.benchmark(userCode, question);
+        });
+    }
+
+    /**
+     * Returns the stored result when the same code, ignoring comments and formatting, was already run
+     * the same way against this question; otherwise runs it and stores the result.
+     */
+    private ExecutionResult cachedOrRun(SubmissionKey key, Supplier<ExecutionResult> run) {
+        String variant = cacheVariant(key);
+        String fingerprint = CodeFingerprint.of(key.code());
+        ExecutionResult cached = executionResultCache.get(key.questionId(), variant, fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+        ExecutionResult result = run.get();
+        executionResultCache.put(key.questionId(), variant, fingerprint, result);
+        return result;
+    }
+
+    private static String cacheVariant(SubmissionKey key) {
+        return key.operation() + ":" + (key.maxFailures() != null ? key.maxFailures() : 0) + ":" + key.analyzeComplexity();
+    }
+
+    /**
+     * Runs a full submission on a stream thread through the admission queue, storing its result.
+     * @param job The job tracking the run, told when it waits and when it starts; null if there is none
+     */
+    private CompletableFuture<ExecutionResult> runInBackground(SubmissionKey key, CodingQuestion question,
+                                                               String sessionId, ExecutionListener listener,
+                                                               ExecutionJob job) {
+        return submissionStreamExecutor.submit(() -> {
+            if (job != null) {
+                job.waiting(Thread.currentThread());
+            }
+            ExecutionResult result = submissionAdmission.run(sessionId, SubmissionLane.BATCH, () -> {
+                if (job != null) {
+                    job.started();
+                }
+                ExecutionResult run = codeExecutor.executeCode(key.code(), question, false,
+                        key.maxFailures() != null ? key.maxFailures() : 0, listener);
+                return withComplexity(run, key.code(), question, key.analyzeComplexity());
+            });
+            executionResultCache.put(key.questionId(), cacheVariant(key), CodeFingerprint.of(key.code()), result);
+            return result;
+        });
+    }
+
+    /**
+     * Reports a stored result to a listener as if it had just run.
+     */
+    private static void replay(ExecutionResult result, ExecutionListener listener) {
+        listener.onCompiled(result.getTotalTests(), result.getCompilationTime());
+        List<TestResult> results = result.getResults();
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isSkipped()) {
+                listener.onTestResult(i, results.get(i));
+            }
+        }
+    }
+
+    /**
+     * Runs compile and execute work through the admission queue, queued fairly by the caller's session.
+     * Visible-test runs use the interactive lane so they stay quick while full submissions are running.
+     * Identical requests arriving while one is still in flight share its result instead of queueing again.
+     */
+    private <T> T admit(SubmissionLane lane, SubmissionKey key, Supplier<T> job) {
+        String sessionId = currentSessionId();
+        return submissionCoalescer.run(key, () -> submissionAdmission.run(sessionId, lane, job));
+    }
+
+    /**
+     * Returns the HTTP session id of the current request, used to queue submissions fairly per session.
+     */
+    private static String currentSessionId() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null ? request.getSessionId() : "";
+    }
+
+    /**
+     * Adds a complexity analysis to a fully passing result when it was requested.
+     * Failing solutions are not analysed, since their timings say little about the intended algorithm.
+     */
+    private ExecutionResult withComplexity(ExecutionResult result, String userCode, CodingQuestion question,
+                                           boolean analyzeComplexity) {
+        if (analyzeComplexity && result.isSuccess()) {
+            result.setComplexity(codeExecutor.analyzeComplexity(userCode, question));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a snapshot of the code execution subsystem counters (caches, pools, queues).
+     * @return ExecutionMetrics shared across all sessions
+     */
+    public ExecutionMetrics getExecutionMetrics() {
+        return executionMetricsCollector.collect();
+    }
+
+    /**
+     * Everything the result of a code run depends on, used to coalesce identical concurrent requests.
+     */
+    private record SubmissionKey(String operation, String questionId, String code, Integer maxFailures,
+                                 boolean analyzeComplexity) {
     }
 }
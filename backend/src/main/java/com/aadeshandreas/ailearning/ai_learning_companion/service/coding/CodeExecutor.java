@@ -1,17 +1,33 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding;
 
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.BenchmarkResult;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CompileCheck;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CompileCheckStatus;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ComplexityReport;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ExecutionResult;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.benchmark.SolutionBenchmark;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.ClassNameExtractor;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CodeCompiler;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompilationCancelledException;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompilationException;
-import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.TestCaseExecutor;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompiledCode;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.complexity.ComplexityAnalyzer;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionListener;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.TestSuiteRunner;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness.HarnessSource;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness.HarnessSourceGenerator;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.worker.ExecutionWorkerPool;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation.CodeValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 /**
  * Service for compiling and executing user-submitted Java code in a sandboxed environment.
@@ -19,19 +35,48 @@ import java.util.List;
  * This class orchestrates the execution flow by delegating to specialized components:
  * - CodeValidator: Security validation
  * - CodeCompiler: In-memory compilation
- * - TestCaseExecutor: Test execution with strategy pattern
+ * - TestSuiteRunner: Test execution (sequential or parallel) with strategy pattern
+ * - HarnessSourceGenerator: Optional generated harness that calls the solution directly
+ * - ExecutionWorkerPool: Optional out-of-process execution ({@code coding.execution.mode=worker})
+ * - ComplexityAnalyzer: Optional empirical time-complexity analysis of a passing solution
+ * - SolutionBenchmark: Warmed-up latency and throughput measurement of a solution
  */
 @Service
 public class CodeExecutor {
 
     private final CodeValidator codeValidator;
     private final CodeCompiler codeCompiler;
-    private final TestCaseExecutor testCaseExecutor;
+    private final TestSuiteRunner testSuiteRunner;
+    private final HarnessSourceGenerator harnessSourceGenerator;
+    private final boolean harnessEnabled;
+    private final ExecutionWorkerPool workerPool;
+    private final boolean workerMode;
+    private final ComplexityAnalyzer complexityAnalyzer;
+    private final SolutionBenchmark solutionBenchmark;
+    private final boolean precompileCheckOnly;
 
-    public CodeExecutor(CodeValidator codeValidator, CodeCompiler codeCompiler, TestCaseExecutor testCaseExecutor) {
+    public CodeExecutor(
+            CodeValidator codeValidator,
+            CodeCompiler codeCompiler,
+            TestSuiteRunner testSuiteRunner,
+            HarnessSourceGenerator harnessSourceGenerator,
+            @Value("${coding.execution.harness.enabled:false}") boolean harnessEnabled,
+            ExecutionWorkerPool workerPool,
+            @Value("${coding.execution.mode:in-process}") String executionMode,
+            ComplexityAnalyzer complexityAnalyzer,
+            SolutionBenchmark solutionBenchmark,
+            @Value("${coding.speculative-compile.check-only:false}") boolean precompileCheckOnly
+    ) {
         this.codeValidator = codeValidator;
         this.codeCompiler = codeCompiler;
-        this.testCaseExecutor = testCaseExecutor;
+        this.testSuiteRunner = testSuiteRunner;
+        this.harnessSourceGenerator = harnessSourceGenerator;
+        this.harnessEnabled = harnessEnabled;
+        this.workerPool = workerPool;
+        this.workerMode = "worker".equalsIgnoreCase(executionMode);
+        this.complexityAnalyzer = complexityAnalyzer;
+        this.solutionBenchmark = solutionBenchmark;
+        this.precompileCheckOnly = precompileCheckOnly;
     }
 
     /**
@@ -43,33 +88,90 @@ public class CodeExecutor {
      * @return ExecutionResult containing test results and metrics
      */
     public ExecutionResult executeCode(String userCode, CodingQuestion question, boolean visibleOnly) {
+        return executeCode(userCode, question, visibleOnly, 0);
+    }
+
+    /**
+     * Executes user code against test cases, stopping early after too many failures.
+     *
+     * @param userCode The complete Java code submitted by the user
+     * @param question The coding question containing test cases
+     * @param visibleOnly If true, only run visible test cases (for "Run Code" button)
+     * @param maxFailures Stop after this many failed tests and report the rest as skipped; 0 runs every test
+     * @return ExecutionResult containing test results and metrics
+     */
+    public ExecutionResult executeCode(String userCode, CodingQuestion question, boolean visibleOnly, int maxFailures) {
+        return executeCode(userCode, question, visibleOnly, maxFailures, ExecutionListener.NONE);
+    }
+
+    /**
+     * Executes user code against test cases, reporting progress to a listener while it runs.
+     * In worker mode the worker returns all results at once, so they are reported together when it
+     * finishes, and cancelling does not stop tests already handed to the worker.
+     *
+     * @param userCode The complete Java code submitted by the user
+     * @param question The coding question containing test cases
+     * @param visibleOnly If true, only run visible test cases (for "Run Code" button)
+     * @param maxFailures Stop after this many failed tests and report the rest as skipped; 0 runs every test
+     * @param listener Receives the compile status and each test result as it completes, and may cancel the run
+     * @return ExecutionResult containing test results and metrics; its error says so if the run was cancelled
+     */
+    public ExecutionResult executeCode(String userCode, CodingQuestion question, boolean visibleOnly, int maxFailures,
+                                       ExecutionListener listener) {
         ExecutionResult result = new ExecutionResult();
         List<TestResult> testResults = new ArrayList<>();
         long startTime = System.currentTimeMillis();
+        long phaseStart = System.nanoTime();
 
         try {
             // Step 1: Validate code for security
             codeValidator.validateCode(userCode);
+            result.setValidationTime(millisSince(phaseStart));
+            phaseStart = System.nanoTime();
 
-            // Step 2: Compile the code
-            Class<?> compiledClass = codeCompiler.compileCode(userCode);
-
-            // Step 3: Run test cases
             List<TestCase> testCases = visibleOnly
                     ? question.getTestCases().stream().filter(tc -> !tc.isHidden()).toList()
                     : question.getTestCases();
 
-            for (TestCase testCase : testCases) {
-                TestResult testResult = testCaseExecutor.executeTestCase(compiledClass, testCase, question);
-                testResults.add(testResult);
+            // Step 2: Compile the code, then a generated test harness against it when possible
+            Compilation compilation = compileSubmission(userCode, question, testCases, () -> false, false);
+            CompiledCode compiled = compilation.compiled();
+            HarnessSource harness = compilation.harness();
+            result.setCompilationTime(millisSince(phaseStart));
+            phaseStart = System.nanoTime();
+            listener.onCompiled(testCases.size(), result.getCompilationTime());
+
+            // Step 3: Run test cases, in this JVM or on a worker process
+            if (workerMode) {
+                // The worker defines the classes itself, so loading counts towards the run phase
+                String harnessClassName = harness != null ? harness.className() : null;
+                testResults.addAll(workerPool.execute(compiled, harnessClassName, question, testCases, maxFailures));
+                for (int i = 0; i < testResults.size(); i++) {
+                    if (!testResults.get(i).isSkipped()) {
+                        listener.onTestResult(i, testResults.get(i));
+                    }
+                }
+            } else {
+                Class<?> compiledClass = codeCompiler.load(compiled);
+                Class<?> harnessClass = harness != null ? loadHarness(compiledClass, harness) : null;
+                result.setClassLoadTime(millisSince(phaseStart));
+                phaseStart = System.nanoTime();
+                testResults.addAll(testSuiteRunner.runAll(compiledClass, harnessClass, testCases, question, maxFailures,
+                        listener));
             }
+            result.setRunTime(millisSince(phaseStart));
 
             // Step 4: Calculate results
             long passedCount = testResults.stream().filter(TestResult::isPassed).count();
             result.setSuccess(passedCount == testResults.size());
             result.setPassedTests((int) passedCount);
             result.setTotalTests(testResults.size());
+            result.setSkippedTests((int) testResults.stream().filter(TestResult::isSkipped).count());
             result.setResults(testResults);
+            if (listener.isCancelled()) {
+                result.setSuccess(false);
+                result.setError("Execution was cancelled");
+            }
 
         } catch (SecurityException e) {
             result.setSuccess(false);
@@ -94,4 +196,154 @@ public class CodeExecutor {
 
         return result;
     }
+
+    /**
+     * Validates and compiles user code exactly as a visible-test run would, without running it, so
+     * that a later run of the same code finds its bytecode in the compile cache. With
+     * {@code coding.speculative-compile.check-only} the code is only type-checked, which reports the
+     * same errors without generating or caching bytecode.
+     *
+     * @param userCode The complete Java code being edited
+     * @param question The coding question the code is written for
+     * @param cancelled Polled while compiling; once true the compilation is abandoned
+     * @return Whether the code compiled, with the compiler's diagnostics if it did not
+     * @throws CompilationCancelledException if the compilation was abandoned
+     */
+    public CompileCheck precompile(String userCode, CodingQuestion question, BooleanSupplier cancelled)
+            throws CompilationCancelledException {
+        CompileCheck check = new CompileCheck();
+        long startTime = System.nanoTime();
+        try {
+            codeValidator.validateCode(userCode);
+            List<TestCase> testCases = question.getTestCases().stream().filter(tc -> !tc.isHidden()).toList();
+            compileSubmission(userCode, question, testCases, cancelled, precompileCheckOnly);
+            check.setStatus(CompileCheckStatus.COMPILED);
+        } catch (CompilationCancelledException e) {
+            throw e;
+        } catch (SecurityException e) {
+            check.setStatus(CompileCheckStatus.FAILED);
+            check.setError("Security violation: " + e.getMessage());
+        } catch (CompilationException e) {
+            check.setStatus(CompileCheckStatus.FAILED);
+            check.setError("Compilation error: " + e.getMessage());
+            check.setDiagnostics(e.getDiagnostics());
+        }
+        check.setCompilationTime(millisSince(startTime));
+        return check;
+    }
+
+    /**
+     * Estimates the time complexity of user code by timing it on generated inputs of growing size.
+     * Intended for solutions that already pass their tests; the compiled class normally comes
+     * straight from the compile cache.
+     *
+     * @param userCode The complete Java code submitted by the user
+     * @param question The coding question containing the method signature and expected complexity
+     * @return The complexity report; its message explains when no analysis was possible
+     */
+    public ComplexityReport analyzeComplexity(String userCode, CodingQuestion question) {
+        String expected = question.getConstraints() != null ? question.getConstraints().getTimeComplexity() : null;
+        if (workerMode) {
+            // The analysis runs user code in this JVM, which worker mode is configured to avoid
+            return ComplexityReport.unavailable(expected,
+                    "Complexity analysis is not available when submissions run in worker processes");
+        }
+
+        try {
+            codeValidator.validateCode(userCode);
+            Class<?> compiledClass = codeCompiler.load(codeCompiler.compile(userCode));
+            return complexityAnalyzer.analyze(compiledClass, question);
+        } catch (SecurityException e) {
+            return ComplexityReport.unavailable(expected, "Security violation: " + e.getMessage());
+        } catch (CompilationException e) {
+            return ComplexityReport.unavailable(expected, "Compilation error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Benchmarks user code on the inputs of the question's visible test cases. Runs on a worker
+     * process in worker mode, so the measurement is isolated from the application JVM.
+     *
+     * @param userCode The complete Java code submitted by the user
+     * @param question The coding question containing test cases and the method signature
+     * @return The benchmark result; its error explains when no benchmark was possible
+     */
+    public BenchmarkResult benchmark(String userCode, CodingQuestion question) {
+        List<TestCase> testCases = question.getTestCases().stream().filter(tc -> !tc.isHidden()).toList();
+
+        BenchmarkResult result;
+        try {
+            codeValidator.validateCode(userCode);
+            CompiledCode compiled = codeCompiler.compile(userCode);
+            result = workerMode
+                    ? workerPool.benchmark(compiled, question, testCases, solutionBenchmark.getSettings())
+                    : solutionBenchmark.run(codeCompiler.load(compiled), question, testCases);
+        } catch (SecurityException e) {
+            result = BenchmarkResult.failed("Security violation: " + e.getMessage());
+        } catch (CompilationException e) {
+            result = BenchmarkResult.failed("Compilation error: " + e.getMessage());
+        }
+        result.setIsolation(workerMode ? "worker process" : "in-process");
+        return result;
+    }
+
+    /**
+     * Compiles the code, then a generated test harness against its bytecode when possible. The
+     * solution's bytecode is cached on its own, so runs against different test sets, the speculative
+     * compile, complexity analysis and benchmarks all share it; only the harness is test-set specific.
+     *
+     * @param checkOnly Only type-check the code; the returned compilation then holds no bytecode
+     */
+    private Compilation compileSubmission(String userCode, CodingQuestion question, List<TestCase> testCases,
+                                          BooleanSupplier cancelled, boolean checkOnly) throws CompilationException {
+        CompiledCode solution = compileOrCheck(userCode, cancelled, checkOnly);
+        HarnessSource harness = harnessEnabled && !checkOnly
+                ? harnessSourceGenerator.generate(ClassNameExtractor.extractClassName(userCode), question, testCases)
+                : null;
+        if (harness == null) {
+            return new Compilation(solution, null);
+        }
+
+        try {
+            return new Compilation(
+                    codeCompiler.compileAgainst(solution, harness.className(), harness.source(), cancelled), harness);
+        } catch (CompilationCancelledException e) {
+            throw e;
+        } catch (CompilationException e) {
+            // The harness does not fit this submission, which then runs without it
+            return new Compilation(solution, null);
+        }
+    }
+
+    private CompiledCode compileOrCheck(String code, BooleanSupplier cancelled, boolean checkOnly)
+            throws CompilationException {
+        if (checkOnly) {
+            codeCompiler.check(code, cancelled);
+            return null;
+        }
+        return codeCompiler.compile(code, cancelled);
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Loads the harness class that was compiled against the solution class, from the same loader.
+     */
+    private static Class<?> loadHarness(Class<?> compiledClass, HarnessSource harness) {
+        String packageName = compiledClass.getPackageName();
+        String binaryName = packageName.isEmpty() ? harness.className() : packageName + "." + harness.className();
+        try {
+            return compiledClass.getClassLoader().loadClass(binaryName);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The bytecode of a submission, and the harness compiled into it if there is one.
+     */
+    private record Compilation(CompiledCode compiled, HarnessSource harness) {
+    }
 }
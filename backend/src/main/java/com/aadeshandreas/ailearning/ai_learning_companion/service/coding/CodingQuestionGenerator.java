@@ -92,6 +92,10 @@ public interface CodingQuestionGenerator {
             - Multiple params: "2, [100,50]" or "[1,2,3], 1, 2" or "\"test\", 5"
             - List<Integer>: "[100, 50]" (bracket notation, will be converted)
             - String[][]: "[[\"a\",\"b\"],[\"c\",\"d\"]]"
+            - ListNode (linked list): "[1,2,3]" - values from head to tail
+            - TreeNode (binary tree): "[1,2,null,3]" - level order, null for a missing child
+            - ListNode/TreeNode results are written the same way with ", " separators; an empty one is "null"
+            - ListNode and TreeNode (int val; next / left, right) are provided - do NOT declare them in the starter code
 
             7. Hints: Provide 2-3 helpful hints (as a single string, one hint per line)
 
@@ -0,0 +1,51 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.ExecutionMetrics;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionAdmission;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionCoalescer;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching.ExecutionResultCache;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompiledClassCache;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.worker.ExecutionWorkerPool;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gathers counters from the components of the code execution pipeline into a single snapshot.
+ */
+@Component
+public class ExecutionMetricsCollector {
+
+    private final CompiledClassCache compiledClassCache;
+    private final CodeExecutionPool codeExecutionPool;
+    private final ExecutionWorkerPool executionWorkerPool;
+    private final SubmissionAdmission submissionAdmission;
+    private final SubmissionCoalescer submissionCoalescer;
+    private final ExecutionResultCache executionResultCache;
+
+    public ExecutionMetricsCollector(CompiledClassCache compiledClassCache, CodeExecutionPool codeExecutionPool,
+                                     ExecutionWorkerPool executionWorkerPool, SubmissionAdmission submissionAdmission,
+                                     SubmissionCoalescer submissionCoalescer, ExecutionResultCache executionResultCache) {
+        this.compiledClassCache = compiledClassCache;
+        this.codeExecutionPool = codeExecutionPool;
+        this.executionWorkerPool = executionWorkerPool;
+        this.submissionAdmission = submissionAdmission;
+        this.submissionCoalescer = submissionCoalescer;
+        this.executionResultCache = executionResultCache;
+    }
+
+    /**
+     * Takes a point-in-time snapshot of the execution subsystem counters.
+     *
+     * @return ExecutionMetrics populated from each component
+     */
+    public ExecutionMetrics collect() {
+        ExecutionMetrics metrics = new ExecutionMetrics();
+        metrics.setCompileCache(compiledClassCache.getStats());
+        metrics.setResultCache(executionResultCache.getStats());
+        metrics.setExecutionPool(codeExecutionPool.getStats());
+        metrics.setWorkerPool(executionWorkerPool.getStats());
+        metrics.setAdmission(submissionAdmission.getStats());
+        metrics.setCoalescing(submissionCoalescer.getStats());
+        return metrics;
+    }
+}
@@ -0,0 +1,298 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.AdmissionLaneStats;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.AdmissionStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission queue in front of compilation and execution, bounding how many submissions are
+ * processed at once.
+ * <p>
+ * A submission that finds no slot it may use waits in its {@link SubmissionLane}, in a queue of its
+ * session. Within a lane, freed slots go to the waiting sessions in round-robin order, one
+ * submission per turn, so a session that submits many times in a row cannot starve the others.
+ * <p>
+ * Interactive submissions are served before batch ones, and batch submissions may not occupy the
+ * last {@code coding.admission.interactive-reserved} slots, so a quick visible-test run never
+ * waits behind a full set of long hidden-test runs. To keep batch work from starving under a
+ * steady stream of interactive runs, a batch submission that has waited longer than
+ * {@code coding.admission.starvation-ms} is served first.
+ * <p>
+ * A submission is rejected with a {@link SubmissionRejectedException} instead of waiting when the
+ * queue, or its session's share of its lane, is full, or once it has waited for the maximum wait
+ * time. The rejection carries an estimate of when a retry would likely be admitted, based on the
+ * queue length and the recent average time a submission holds its slot.
+ */
+@Component
+public class SubmissionAdmission {
+
+    // Weight of the latest job in the moving average of job durations
+    private static final double JOB_TIME_SMOOTHING = 0.2;
+    private static final long INITIAL_JOB_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxConcurrent;
+    private final int maxBatchRunning;
+    private final int maxQueued;
+    private final int maxQueuedPerSession;
+    private final long maxWaitNanos;
+    private final long starvationNanos;
+
+    // Package-private so tests can hold it to order a grant against an interrupted wait
+    final ReentrantLock lock = new ReentrantLock();
+    private final Map<SubmissionLane, Lane> lanes = new EnumMap<>(SubmissionLane.class);
+    private int running;
+    private int queued;
+    private double averageJobNanos = INITIAL_JOB_NANOS;
+
+    public SubmissionAdmission(
+            @Value("${coding.admission.max-concurrent:0}") int maxConcurrent,
+            @Value("${coding.admission.max-queued:0}") int maxQueued,
+            @Value("${coding.admission.max-queued-per-session:2}") int maxQueuedPerSession,
+            @Value("${coding.admission.max-wait-ms:20000}") long maxWaitMs,
+            @Value("${coding.admission.interactive-reserved:1}") int interactiveReserved,
+            @Value("${coding.admission.starvation-ms:5000}") long starvationMs
+    ) {
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        // Batch work always keeps at least one slot
+        this.maxBatchRunning = this.maxConcurrent - Math.max(0, Math.min(interactiveReserved, this.maxConcurrent - 1));
+        this.maxQueued = maxQueued > 0 ? maxQueued : this.maxConcurrent * 8;
+        this.maxQueuedPerSession = Math.max(1, maxQueuedPerSession);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.starvationNanos = TimeUnit.MILLISECONDS.toNanos(starvationMs);
+        for (SubmissionLane lane : SubmissionLane.values()) {
+            lanes.put(lane, new Lane());
+        }
+    }
+
+    /**
+     * Runs a job once a slot is free, waiting in the session's queue of the given lane until then.
+     *
+     * @param sessionId Identifies whose submission this is, for fair ordering
+     * @param lane The priority lane of the submission
+     * @param job The compile and execute work of the submission
+     * @return The job's result
+     * @throws SubmissionRejectedException if the submission was not admitted
+     */
+    public <T> T run(String sessionId, SubmissionLane lane, Supplier<T> job) {
+        acquire(sessionId, lane);
+        long start = System.nanoTime();
+        try {
+            return job.get();
+        } finally {
+            release(lane, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the queue's counters.
+     */
+    public AdmissionStats getStats() {
+        lock.lock();
+        try {
+            List<AdmissionLaneStats> laneStats = new ArrayList<>();
+            Set<String> queuedSessions = new HashSet<>();
+            long admitted = 0;
+            long rejected = 0;
+            long totalWaitNanos = 0;
+            for (Map.Entry<SubmissionLane, Lane> entry : lanes.entrySet()) {
+                Lane lane = entry.getValue();
+                laneStats.add(new AdmissionLaneStats(entry.getKey().name(), lane.running, lane.queued,
+                        lane.admitted, lane.rejected, lane.starvationPromotions,
+                        lane.admitted > 0 ? lane.totalWaitNanos / 1e6 / lane.admitted : 0,
+                        TimeUnit.NANOSECONDS.toMillis(lane.maxWaitNanos)));
+                queuedSessions.addAll(lane.waiting.keySet());
+                admitted += lane.admitted;
+                rejected += lane.rejected;
+                totalWaitNanos += lane.totalWaitNanos;
+            }
+            double averageWaitMillis = admitted > 0 ? totalWaitNanos / 1e6 / admitted : 0;
+            return new AdmissionStats(maxConcurrent, running, queued, queuedSessions.size(), admitted, rejected,
+                    averageWaitMillis, averageJobNanos / 1e6, laneStats);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(String sessionId, SubmissionLane laneName) {
+        Lane lane = lanes.get(laneName);
+        lock.lock();
+        try {
+            if (queued >= maxQueued) {
+                throw reject(lane, "Too many submissions are waiting, please try again shortly");
+            }
+            ArrayDeque<Ticket> sessionQueue = lane.waiting.computeIfAbsent(sessionId, id -> new ArrayDeque<>());
+            if (sessionQueue.size() >= maxQueuedPerSession) {
+                throw reject(lane, "You already have submissions waiting, please wait for them to finish");
+            }
+
+            Ticket ticket = new Ticket(sessionId, lock.newCondition(), System.nanoTime());
+            if (sessionQueue.isEmpty()) {
+                lane.rotation.addLast(sessionId);
+            }
+            sessionQueue.addLast(ticket);
+            lane.queued++;
+            queued++;
+            // Admits the ticket right away if a slot is free and nothing is ahead of it
+            grantNext();
+
+            long remaining = maxWaitNanos;
+            try {
+                while (!ticket.granted && remaining > 0) {
+                    remaining = ticket.admitted.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abandon(lane, ticket);
+                throw new IllegalStateException("Interrupted while waiting for an execution slot");
+            }
+            if (!ticket.granted) {
+                abandon(lane, ticket);
+                throw reject(lane, "Submission waited too long for an execution slot, please try again shortly");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(SubmissionLane laneName, long jobNanos) {
+        lock.lock();
+        try {
+            running--;
+            lanes.get(laneName).running--;
+            averageJobNanos += JOB_TIME_SMOOTHING * (jobNanos - averageJobNanos);
+            grantNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands free slots to waiting submissions. Must be called with the lock held.
+     */
+    private void grantNext() {
+        Lane lane;
+        while (running < maxConcurrent && (lane = nextLane()) != null) {
+            String sessionId = lane.rotation.pollFirst();
+            ArrayDeque<Ticket> sessionQueue = lane.waiting.get(sessionId);
+            Ticket ticket = sessionQueue.pollFirst();
+            if (sessionQueue.isEmpty()) {
+                lane.waiting.remove(sessionId);
+            } else {
+                lane.rotation.addLast(sessionId);
+            }
+
+            long waitNanos = System.nanoTime() - ticket.enqueuedAt;
+            lane.queued--;
+            queued--;
+            lane.running++;
+            running++;
+            lane.admitted++;
+            lane.totalWaitNanos += waitNanos;
+            lane.maxWaitNanos = Math.max(lane.maxWaitNanos, waitNanos);
+            ticket.granted = true;
+            ticket.admitted.signal();
+        }
+    }
+
+    /**
+     * Picks the lane whose next submission gets a free slot, or null if none may run now.
+     * Must be called with the lock held.
+     */
+    private Lane nextLane() {
+        Lane interactive = lanes.get(SubmissionLane.INTERACTIVE);
+        Lane batch = lanes.get(SubmissionLane.BATCH);
+        boolean batchEligible = batch.queued > 0 && batch.running < maxBatchRunning;
+
+        if (batchEligible && interactive.queued > 0 && batch.waitOfNext() > starvationNanos) {
+            batch.starvationPromotions++;
+            return batch;
+        }
+        if (interactive.queued > 0) {
+            return interactive;
+        }
+        return batchEligible ? batch : null;
+    }
+
+    /**
+     * Gives up a ticket that stopped waiting; a slot granted in the meantime is passed on.
+     * Must be called with the lock held.
+     */
+    private void abandon(Lane lane, Ticket ticket) {
+        if (ticket.granted) {
+            lane.admitted--;
+            lane.running--;
+            running--;
+            grantNext();
+            return;
+        }
+        ArrayDeque<Ticket> sessionQueue = lane.waiting.get(ticket.sessionId);
+        sessionQueue.remove(ticket);
+        lane.queued--;
+        queued--;
+        if (sessionQueue.isEmpty()) {
+            lane.waiting.remove(ticket.sessionId);
+            lane.rotation.remove(ticket.sessionId);
+        }
+    }
+
+    /**
+     * Counts a rejection and estimates when the queue ahead of a retry would have drained.
+     * Must be called with the lock held.
+     */
+    private SubmissionRejectedException reject(Lane lane, String message) {
+        lane.rejected++;
+        double drainNanos = Math.ceil((double) (queued + running) / maxConcurrent) * averageJobNanos;
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(drainNanos / 1e9));
+        return new SubmissionRejectedException(message, retryAfterSeconds);
+    }
+
+    /**
+     * Waiting submissions and counters of one priority lane. Guarded by the admission lock.
+     */
+    private static class Lane {
+        private final Map<String, ArrayDeque<Ticket>> waiting = new HashMap<>();
+        private final ArrayDeque<String> rotation = new ArrayDeque<>();
+        private int running;
+        private int queued;
+        private long admitted;
+        private long rejected;
+        private long starvationPromotions;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        /**
+         * Returns how long the submission whose turn is next has been waiting.
+         */
+        long waitOfNext() {
+            String sessionId = rotation.peekFirst();
+            return sessionId != null ? System.nanoTime() - waiting.get(sessionId).peekFirst().enqueuedAt : 0;
+        }
+    }
+
+    private static class Ticket {
+        private final String sessionId;
+        private final Condition admitted;
+        private final long enqueuedAt;
+        private boolean granted;
+
+        Ticket(String sessionId, Condition admitted, long enqueuedAt) {
+            this.sessionId = sessionId;
+            this.admitted = admitted;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
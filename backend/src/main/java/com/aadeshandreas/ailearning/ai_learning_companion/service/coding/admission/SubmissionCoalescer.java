@@ -0,0 +1,80 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.CoalescingStats;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shares the work of identical submissions that arrive while one of them is still running,
+ * such as double-clicks and client retries.
+ * <p>
+ * The first request for a key runs the work; requests with an equal key that arrive before it
+ * finishes wait for it and receive the same result, or the same exception. Keys are only held
+ * while their work is in flight, so this never serves results of earlier submissions.
+ */
+@Component
+public class SubmissionCoalescer {
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Runs the work, unless work with an equal key is already running, in which case its result is shared.
+     *
+     * @param key Identifies the submission; must implement equals and hashCode over everything the result depends on
+     * @param work Produces the result of the submission
+     * @return The result, shared by every request coalesced into the same run
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T run(Object key, Supplier<T> work) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return (T) await(running);
+        }
+
+        executed.incrementAndGet();
+        try {
+            T result = work.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the coalescing counters.
+     */
+    public CoalescingStats getStats() {
+        return new CoalescingStats(inFlight.size(), executed.get(), coalesced.get());
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical submission");
+        } catch (ExecutionException e) {
+            // Rethrow what the running request itself threw
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
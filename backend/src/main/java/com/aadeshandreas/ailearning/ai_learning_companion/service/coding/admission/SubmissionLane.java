@@ -0,0 +1,16 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission;
+
+/**
+ * Priority lanes of the {@link SubmissionAdmission} queue.
+ */
+public enum SubmissionLane {
+    /**
+     * Quick runs a student is actively waiting on, such as visible-test runs. Served first.
+     */
+    INTERACTIVE,
+
+    /**
+     * Heavier work such as full submissions against hidden tests and benchmarks.
+     */
+    BATCH
+}
@@ -0,0 +1,21 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission;
+
+/**
+ * Thrown when a submission is not admitted for execution because too many are already waiting.
+ */
+public class SubmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SubmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Returns the estimated number of seconds until the submission would likely be admitted.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.benchmark;
+
+/**
+ * How long a {@link SolutionBenchmark} runs, also sent to worker processes with benchmark jobs.
+ *
+ * @param warmupIterations Iterations run before measuring, so the solution gets JIT-compiled
+ * @param measurementIterations Iterations whose calls are measured
+ * @param iterationTimeMs Wall-clock length of each iteration
+ * @param cpuBudgetMs CPU time after which the benchmark stops, whatever iteration it is in
+ */
+public record BenchmarkSettings(
+        int warmupIterations,
+        int measurementIterations,
+        long iterationTimeMs,
+        long cpuBudgetMs
+) {
+}
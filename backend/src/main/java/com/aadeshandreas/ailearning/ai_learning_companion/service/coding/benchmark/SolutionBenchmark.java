@@ -0,0 +1,238 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.benchmark;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.BenchmarkResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionErrorMessages;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.InvocationPlan;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.InvocationPlans;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy.ExecutionStrategyFactory;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudget;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.InputParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures how fast a solution method runs on the inputs of the visible test cases.
+ * <p>
+ * Follows the shape of a JMH benchmark: a number of fixed-length warmup iterations, whose calls are
+ * discarded, followed by measurement iterations. Each call is made through the same invocation
+ * plan as {@link com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy.SingleMethodExecutionStrategy}
+ * on freshly parsed arguments, cycling through the test inputs, and only the call itself is timed.
+ * The whole benchmark runs as one task on the shared execution pool and stops early once it has
+ * used its CPU-time budget, keeping whatever it measured until then.
+ */
+@Component
+public class SolutionBenchmark {
+
+    // Bounds the latency samples kept per iteration for very cheap calls
+    private static final int MAX_CALLS_PER_ITERATION = 100_000;
+    private static final long CPU_CHECK_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long TIMEOUT_SLACK_MS = 2000;
+
+    private final CodeExecutionPool executionPool;
+    private final InputParser inputParser;
+    private final ExecutionStrategyFactory strategyFactory;
+    private final BenchmarkSettings settings;
+
+    public SolutionBenchmark(
+            CodeExecutionPool executionPool,
+            InputParser inputParser,
+            ExecutionStrategyFactory strategyFactory,
+            @Value("${coding.benchmark.warmup-iterations:3}") int warmupIterations,
+            @Value("${coding.benchmark.measurement-iterations:5}") int measurementIterations,
+            @Value("${coding.benchmark.iteration-ms:200}") long iterationTimeMs,
+            @Value("${coding.benchmark.cpu-budget-ms:3000}") long cpuBudgetMs
+    ) {
+        this.executionPool = executionPool;
+        this.inputParser = inputParser;
+        this.strategyFactory = strategyFactory;
+        this.settings = new BenchmarkSettings(Math.max(0, warmupIterations), Math.max(1, measurementIterations),
+                Math.max(1, iterationTimeMs), Math.max(1, cpuBudgetMs));
+    }
+
+    /**
+     * Returns the configured iteration counts and budgets.
+     */
+    public BenchmarkSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Benchmarks the solution method of a compiled class.
+     *
+     * @param compiledClass The compiled solution class
+     * @param question The coding question containing the method signature
+     * @param testCases The test cases whose inputs are used, normally the visible ones
+     * @return The benchmark result; on failure only its error is set
+     */
+    public BenchmarkResult run(Class<?> compiledClass, CodingQuestion question, List<TestCase> testCases) {
+        if (testCases.isEmpty()) {
+            return BenchmarkResult.failed("The question has no test inputs to benchmark with");
+        }
+        if (question.getMethodSignature() == null || !strategyFactory.isSingleMethod(compiledClass, testCases)) {
+            return BenchmarkResult.failed("Benchmarks are only available for questions that call a single method");
+        }
+
+        InvocationPlan plan;
+        try {
+            plan = InvocationPlans.forMethod(compiledClass, question.getMethodSignature());
+        } catch (Exception e) {
+            return BenchmarkResult.failed("Method not found: " + question.getMethodSignature());
+        }
+        List<String> inputs = testCases.stream().map(TestCase::getInput).toList();
+
+        Future<Measurement> future;
+        try {
+            future = executionPool.getExecutor().submit(() -> measure(plan, inputs));
+        } catch (RejectedExecutionException e) {
+            return BenchmarkResult.failed("Server busy: too many submissions are running, please try again");
+        }
+
+        // Every iteration may overrun by one call; the CPU budget stops runaway solutions earlier
+        long timeoutMs = (settings.warmupIterations() + settings.measurementIterations()) * settings.iterationTimeMs()
+                + settings.cpuBudgetMs() + TIMEOUT_SLACK_MS;
+        try {
+            return summarize(CodeExecutionPool.getWithinRunLimit(future, timeoutMs, TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException e) {
+            return BenchmarkResult.failed("Server busy: too many submissions are running, please try again");
+        } catch (TimeoutException e) {
+            // Interrupt the worker so the shared pool gets it back
+            future.cancel(true);
+            return BenchmarkResult.failed("Time Limit Exceeded (benchmark took longer than " + timeoutMs + " ms)");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return BenchmarkResult.failed("Interrupted while benchmarking");
+        } catch (ExecutionException e) {
+            return BenchmarkResult.failed("Solution failed during benchmark: " + ExecutionErrorMessages.describe(e));
+        }
+    }
+
+    /**
+     * Runs every iteration on the current pool thread.
+     */
+    private Measurement measure(InvocationPlan plan, List<String> inputs) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long cpuBudgetNanos = TimeUnit.MILLISECONDS.toNanos(settings.cpuBudgetMs());
+        long iterationNanos = TimeUnit.MILLISECONDS.toNanos(settings.iterationTimeMs());
+        Class<?>[] parameterTypes = plan.getParameterTypes();
+
+        Measurement measurement = new Measurement();
+        int next = 0;
+        long nextCpuCheck = System.nanoTime() + CPU_CHECK_INTERVAL_NANOS;
+        int totalIterations = settings.warmupIterations() + settings.measurementIterations();
+        long[] durations = new long[MAX_CALLS_PER_ITERATION];
+        for (int iteration = 0; iteration < totalIterations && measurement.stopReason == null; iteration++) {
+            boolean measuring = iteration >= settings.warmupIterations();
+            long total = 0;
+            int calls = 0;
+            long iterationEnd = System.nanoTime() + iterationNanos;
+            do {
+                // Parsed per call, since solutions may modify their arguments
+                Object[] args = inputParser.parseTestInput(inputs.get(next), parameterTypes);
+                next = (next + 1) % inputs.size();
+                // Every call gets the budgets of a separate test case
+                InstructionBudget.restart();
+                executionPool.restartMemoryMeasurement();
+                long start = System.nanoTime();
+                plan.invoke(args);
+                long end = System.nanoTime();
+                durations[calls++] = end - start;
+                total += end - start;
+
+                if (end >= nextCpuCheck) {
+                    nextCpuCheck = end + CPU_CHECK_INTERVAL_NANOS;
+                    if (threads.getCurrentThreadCpuTime() - cpuStart > cpuBudgetNanos) {
+                        measurement.stopReason = "CPU budget of " + settings.cpuBudgetMs() + " ms used";
+                    }
+                }
+            } while (System.nanoTime() < iterationEnd && calls < MAX_CALLS_PER_ITERATION
+                    && measurement.stopReason == null);
+
+            // The calls of a measurement iteration cut short by the budget are still valid samples
+            if (measuring) {
+                measurement.iterations.add(new Iteration(Arrays.copyOf(durations, calls), total));
+            } else if (measurement.stopReason == null) {
+                measurement.warmupIterations++;
+            }
+        }
+        measurement.cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        return measurement;
+    }
+
+    private BenchmarkResult summarize(Measurement measurement) {
+        if (measurement.iterations.isEmpty()) {
+            return BenchmarkResult.failed("Benchmark stopped before any measurement: " + measurement.stopReason);
+        }
+
+        List<Double> iterationOpsPerSecond = new ArrayList<>();
+        long operations = 0;
+        long totalNanos = 0;
+        for (Iteration iteration : measurement.iterations) {
+            operations += iteration.durations().length;
+            totalNanos += iteration.totalNanos();
+            iterationOpsPerSecond.add(opsPerSecond(iteration.durations().length, iteration.totalNanos()));
+        }
+        long[] latencies = new long[(int) operations];
+        int offset = 0;
+        for (Iteration iteration : measurement.iterations) {
+            System.arraycopy(iteration.durations(), 0, latencies, offset, iteration.durations().length);
+            offset += iteration.durations().length;
+        }
+        Arrays.sort(latencies);
+
+        BenchmarkResult result = new BenchmarkResult();
+        result.setSuccess(true);
+        result.setWarmupIterations(measurement.warmupIterations);
+        result.setMeasurementIterations(measurement.iterations.size());
+        result.setIterationTime(settings.iterationTimeMs());
+        result.setOperations(operations);
+        result.setOpsPerSecond(opsPerSecond(operations, totalNanos));
+        result.setIterationOpsPerSecond(iterationOpsPerSecond);
+        result.setMeanNanos((double) totalNanos / operations);
+        result.setP50Nanos(percentile(latencies, 0.50));
+        result.setP99Nanos(percentile(latencies, 0.99));
+        result.setCpuTime(TimeUnit.NANOSECONDS.toMillis(measurement.cpuNanos));
+        if (measurement.stopReason != null) {
+            result.setMessage("Stopped during measurement iteration " + measurement.iterations.size() + " of "
+                    + settings.measurementIterations() + ": " + measurement.stopReason);
+        }
+        return result;
+    }
+
+    private static double opsPerSecond(long operations, long nanos) {
+        return nanos > 0 ? operations * 1e9 / nanos : 0;
+    }
+
+    /**
+     * Returns the nearest-rank percentile of sorted latencies.
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private record Iteration(long[] durations, long totalNanos) {
+    }
+
+    private static class Measurement {
+        private final List<Iteration> iterations = new ArrayList<>();
+        private int warmupIterations;
+        private long cpuNanos;
+        private String stopReason;
+    }
+}
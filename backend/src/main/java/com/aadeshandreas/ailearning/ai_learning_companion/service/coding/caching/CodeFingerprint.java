@@ -0,0 +1,139 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies Java source code independently of its comments and formatting.
+ * <p>
+ * A small lexer pass drops comments and whitespace while copying string, character and text
+ * block literals verbatim. A single space is kept only where removing it could join two tokens
+ * into one (such as {@code int x} or {@code a - -b}), so two sources with the same fingerprint
+ * always tokenize the same way.
+ * <p>
+ * Java translates unicode escapes before tokenizing, so an escape can turn what looks like a
+ * comment into code or end a literal early. Sources containing one are fingerprinted exactly as
+ * written instead of normalized.
+ */
+public final class CodeFingerprint {
+
+    private static final String OPERATOR_CHARS = "+-*/%&|^!<>=:?~";
+
+    private CodeFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of a source file.
+     *
+     * @param code The Java source code
+     * @return A hex-encoded SHA-256 digest of the normalized source
+     */
+    public static String of(String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(code).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Returns the source with comments and insignificant whitespace removed.
+     */
+    public static String normalize(String code) {
+        if (code.contains("\\u")) {
+            return code;
+        }
+
+        StringBuilder out = new StringBuilder(code.length());
+        boolean separated = false;
+        int i = 0;
+        int n = code.length();
+        while (i < n) {
+            char c = code.charAt(i);
+            int end;
+            if (Character.isWhitespace(c)) {
+                separated = true;
+                i++;
+                continue;
+            } else if (c == '/' && i + 1 < n && code.charAt(i + 1) == '/') {
+                end = i + 2;
+                while (end < n && code.charAt(end) != '\n' && code.charAt(end) != '\r') {
+                    end++;
+                }
+                separated = true;
+                i = end;
+                continue;
+            } else if (c == '/' && i + 1 < n && code.charAt(i + 1) == '*') {
+                end = code.indexOf("*/", i + 2);
+                separated = true;
+                i = end < 0 ? n : end + 2;
+                continue;
+            } else if (code.startsWith("\"\"\"", i)) {
+                end = textBlockEnd(code, i);
+            } else if (c == '"' || c == '\'') {
+                end = literalEnd(code, i, c);
+            } else {
+                end = i + 1;
+            }
+
+            if (separated && !out.isEmpty() && couldJoin(out.charAt(out.length() - 1), c)) {
+                out.append(' ');
+            }
+            out.append(code, i, end);
+            separated = false;
+            i = end;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns the index just past a string or character literal starting at {@code start}.
+     */
+    private static int literalEnd(String code, int start, char quote) {
+        int j = start + 1;
+        while (j < code.length()) {
+            char c = code.charAt(j);
+            if (c == '\\') {
+                j += 2;
+            } else if (c == quote) {
+                return j + 1;
+            } else if (c == '\n' || c == '\r') {
+                // Unterminated; the compiler reports it, so keep the rest as ordinary code
+                return j;
+            } else {
+                j++;
+            }
+        }
+        return code.length();
+    }
+
+    /**
+     * Returns the index just past a text block starting at {@code start}.
+     */
+    private static int textBlockEnd(String code, int start) {
+        int j = start + 3;
+        while (j < code.length()) {
+            if (code.charAt(j) == '\\') {
+                j += 2;
+            } else if (code.startsWith("\"\"\"", j)) {
+                return j + 3;
+            } else {
+                j++;
+            }
+        }
+        return code.length();
+    }
+
+    /**
+     * Returns whether two characters separated by whitespace could read as one token without it.
+     */
+    private static boolean couldJoin(char previous, char next) {
+        boolean previousWord = Character.isJavaIdentifierPart(previous) || previous == '.';
+        boolean nextWord = Character.isJavaIdentifierPart(next) || next == '.';
+        return (previousWord && nextWord)
+                || (OPERATOR_CHARS.indexOf(previous) >= 0 && OPERATOR_CHARS.indexOf(next) >= 0);
+    }
+}
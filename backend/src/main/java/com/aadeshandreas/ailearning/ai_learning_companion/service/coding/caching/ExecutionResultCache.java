@@ -0,0 +1,156 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ExecutionResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Application-wide cache of execution results, so resubmitting unchanged code answers immediately.
+ * <p>
+ * Entries are keyed by the question id, the kind of run (which tests, failure limit, analyses) and
+ * the {@link CodeFingerprint} of the code, so edits to comments or formatting alone still hit.
+ * Only results of code that compiled and ran to a verdict are stored: compile errors quote line
+ * numbers that formatting changes, and tests marked {@link TestResult#isTransientFailure() transient}
+ * or stopped by a memory limit depend on the load at the time.
+ * Entries of a question are dropped when it is regenerated or its session's questions are cleared.
+ * The cache is bounded by entry count and by the approximate size of the stored results, evicting
+ * least recently used entries first.
+ */
+@Component
+public class ExecutionResultCache {
+
+    // Rough per-object overhead used when estimating the size of a stored result
+    private static final int OBJECT_OVERHEAD_BYTES = 64;
+
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ExecutionResultCache(
+            @Value("${coding.result-cache.max-entries:512}") int maxEntries,
+            @Value("${coding.result-cache.max-bytes:16777216}") long maxBytes
+    ) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Looks up the stored result of an earlier run.
+     *
+     * @param questionId The question the code was run against
+     * @param variant Describes the kind of run, e.g. which tests were included
+     * @param fingerprint The {@link CodeFingerprint} of the code
+     * @return The stored result, or null if not present
+     */
+    public synchronized ExecutionResult get(String questionId, String variant, String fingerprint) {
+        Entry entry = entries.get(new Key(questionId, variant, fingerprint));
+        if (entry != null) {
+            hits++;
+            return entry.result;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Stores the result of a run if it is reproducible, evicting least recently used entries to
+     * stay within bounds. Results are shared by every later hit and must not be modified afterwards.
+     */
+    public synchronized void put(String questionId, String variant, String fingerprint, ExecutionResult result) {
+        if (maxEntries <= 0 || !isCacheable(result)) {
+            return;
+        }
+        long size = estimateBytes(result);
+        if (size > maxBytes) {
+            return;
+        }
+
+        Key key = new Key(questionId, variant, fingerprint);
+        Entry previous = entries.put(key, new Entry(result, size));
+        if (previous != null) {
+            currentBytes -= previous.sizeInBytes;
+        }
+        currentBytes += size;
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            currentBytes -= eldest.getValue().sizeInBytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops every stored result of the given questions.
+     */
+    public synchronized void invalidate(Collection<String> questionIds) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (questionIds.contains(entry.getKey().questionId)) {
+                currentBytes -= entry.getValue().sizeInBytes;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counters.
+     */
+    public synchronized CacheStats getStats() {
+        return CacheStats.of(hits, misses, evictions, entries.size(), currentBytes);
+    }
+
+    /**
+     * Returns whether running the same code again would give the same verdict.
+     */
+    private static boolean isCacheable(ExecutionResult result) {
+        if (result.getError() != null || result.getResults() == null) {
+            return false;
+        }
+        for (TestResult test : result.getResults()) {
+            if (test.isMemoryLimitExceeded() || test.isTransientFailure()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long estimateBytes(ExecutionResult result) {
+        long bytes = OBJECT_OVERHEAD_BYTES;
+        for (TestResult test : result.getResults()) {
+            bytes += OBJECT_OVERHEAD_BYTES + stringBytes(test.getInput()) + stringBytes(test.getExpectedOutput())
+                    + stringBytes(test.getActualOutput()) + stringBytes(test.getError());
+        }
+        if (result.getComplexity() != null && result.getComplexity().getSamples() != null) {
+            bytes += OBJECT_OVERHEAD_BYTES * (1L + result.getComplexity().getSamples().size());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value != null ? 2L * value.length() : 0;
+    }
+
+    private record Key(String questionId, String variant, String fingerprint) {
+    }
+
+    private record Entry(ExecutionResult result, long sizeInBytes) {
+    }
+}
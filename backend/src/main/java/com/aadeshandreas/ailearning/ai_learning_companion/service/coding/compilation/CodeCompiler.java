@@ -1,5 +1,7 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
 
+import java.util.function.BooleanSupplier;
+
 /**
  * Interface for compiling Java code in-memory.
  */
@@ -12,5 +14,68 @@ public interface CodeCompiler {
      * @return The compiled Class object
      * @throws CompilationException if compilation fails
      */
-    Class<?> compileCode(String code) throws CompilationException;
+    default Class<?> compileCode(String code) throws CompilationException {
+        return load(compile(code));
+    }
+
+    /**
+     * Compiles Java source code to bytecode without loading it.
+     *
+     * @param code The Java source code to compile
+     * @return The bytecode of every class produced by the compilation
+     * @throws CompilationException if compilation fails
+     */
+    default CompiledCode compile(String code) throws CompilationException {
+        return compile(code, () -> false);
+    }
+
+    /**
+     * Compiles Java source code to bytecode without loading it, giving up early once the caller
+     * reports that the result is no longer needed.
+     *
+     * @param code The Java source code to compile
+     * @param cancelled Polled between compiler phases
+     * @return The bytecode of every class produced by the compilation
+     * @throws CompilationCancelledException if the compilation was abandoned
+     * @throws CompilationException if compilation fails
+     * @throws SecurityException if the bytecode references a denied API
+     */
+    CompiledCode compile(String code, BooleanSupplier cancelled) throws CompilationException;
+
+    /**
+     * Compiles an extra source file against previously compiled bytecode, such as a generated test
+     * harness that calls a submission. Only the extra file is compiled, so the earlier bytecode
+     * stays the same whatever is compiled against it.
+     *
+     * @param base The bytecode the extra file refers to, which is on its class path
+     * @param className The name of the top-level class declared by {@code code}
+     * @param code The Java source code of the extra file
+     * @param cancelled Polled between compiler phases
+     * @return The classes of {@code base} and of the extra file, with the entry class of {@code base}
+     * @throws CompilationCancelledException if the compilation was abandoned
+     * @throws CompilationException if the extra file fails to compile
+     * @throws SecurityException if the bytecode references a denied API
+     */
+    CompiledCode compileAgainst(CompiledCode base, String className, String code, BooleanSupplier cancelled)
+            throws CompilationException;
+
+    /**
+     * Parses and type-checks Java source code without generating bytecode, which is enough to
+     * report compile errors.
+     *
+     * @param code The Java source code to check
+     * @param cancelled Polled between compiler phases
+     * @throws CompilationCancelledException if the check was abandoned
+     * @throws CompilationException with the compiler's diagnostics if the code does not compile
+     */
+    void check(String code, BooleanSupplier cancelled) throws CompilationException;
+
+    /**
+     * Defines previously compiled bytecode in a fresh class loader.
+     *
+     * @param compiled The bytecode produced by {@link #compile(String)}
+     * @return The entry class of the compilation
+     * @throws CompilationException if the classes cannot be loaded
+     */
+    Class<?> load(CompiledCode compiled) throws CompilationException;
 }
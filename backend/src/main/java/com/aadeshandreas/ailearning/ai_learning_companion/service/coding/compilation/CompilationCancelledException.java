@@ -0,0 +1,11 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
+
+/**
+ * Exception thrown when a compilation is abandoned because its caller no longer needs the result.
+ */
+public class CompilationCancelledException extends CompilationException {
+
+    public CompilationCancelledException() {
+        super("Compilation cancelled");
+    }
+}
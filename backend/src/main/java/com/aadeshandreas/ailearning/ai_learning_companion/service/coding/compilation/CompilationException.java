@@ -1,11 +1,43 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
 
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CompileDiagnostic;
+
+import java.util.List;
+
 /**
  * Exception thrown when Java code compilation fails.
+ * Compiler errors are also available as structured {@link CompileDiagnostic}s.
  */
 public class CompilationException extends Exception {
 
+    private final List<CompileDiagnostic> diagnostics;
+
     public CompilationException(String message) {
+        this(message, List.of());
+    }
+
+    public CompilationException(String message, List<CompileDiagnostic> diagnostics) {
         super(message);
+        this.diagnostics = List.copyOf(diagnostics);
+    }
+
+    /**
+     * Creates the exception for a compilation that javac rejected, listing each diagnostic by line.
+     */
+    public static CompilationException fromDiagnostics(List<CompileDiagnostic> diagnostics) {
+        StringBuilder errorMsg = new StringBuilder();
+        for (CompileDiagnostic diagnostic : diagnostics) {
+            errorMsg.append("Line ").append(diagnostic.getLine())
+                    .append(": ").append(diagnostic.getMessage())
+                    .append("\n");
+        }
+        return new CompilationException(errorMsg.toString(), diagnostics);
+    }
+
+    /**
+     * Returns the compiler's diagnostics, or an empty list if the failure did not come from javac.
+     */
+    public List<CompileDiagnostic> getDiagnostics() {
+        return diagnostics;
     }
 }
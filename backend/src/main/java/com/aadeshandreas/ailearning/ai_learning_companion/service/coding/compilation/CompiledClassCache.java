@@ -0,0 +1,154 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content-addressed, application-wide cache of compiled bytecode.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the compiler options and the source code, so
+ * identical submissions from any session share the same entry. Only class bytes are stored;
+ * callers define them in a fresh class loader on every hit, which keeps loaded classes
+ * collectable and metaspace bounded. The cache is bounded both by entry count and by the
+ * total number of bytecode bytes held, evicting least recently used entries first.
+ */
+@Component
+public class CompiledClassCache {
+
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, CompiledCode> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CompiledClassCache(
+            @Value("${coding.compile-cache.max-entries:256}") int maxEntries,
+            @Value("${coding.compile-cache.max-bytes:33554432}") long maxBytes
+    ) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Computes the cache key for a source file compiled with the given options.
+     *
+     * @param code The Java source code
+     * @param options The compiler options used for the compilation
+     * @return A hex-encoded SHA-256 digest identifying the compilation
+     */
+    public static String keyFor(String code, List<String> options) {
+        MessageDigest digest = sha256();
+        for (String option : options) {
+            digest.update(option.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update((byte) 0);
+        digest.update(code.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes the cache key for a source file compiled against the bytecode of an earlier
+     * compilation, whose classes then count as part of the input.
+     *
+     * @param code The Java source code
+     * @param options The compiler options used for the compilation
+     * @param classPath The earlier compilation on the class path
+     * @return A hex-encoded SHA-256 digest identifying the compilation
+     */
+    public static String keyFor(String code, List<String> options, CompiledCode classPath) {
+        MessageDigest digest = sha256();
+        for (Map.Entry<String, byte[]> entry : new TreeMap<>(classPath.classBytes()).entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(entry.getValue());
+        }
+        List<String> withClassPath = new ArrayList<>(options);
+        withClassPath.add("class-path:" + HexFormat.of().formatHex(digest.digest()));
+        return keyFor(code, withClassPath);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Looks up previously compiled bytecode.
+     *
+     * @param key The key produced by {@link #keyFor(String, List)}
+     * @return The cached compilation, or null if not present
+     */
+    public synchronized CompiledCode get(String key) {
+        CompiledCode compiled = entries.get(key);
+        if (compiled != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return compiled;
+    }
+
+    /**
+     * Returns whether bytecode is cached for the key, without counting a hit or miss or refreshing
+     * the entry's position in the eviction order.
+     *
+     * @param key The key produced by {@link #keyFor(String, List)}
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Stores compiled bytecode, evicting least recently used entries to stay within bounds.
+     * Compilations larger than the whole byte budget are not cached.
+     */
+    public synchronized void put(String key, CompiledCode compiled) {
+        long size = compiled.sizeInBytes();
+        if (maxEntries <= 0 || size > maxBytes) {
+            return;
+        }
+
+        CompiledCode previous = entries.put(key, compiled);
+        if (previous != null) {
+            currentBytes -= previous.sizeInBytes();
+        }
+        currentBytes += size;
+
+        Iterator<Map.Entry<String, CompiledCode>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, CompiledCode> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            currentBytes -= eldest.getValue().sizeInBytes();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counters.
+     */
+    public synchronized CacheStats getStats() {
+        return CacheStats.of(hits, misses, evictions, entries.size(), currentBytes);
+    }
+}
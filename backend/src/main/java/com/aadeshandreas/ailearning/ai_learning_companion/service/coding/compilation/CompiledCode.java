@@ -0,0 +1,27 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
+
+import java.util.Map;
+
+/**
+ * The bytecode produced by compiling a single submission.
+ *
+ * @param className The name of the public (entry) class of the submission
+ * @param classBytes Bytecode for every class produced by the compilation, keyed by binary name
+ */
+public record CompiledCode(String className, Map<String, byte[]> classBytes) {
+
+    public CompiledCode {
+        classBytes = Map.copyOf(classBytes);
+    }
+
+    /**
+     * Returns the total number of bytecode bytes held by this unit.
+     */
+    public long sizeInBytes() {
+        long size = 0;
+        for (byte[] bytes : classBytes.values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,103 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the system Java compiler and a bounded pool of pre-initialized standard file managers.
+ * <p>
+ * Opening a standard file manager indexes the platform modules, which is the dominant cost of a
+ * cold compilation. File managers are not thread-safe, so each compilation borrows one exclusively
+ * and returns it afterwards; the in-memory output wrapper is created per compilation, so no
+ * per-task state survives in a pooled manager beyond javac's own caches.
+ */
+@Component
+public class CompilerContextPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompilerContextPool.class);
+    private static final long ACQUIRE_POLL_MS = 100;
+
+    private final JavaCompiler compiler;
+    private final int maxSize;
+    private final BlockingQueue<StandardJavaFileManager> idle;
+    private final AtomicInteger created = new AtomicInteger();
+
+    public CompilerContextPool(@Value("${coding.compiler.pool-size:0}") int poolSize) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        this.maxSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Returns the system Java compiler, or null when running on a JRE.
+     */
+    public JavaCompiler getCompiler() {
+        return compiler;
+    }
+
+    /**
+     * Returns the maximum number of file managers kept by this pool.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Borrows a file manager, creating one if the pool has not reached its size limit,
+     * otherwise waiting for another compilation to release one.
+     *
+     * @return A file manager for exclusive use until {@link #release} or {@link #discard} is called
+     * @throws InterruptedException if interrupted while waiting for a free file manager
+     */
+    public StandardJavaFileManager acquire() throws InterruptedException {
+        StandardJavaFileManager fileManager = idle.poll();
+        while (fileManager == null) {
+            if (created.incrementAndGet() <= maxSize) {
+                return compiler.getStandardFileManager(null, null, null);
+            }
+            created.decrementAndGet();
+
+            // Re-check periodically in case a busy file manager was discarded instead of released
+            fileManager = idle.poll(ACQUIRE_POLL_MS, TimeUnit.MILLISECONDS);
+        }
+        return fileManager;
+    }
+
+    /**
+     * Returns a file manager to the pool after a completed compilation.
+     */
+    public void release(StandardJavaFileManager fileManager) {
+        try {
+            fileManager.flush();
+        } catch (IOException e) {
+            discard(fileManager);
+            return;
+        }
+        if (!idle.offer(fileManager)) {
+            discard(fileManager);
+        }
+    }
+
+    /**
+     * Closes a file manager that may be in an inconsistent state instead of returning it to the pool.
+     */
+    public void discard(StandardJavaFileManager fileManager) {
+        created.decrementAndGet();
+        try {
+            fileManager.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close discarded file manager: {}", e.getMessage());
+        }
+    }
+}
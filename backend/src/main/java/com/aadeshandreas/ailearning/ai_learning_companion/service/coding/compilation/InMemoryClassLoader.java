@@ -0,0 +1,88 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudget;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudgetExceededError;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ClassLoader for loading classes from byte arrays.
+ * A new loader is created for every submission, so its classes can be unloaded once the
+ * submission has finished running.
+ * <p>
+ * Submissions see the JDK through the system class loader plus the few application classes that
+ * instrumented bytecode calls into, which are taken from the application's own loader so that
+ * they are the same classes the execution pipeline uses (e.g. inside an executable jar). The
+ * {@link SharedHelperClasses} are defined once by that shared parent. Classes of the submission
+ * itself are loaded before asking the parent, so a submission that declares its own
+ * {@code TreeNode} gets its own class rather than the shared one.
+ */
+public class InMemoryClassLoader extends ClassLoader {
+    static final ClassLoader SUBMISSION_PARENT = new SubmissionParentLoader();
+
+    private final Map<String, byte[]> classBytes;
+
+    public InMemoryClassLoader(Map<String, byte[]> classBytes) {
+        super(SUBMISSION_PARENT);
+        this.classBytes = classBytes;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!classBytes.containsKey(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                loaded = findClass(name);
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        byte[] bytes = classBytes.get(name);
+        if (bytes != null) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+        return super.findClass(name);
+    }
+
+    /**
+     * System class loader that additionally exposes the runtime support classes of instrumented code
+     * and defines the shared helper classes.
+     */
+    private static class SubmissionParentLoader extends ClassLoader {
+        private static final Set<String> SHARED_CLASSES = Set.of(
+                InstructionBudget.class.getName(),
+                InstructionBudgetExceededError.class.getName()
+        );
+
+        SubmissionParentLoader() {
+            super(ClassLoader.getSystemClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (SHARED_CLASSES.contains(name)) {
+                return InMemoryClassLoader.class.getClassLoader().loadClass(name);
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = SharedHelperClasses.isHelper(name) ? SharedHelperClasses.classBytes().get(name) : null;
+            if (bytes != null) {
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+            return super.findClass(name);
+        }
+    }
+}
@@ -1,86 +1,334 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
 
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CompileDiagnostic;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudgetInstrumenter;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation.BytecodeSecurityVerifier;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import javax.tools.*;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
  * Compiles Java code in-memory using the Java Compiler API.
+ * Compiled bytecode is shared across sessions through {@link CompiledClassCache}, and javac
+ * file managers are reused through {@link CompilerContextPool}. Bytecode is checked by
+ * {@link BytecodeSecurityVerifier} and, when enabled, passed through
+ * {@link InstructionBudgetInstrumenter} before it is cached. Code is parsed and type-checked
+ * before any bytecode is generated, so code with errors never reaches generation, and a check-only
+ * mode stops after type-checking. A compilation that is no longer needed is abandoned at the next
+ * javac phase boundary. The precompiled {@link SharedHelperClasses} are on the class path of every
+ * compilation, and {@link #compileAgainst} adds the bytecode of an earlier compilation to it.
  */
 @Component
 public class InMemoryCodeCompiler implements CodeCompiler {
 
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryCodeCompiler.class);
+
+    // Annotation processing is never needed for submissions and skips the processor classpath scan
+    private static final List<String> COMPILER_OPTIONS = List.of("-proc:none");
+
+    private static final String WARM_UP_CLASS_NAME = "WarmUp";
+    private static final String WARM_UP_CODE =
+            "public class WarmUp { public int run(java.util.List<Integer> xs) { return xs.size(); } }";
+
+    private final CompiledClassCache compiledClassCache;
+    private final CompilerContextPool contextPool;
+    private final InstructionBudgetInstrumenter instrumenter;
+    private final BytecodeSecurityVerifier securityVerifier;
+    private final List<String> cacheKeyOptions;
+
+    public InMemoryCodeCompiler(CompiledClassCache compiledClassCache, CompilerContextPool contextPool,
+                                InstructionBudgetInstrumenter instrumenter,
+                                BytecodeSecurityVerifier securityVerifier) {
+        this.compiledClassCache = compiledClassCache;
+        this.contextPool = contextPool;
+        this.instrumenter = instrumenter;
+        this.securityVerifier = securityVerifier;
+
+        // Instrumented and plain bytecode of the same source must not share a cache entry
+        List<String> options = new ArrayList<>(COMPILER_OPTIONS);
+        if (instrumenter.isEnabled()) {
+            options.add("instrument:instruction-budget");
+        }
+        this.cacheKeyOptions = List.copyOf(options);
+    }
+
+    @Override
+    public CompiledCode compile(String code, BooleanSupplier cancelled) throws CompilationException {
+        // Reuse bytecode from an identical earlier compilation when possible
+        String cacheKey = CompiledClassCache.keyFor(code, cacheKeyOptions);
+        CompiledCode compiled = compiledClassCache.get(cacheKey);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        compiled = compileAndVerify(publicClassName(code), code, SharedHelperClasses.classBytes(), cancelled);
+        compiledClassCache.put(cacheKey, compiled);
+        return compiled;
+    }
+
     @Override
-    public Class<?> compileCode(String code) throws CompilationException {
+    public CompiledCode compileAgainst(CompiledCode base, String className, String code, BooleanSupplier cancelled)
+            throws CompilationException {
+        // The extra classes are only valid for the bytecode they were compiled against
+        String cacheKey = CompiledClassCache.keyFor(code, cacheKeyOptions, base);
+        CompiledCode extra = compiledClassCache.get(cacheKey);
+        if (extra == null) {
+            // Classes of the base shadow shared helpers of the same name, as they do in the base itself
+            Map<String, byte[]> classPath = new HashMap<>(SharedHelperClasses.classBytes());
+            classPath.putAll(base.classBytes());
+            extra = compileAndVerify(className, code, classPath, cancelled);
+            compiledClassCache.put(cacheKey, extra);
+        }
+
+        Map<String, byte[]> classBytes = new HashMap<>(base.classBytes());
+        classBytes.putAll(extra.classBytes());
+        return new CompiledCode(base.className(), classBytes);
+    }
+
+    @Override
+    public void check(String code, BooleanSupplier cancelled) throws CompilationException {
+        // Code that was compiled before is known to be free of errors
+        if (compiledClassCache.contains(CompiledClassCache.keyFor(code, cacheKeyOptions))) {
+            return;
+        }
+
         try {
-            // Extract class name from code
-            String className = ClassNameExtractor.extractClassName(code);
-            if (className == null) {
-                throw new CompilationException("Could not find public class declaration");
+            compileToBytes(publicClassName(code), code, SharedHelperClasses.classBytes(), cancelled, false);
+        } catch (CompilationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompilationException("Compilation failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Class<?> load(CompiledCode compiled) throws CompilationException {
+        try {
+            // Load the compiled class (and any nested classes) in a fresh loader
+            InMemoryClassLoader classLoader = new InMemoryClassLoader(compiled.classBytes());
+            return classLoader.loadClass(compiled.className());
+        } catch (Exception e) {
+            throw new CompilationException("Compilation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compiles a trivial class on every pooled file manager in the background once the
+     * application is ready, so the first submission after a deploy does not pay javac's
+     * initialization cost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpInBackground() {
+        Thread warmUpThread = new Thread(this::warmUp, "javac-warmup");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
+    private void warmUp() {
+        if (contextPool.getCompiler() == null) {
+            return;
+        }
+        SharedHelperClasses.classBytes();
+
+        long startTime = System.currentTimeMillis();
+        List<StandardJavaFileManager> fileManagers = new ArrayList<>();
+        try {
+            // Hold every manager at once so each one gets created and warmed
+            for (int i = 0; i < contextPool.getMaxSize(); i++) {
+                StandardJavaFileManager fileManager = contextPool.acquire();
+                fileManagers.add(fileManager);
+                compileWith(fileManager, WARM_UP_CLASS_NAME, WARM_UP_CODE, SharedHelperClasses.classBytes(),
+                        () -> false, true);
             }
+            logger.info("Warmed up {} javac file managers in {} ms",
+                    fileManagers.size(), System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            logger.warn("javac warm-up failed: {}", e.getMessage());
+        } finally {
+            fileManagers.forEach(contextPool::release);
+        }
+    }
 
-            // Get system Java compiler
-            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-            if (compiler == null) {
-                throw new CompilationException("Java compiler not available. Ensure you're running on JDK, not JRE.");
+    /**
+     * Compiles the source, then verifies and, when enabled, instruments the resulting bytecode.
+     */
+    private CompiledCode compileAndVerify(String className, String code, Map<String, byte[]> classPath,
+                                         BooleanSupplier cancelled) throws CompilationException {
+        CompiledCode compiled;
+        try {
+            compiled = compileToBytes(className, code, classPath, cancelled, true);
+        } catch (CompilationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompilationException("Compilation failed: " + e.getMessage());
+        }
+        // Cached bytecode has already been verified
+        securityVerifier.verify(compiled);
+        if (instrumenter.isEnabled()) {
+            compiled = instrumenter.instrument(compiled);
+        }
+        return compiled;
+    }
+
+    private static String publicClassName(String code) throws CompilationException {
+        String className = ClassNameExtractor.extractClassName(code);
+        if (className == null) {
+            throw new CompilationException("Could not find public class declaration");
+        }
+        return className;
+    }
+
+    /**
+     * Runs javac over the source using a pooled file manager and collects the resulting bytecode.
+     *
+     * @param classPath Precompiled classes of the unnamed package the source may refer to
+     * @param generate Whether to generate bytecode once the code type-checks
+     */
+    private CompiledCode compileToBytes(String className, String code, Map<String, byte[]> classPath,
+                                        BooleanSupplier cancelled, boolean generate) throws CompilationException {
+        if (contextPool.getCompiler() == null) {
+            throw new CompilationException("Java compiler not available. Ensure you're running on JDK, not JRE.");
+        }
+
+        if (cancelled.getAsBoolean()) {
+            throw new CompilationCancelledException();
+        }
+
+        StandardJavaFileManager standardFileManager;
+        try {
+            standardFileManager = contextPool.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompilationException("Compilation interrupted");
+        }
+
+        boolean reusable = false;
+        try {
+            CompiledCode compiled = compileWith(standardFileManager, className, code, classPath, cancelled, generate);
+            reusable = true;
+            return compiled;
+        } catch (CompilationException e) {
+            // Compile errors and cancellation leave the file manager in a clean state
+            reusable = true;
+            throw e;
+        } finally {
+            if (reusable) {
+                contextPool.release(standardFileManager);
+            } else {
+                contextPool.discard(standardFileManager);
             }
+        }
+    }
+
+    /**
+     * Compiles the source against the given standard file manager, capturing output in memory.
+     *
+     * @param generate Whether to generate bytecode once the code type-checks; if not, no classes are returned
+     */
+    private CompiledCode compileWith(StandardJavaFileManager standardFileManager, String className, String code,
+                                     Map<String, byte[]> classPath, BooleanSupplier cancelled, boolean generate)
+            throws CompilationException {
+        // Wrap the pooled manager so class output for this compilation stays in memory
+        InMemoryFileManager fileManager = new InMemoryFileManager(standardFileManager, classPath);
+
+        // Create in-memory source file
+        JavaFileObject sourceFile = new InMemoryJavaFile(className, code);
 
-            // Create in-memory file manager
-            InMemoryFileManager fileManager = new InMemoryFileManager(
-                    compiler.getStandardFileManager(null, null, null)
-            );
-
-            // Create in-memory source file
-            JavaFileObject sourceFile = new InMemoryJavaFile(className, code);
-
-            // Compile
-            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-            JavaCompiler.CompilationTask task = compiler.getTask(
-                    null,
-                    fileManager,
-                    diagnostics,
-                    null,
-                    null,
-                    Collections.singletonList(sourceFile)
-            );
-
-            boolean success = task.call();
-            if (!success) {
-                StringBuilder errorMsg = new StringBuilder();
-                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
-                    errorMsg.append("Line ").append(diagnostic.getLineNumber())
-                            .append(": ").append(diagnostic.getMessage(null))
-                            .append("\n");
+        // Compile
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        JavaCompiler.CompilationTask task = contextPool.getCompiler().getTask(
+                null,
+                fileManager,
+                diagnostics,
+                COMPILER_OPTIONS,
+                null,
+                Collections.singletonList(sourceFile)
+        );
+
+        boolean success;
+        try {
+            if (task instanceof JavacTask javacTask) {
+                javacTask.addTaskListener(new CancellingTaskListener(cancelled));
+                // Parse and attribute the whole file first, and only generate bytecode if that succeeded
+                javacTask.analyze();
+                success = !hasErrors(diagnostics);
+                if (success && generate) {
+                    javacTask.generate();
+                    success = !hasErrors(diagnostics);
                 }
-                throw new CompilationException(errorMsg.toString());
+            } else {
+                success = task.call();
+            }
+        } catch (IOException e) {
+            throw new CompilationException("Compilation failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // javac rethrows what a task listener throws, wrapped
+            if (cancelled.getAsBoolean()) {
+                throw new CompilationCancelledException();
+            }
+            throw e;
+        }
+        if (!success) {
+            List<CompileDiagnostic> errors = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                errors.add(new CompileDiagnostic(diagnostic.getKind().name(), diagnostic.getLineNumber(),
+                        diagnostic.getColumnNumber(), diagnostic.getMessage(null)));
             }
+            throw CompilationException.fromDiagnostics(errors);
+        }
 
-            // Load the compiled class (and any nested classes)
-            Map<String, byte[]> allClassBytes = fileManager.getAllClassBytes();
-            InMemoryClassLoader classLoader = new InMemoryClassLoader(allClassBytes);
-            return classLoader.loadClass(className);
+        return new CompiledCode(className, fileManager.getAllClassBytes());
+    }
 
-        } catch (Exception e) {
-            if (e instanceof CompilationException) {
-                throw (CompilationException) e;
+    private static boolean hasErrors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR);
+    }
+
+    /**
+     * Aborts a compilation at the start of the next javac phase once it has been cancelled.
+     */
+    private static class CancellingTaskListener implements TaskListener {
+        private final BooleanSupplier cancelled;
+
+        CancellingTaskListener(BooleanSupplier cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public void started(TaskEvent event) {
+            if (cancelled.getAsBoolean()) {
+                throw new IllegalStateException("Compilation cancelled");
             }
-            throw new CompilationException("Compilation failed: " + e.getMessage());
         }
     }
 
     /**
      * In-memory representation of a Java source file.
      */
-    private static class InMemoryJavaFile extends SimpleJavaFileObject {
+    static class InMemoryJavaFile extends SimpleJavaFileObject {
         private final String code;
 
-        protected InMemoryJavaFile(String className, String code) {
+        InMemoryJavaFile(String className, String code) {
             super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
             this.code = code;
         }
@@ -92,13 +340,37 @@ public class InMemoryCodeCompiler implements CodeCompiler {
     }
 
     /**
-     * In-memory file manager for compiled bytecode.
+     * In-memory file manager for compiled bytecode, which also lists precompiled classes of the
+     * unnamed package on the class path.
      */
-    private static class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+    static class InMemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
         private final Map<String, ByteArrayOutputStream> classBytes = new HashMap<>();
+        private final List<JavaFileObject> classPathFiles = new ArrayList<>();
 
-        protected InMemoryFileManager(JavaFileManager fileManager) {
+        InMemoryFileManager(JavaFileManager fileManager, Map<String, byte[]> classPathClasses) {
             super(fileManager);
+            classPathClasses.forEach((name, bytes) -> classPathFiles.add(new InMemoryClassFile(name, bytes)));
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                                             boolean recurse) throws IOException {
+            Iterable<JavaFileObject> listed = super.list(location, packageName, kinds, recurse);
+            if (classPathFiles.isEmpty() || location != StandardLocation.CLASS_PATH || !packageName.isEmpty()
+                    || !kinds.contains(JavaFileObject.Kind.CLASS)) {
+                return listed;
+            }
+            List<JavaFileObject> files = new ArrayList<>(classPathFiles);
+            listed.forEach(files::add);
+            return files;
+        }
+
+        @Override
+        public String inferBinaryName(Location location, JavaFileObject file) {
+            if (file instanceof InMemoryClassFile classFile) {
+                return classFile.binaryName;
+            }
+            return super.inferBinaryName(location, file);
         }
 
         @Override
@@ -123,22 +395,21 @@ public class InMemoryCodeCompiler implements CodeCompiler {
     }
 
     /**
-     * ClassLoader for loading classes from byte arrays.
+     * Precompiled class file held in memory.
      */
-    private static class InMemoryClassLoader extends ClassLoader {
-        private final Map<String, byte[]> classBytes;
+    private static class InMemoryClassFile extends SimpleJavaFileObject {
+        private final String binaryName;
+        private final byte[] bytes;
 
-        public InMemoryClassLoader(Map<String, byte[]> classBytes) {
-            this.classBytes = classBytes;
+        InMemoryClassFile(String binaryName, byte[] bytes) {
+            super(URI.create("bytes:///" + binaryName.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.binaryName = binaryName;
+            this.bytes = bytes;
         }
 
         @Override
-        protected Class<?> findClass(String name) throws ClassNotFoundException {
-            byte[] bytes = classBytes.get(name);
-            if (bytes != null) {
-                return defineClass(name, bytes, 0, bytes.length);
-            }
-            return super.findClass(name);
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(bytes);
         }
     }
 }
@@ -0,0 +1,122 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Standard helper types such as {@code ListNode} and {@code TreeNode} that every submission can use
+ * without declaring them.
+ * <p>
+ * The helpers live in the unnamed package, like submissions, and are compiled once per JVM on first
+ * use. javac sees them on the class path of every compilation, and at run time they are defined
+ * once by the loader shared by all {@link InMemoryClassLoader}s, so neither the source nor the
+ * bytecode of a submission contains them. A submission that declares a class of the same name uses
+ * its own declaration instead.
+ */
+public final class SharedHelperClasses {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedHelperClasses.class);
+
+    private static final Map<String, String> SOURCES = Map.of(
+            "ListNode", """
+                    public class ListNode {
+                        public int val;
+                        public ListNode next;
+
+                        public ListNode() {}
+                        public ListNode(int val) { this.val = val; }
+                        public ListNode(int val, ListNode next) { this.val = val; this.next = next; }
+                    }
+                    """,
+            "TreeNode", """
+                    public class TreeNode {
+                        public int val;
+                        public TreeNode left;
+                        public TreeNode right;
+
+                        public TreeNode() {}
+                        public TreeNode(int val) { this.val = val; }
+                        public TreeNode(int val, TreeNode left, TreeNode right) {
+                            this.val = val;
+                            this.left = left;
+                            this.right = right;
+                        }
+                    }
+                    """
+    );
+
+    private SharedHelperClasses() {
+    }
+
+    /**
+     * Returns whether the binary name is that of a shared helper class.
+     */
+    public static boolean isHelper(String name) {
+        return SOURCES.containsKey(name);
+    }
+
+    /**
+     * Returns the bytecode of every helper class, keyed by binary name, compiling it on first use.
+     * Empty when no Java compiler is available.
+     */
+    public static Map<String, byte[]> classBytes() {
+        return Holder.CLASS_BYTES;
+    }
+
+    /**
+     * Returns the shared helper class of the given name as submissions see it, or null if there is none.
+     */
+    public static Class<?> load(String name) {
+        if (!isHelper(name)) {
+            return null;
+        }
+        try {
+            return InMemoryClassLoader.SUBMISSION_PARENT.loadClass(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, byte[]> compile() {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            logger.warn("Java compiler not available; shared helper classes are disabled");
+            return Map.of();
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<JavaFileObject> sources = new ArrayList<>();
+        SOURCES.forEach((name, source) -> sources.add(new InMemoryCodeCompiler.InMemoryJavaFile(name, source)));
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, null)) {
+            InMemoryCodeCompiler.InMemoryFileManager fileManager =
+                    new InMemoryCodeCompiler.InMemoryFileManager(standardFileManager, Map.of());
+            boolean success = compiler.getTask(null, fileManager, diagnostics, List.of("-proc:none"), null, sources)
+                    .call();
+            if (!success) {
+                logger.warn("Failed to compile shared helper classes: {}", diagnostics.getDiagnostics());
+                return Map.of();
+            }
+            logger.info("Compiled shared helper classes {} in {} ms",
+                    SOURCES.keySet(), System.currentTimeMillis() - startTime);
+            return Map.copyOf(fileManager.getAllClassBytes());
+        } catch (Exception e) {
+            logger.warn("Failed to compile shared helper classes: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static class Holder {
+        private static final Map<String, byte[]> CLASS_BYTES = compile();
+    }
+}
@@ -0,0 +1,329 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.complexity;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ComplexityReport;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ComplexitySample;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionErrorMessages;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.InvocationPlan;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.InvocationPlans;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy.ExecutionStrategyFactory;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy.SingleMethodExecutionStrategy;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudget;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.MethodSignatureParser;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Estimates the time complexity of a solution by timing it on generated inputs of growing size.
+ * <p>
+ * Input sizes double from {@value #MIN_SIZE} up to {@value #MAX_SIZE}, and stop early once a single
+ * call gets slow or a size overruns its time limit. Each size is timed in a few rounds of repeated
+ * calls on the shared execution pool, through the same invocation plans as
+ * {@link SingleMethodExecutionStrategy}, and the fastest round is kept. Every round generates one
+ * input and gives each call a fresh copy of it; neither is timed, and a round counts its median
+ * call so that garbage collection pauses do not skew cheap calls. The timings are then fitted against each {@link ComplexityClass} as
+ * {@code a + b * f(n)}, minimising the relative error, and the best fit is compared with the
+ * question's expected time complexity, giving the solution the benefit of the doubt when the
+ * expected curve fits nearly as well. Timings that barely grow over the whole range are reported
+ * as constant, since logarithmic growth cannot be told apart from call overhead and noise.
+ * <p>
+ * Only methods whose parameters are numbers, strings, arrays or lists can be analysed, since those
+ * are the only inputs that can be generated without knowing the problem.
+ */
+@Component
+public class ComplexityAnalyzer {
+
+    private static final int MIN_SIZE = 16;
+    private static final int MAX_SIZE = 1 << 17;
+    private static final int MIN_SAMPLES = 4;
+    private static final int ROUNDS = 3;
+    private static final long MIN_ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final int MAX_CALLS_PER_ROUND = 10_000;
+    private static final int WARMUP_CALLS = 100_000;
+    private static final long MAX_ROUND_WALL_NANOS = TimeUnit.MILLISECONDS.toNanos(150);
+    private static final long WARMUP_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long SIZE_TIMEOUT_MS = 2000;
+    private static final long SLOW_CALL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long TOTAL_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(8);
+    // A slower-growing curve is preferred unless a faster-growing one fits clearly better
+    private static final double FIT_TOLERANCE = 1.25;
+    // A solution is only flagged when the expected curve fits clearly worse than the measured one
+    private static final double EXPECTED_TOLERANCE = 2.0;
+    // Timings that grow less than this over the measured range count as constant
+    private static final double FLAT_GROWTH = 2.0;
+
+    private final CodeExecutionPool executionPool;
+    private final ExecutionStrategyFactory strategyFactory;
+
+    public ComplexityAnalyzer(CodeExecutionPool executionPool, ExecutionStrategyFactory strategyFactory) {
+        this.executionPool = executionPool;
+        this.strategyFactory = strategyFactory;
+    }
+
+    /**
+     * Times the solution method on generated inputs and fits its growth curve.
+     *
+     * @param compiledClass The compiled solution class
+     * @param question The coding question containing the method signature and expected complexity
+     * @return The report; when the analysis is not possible, only its message is set
+     */
+    public ComplexityReport analyze(Class<?> compiledClass, CodingQuestion question) {
+        String expectedNotation = question.getConstraints() != null
+                ? question.getConstraints().getTimeComplexity()
+                : null;
+        String signature = question.getMethodSignature();
+
+        List<TestCase> testCases = question.getTestCases() != null ? question.getTestCases() : List.of();
+        if (signature == null || !strategyFactory.isSingleMethod(compiledClass, testCases)) {
+            return ComplexityReport.unavailable(expectedNotation,
+                    "Complexity analysis is only available for questions that call a single method");
+        }
+
+        List<String> typeNames = MethodSignatureParser.extractParameterTypeNames(signature);
+        Class<?>[] parameterTypes = MethodSignatureParser.extractParameterTypes(signature);
+        if (parameterTypes.length == 0 || parameterTypes.length != typeNames.size()
+                || !ComplexityInputGenerator.supports(parameterTypes)) {
+            return ComplexityReport.unavailable(expectedNotation,
+                    "Complexity analysis needs a method that takes numbers, strings, arrays or lists");
+        }
+
+        InvocationPlan plan;
+        try {
+            plan = InvocationPlans.forMethod(compiledClass, signature);
+        } catch (Exception e) {
+            return ComplexityReport.unavailable(expectedNotation, "Method not found: " + signature);
+        }
+        ComplexityInputGenerator generator = new ComplexityInputGenerator(parameterTypes, typeNames);
+
+        List<ComplexitySample> samples = new ArrayList<>();
+        String stopReason = null;
+        long deadline = System.nanoTime() + TOTAL_TIMEOUT_NANOS;
+        try {
+            // Give the JIT a chance to compile the solution before anything is recorded
+            time(plan, generator, MIN_SIZE, WARMUP_NANOS, WARMUP_CALLS, WARMUP_NANOS);
+            int maxSize = generator.maxSize(MAX_SIZE);
+            for (int size = MIN_SIZE; size <= maxSize && System.nanoTime() < deadline; size *= 2) {
+                long nanosPerCall = time(plan, generator, size, MIN_ROUND_NANOS, MAX_CALLS_PER_ROUND, MAX_ROUND_WALL_NANOS);
+                samples.add(new ComplexitySample(size, nanosPerCall));
+                if (nanosPerCall > SLOW_CALL_NANOS) {
+                    break;
+                }
+            }
+        } catch (SizeFailure e) {
+            stopReason = e.getMessage();
+        }
+
+        ComplexityReport report = fit(samples, expectedNotation);
+        if (stopReason != null) {
+            report.setMessage(report.getMessage() + " (stopped early: " + stopReason + ")");
+        }
+        return report;
+    }
+
+    /**
+     * Times the method on one input size in a pool task. Each round repeats calls until they add up
+     * to {@code minRoundNanos}, or the call or wall-clock cap of the round is reached.
+     *
+     * @return The fastest median time per call over {@value #ROUNDS} rounds, in nanoseconds
+     * @throws SizeFailure if the size overran its time limit or the method failed on it
+     */
+    private long time(InvocationPlan plan, ComplexityInputGenerator generator, int size, long minRoundNanos,
+                      int maxCalls, long maxRoundWallNanos) throws SizeFailure {
+        Future<Long> future;
+        try {
+            future = executionPool.getExecutor().submit(() -> {
+                Random random = new Random(size);
+                long best = Long.MAX_VALUE;
+                long[] durations = new long[maxCalls];
+                for (int round = 0; round < ROUNDS; round++) {
+                    Object[] input = generator.generate(size, random);
+                    long total = 0;
+                    int calls = 0;
+                    long roundStart = System.nanoTime();
+                    do {
+                        Object[] args = generator.copy(input);
+                        // Every call gets the budgets of a separate test case
+                        InstructionBudget.restart();
+                        executionPool.restartMemoryMeasurement();
+                        long start = System.nanoTime();
+                        plan.invoke(args);
+                        durations[calls] = System.nanoTime() - start;
+                        total += durations[calls++];
+                    } while (total < minRoundNanos && calls < maxCalls
+                            && System.nanoTime() - roundStart < maxRoundWallNanos);
+                    Arrays.sort(durations, 0, calls);
+                    best = Math.min(best, durations[calls / 2]);
+                }
+                return best;
+            });
+        } catch (RejectedExecutionException e) {
+            throw new SizeFailure("server busy");
+        }
+
+        try {
+            return CodeExecutionPool.getWithinRunLimit(future, SIZE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            throw new SizeFailure("server busy");
+        } catch (TimeoutException e) {
+            // Interrupt the worker so the shared pool gets it back
+            future.cancel(true);
+            throw new SizeFailure("input size " + size + " took longer than " + SIZE_TIMEOUT_MS + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SizeFailure("interrupted");
+        } catch (ExecutionException e) {
+            throw new SizeFailure("input size " + size + " failed with " + ExecutionErrorMessages.describe(e));
+        }
+    }
+
+    private static ComplexityReport fit(List<ComplexitySample> samples, String expectedNotation) {
+        ComplexityReport report = new ComplexityReport();
+        report.setExpectedComplexity(expectedNotation);
+        report.setSamples(samples);
+        if (samples.size() < MIN_SAMPLES) {
+            report.setMessage("Not enough input sizes could be measured to estimate the complexity");
+            return report;
+        }
+        report.setGrowthExponent(growthExponent(samples));
+
+        // The smallest sizes are dominated by call overhead and are left out of the fit
+        List<ComplexitySample> fitted = samples.subList(samples.size() / 4, samples.size());
+        ComplexityClass best = null;
+        double bestError = Double.MAX_VALUE;
+        double[] errors = new double[ComplexityClass.values().length];
+        for (ComplexityClass candidate : ComplexityClass.values()) {
+            if (candidate == ComplexityClass.EXPONENTIAL) {
+                continue; // Doubling sizes never fit an exponential curve
+            }
+            errors[candidate.ordinal()] = fitError(fitted, candidate);
+            if (errors[candidate.ordinal()] < bestError) {
+                bestError = errors[candidate.ordinal()];
+                best = candidate;
+            }
+        }
+        // Prefer the slowest-growing curve that fits nearly as well as the best one
+        for (ComplexityClass candidate : ComplexityClass.values()) {
+            if (candidate.compareTo(best) < 0 && errors[candidate.ordinal()] <= bestError * FIT_TOLERANCE) {
+                best = candidate;
+                break;
+            }
+        }
+        if (isFlat(samples)) {
+            best = ComplexityClass.CONSTANT;
+        }
+
+        ComplexityClass expected = ComplexityClass.parse(expectedNotation);
+        if (expected != null && best.compareTo(expected) > 0
+                && errors[expected.ordinal()] <= bestError * EXPECTED_TOLERANCE) {
+            best = expected;
+        }
+        report.setMeasuredComplexity(best.getNotation());
+        if (expected == null) {
+            report.setMessage("Measured growth looks like " + best.getNotation());
+        } else if (best.compareTo(expected) <= 0) {
+            report.setWithinExpected(true);
+            report.setMessage("Measured growth looks like " + best.getNotation()
+                    + ", within the expected " + expected.getNotation());
+        } else {
+            report.setWithinExpected(false);
+            report.setMessage("Measured growth looks like " + best.getNotation()
+                    + ", slower than the expected " + expected.getNotation());
+        }
+        return report;
+    }
+
+    /**
+     * Fits {@code t = a + b * f(n)} with {@code a, b >= 0} by weighted least squares, weighting each
+     * sample by {@code 1 / t^2}, and returns the remaining sum of squared relative errors.
+     */
+    private static double fitError(List<ComplexitySample> samples, ComplexityClass curve) {
+        double sw = 0, sf = 0, st = 0, sff = 0, sft = 0;
+        for (ComplexitySample sample : samples) {
+            double t = Math.max(sample.nanosPerCall(), 1);
+            double f = curve.valueAt(sample.inputSize());
+            double w = 1 / (t * t);
+            sw += w;
+            sf += w * f;
+            st += w * t;
+            sff += w * f * f;
+            sft += w * f * t;
+        }
+
+        double a;
+        double b;
+        double determinant = sw * sff - sf * sf;
+        if (curve == ComplexityClass.CONSTANT || determinant <= 0) {
+            a = st / sw;
+            b = 0;
+        } else {
+            b = (sw * sft - sf * st) / determinant;
+            a = (st - b * sf) / sw;
+            if (b < 0) {
+                // Time that falls with the size cannot be explained by this curve
+                a = st / sw;
+                b = 0;
+            } else if (a < 0) {
+                a = 0;
+                b = sft / sff;
+            }
+        }
+
+        double error = 0;
+        for (ComplexitySample sample : samples) {
+            double t = Math.max(sample.nanosPerCall(), 1);
+            double relative = (t - a - b * curve.valueAt(sample.inputSize())) / t;
+            error += relative * relative;
+        }
+        return error;
+    }
+
+    /**
+     * Returns whether the time per call at the largest sizes is within {@value #FLAT_GROWTH} times
+     * the time at the smallest sizes, comparing the faster of the first two and last two samples.
+     */
+    private static boolean isFlat(List<ComplexitySample> samples) {
+        long first = Math.min(samples.get(0).nanosPerCall(), samples.get(1).nanosPerCall());
+        long last = Math.min(samples.get(samples.size() - 1).nanosPerCall(), samples.get(samples.size() - 2).nanosPerCall());
+        return last < Math.max(first, 1) * FLAT_GROWTH;
+    }
+
+    /**
+     * Returns the least-squares slope of log(time) over log(size) across the larger half of the
+     * samples, where fixed per-call overhead matters least.
+     */
+    private static double growthExponent(List<ComplexitySample> samples) {
+        List<ComplexitySample> upper = samples.subList(samples.size() / 2, samples.size());
+        double n = upper.size(), sx = 0, sy = 0, sxx = 0, sxy = 0;
+        for (ComplexitySample sample : upper) {
+            double x = Math.log(sample.inputSize());
+            double y = Math.log(Math.max(sample.nanosPerCall(), 1));
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            sxy += x * y;
+        }
+        double denominator = n * sxx - sx * sx;
+        return denominator == 0 ? 0 : (n * sxy - sx * sy) / denominator;
+    }
+
+    /**
+     * Signals that an input size could not be timed; sizes measured before it remain usable.
+     */
+    private static class SizeFailure extends Exception {
+        SizeFailure(String message) {
+            super(message);
+        }
+    }
+}
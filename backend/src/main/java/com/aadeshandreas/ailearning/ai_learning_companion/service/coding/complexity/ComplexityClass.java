@@ -0,0 +1,91 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.complexity;
+
+import java.util.Locale;
+
+/**
+ * Growth curves that measured running times are fitted against, ordered from slowest to fastest growing.
+ */
+public enum ComplexityClass {
+    CONSTANT("O(1)"),
+    LOGARITHMIC("O(log n)"),
+    LINEAR("O(n)"),
+    LINEARITHMIC("O(n log n)"),
+    QUADRATIC("O(n^2)"),
+    CUBIC("O(n^3)"),
+    EXPONENTIAL("O(2^n)");
+
+    private final String notation;
+
+    ComplexityClass(String notation) {
+        this.notation = notation;
+    }
+
+    public String getNotation() {
+        return notation;
+    }
+
+    /**
+     * Returns the value of this growth curve for an input size.
+     */
+    public double valueAt(double n) {
+        double log = Math.log(Math.max(n, 2));
+        return switch (this) {
+            case CONSTANT -> 1;
+            case LOGARITHMIC -> log;
+            case LINEAR -> n;
+            case LINEARITHMIC -> n * log;
+            case QUADRATIC -> n * n;
+            case CUBIC -> n * n * n;
+            case EXPONENTIAL -> Math.pow(2, Math.min(n, 1000));
+        };
+    }
+
+    /**
+     * Parses a complexity as written in question constraints, e.g. "O(n log n)", "O(m * n)" or
+     * "O(V + E)". Every variable is treated as the same input size.
+     *
+     * @return The matching class, or null if the notation is not recognised
+     */
+    public static ComplexityClass parse(String notation) {
+        if (notation == null) {
+            return null;
+        }
+
+        String s = notation.toLowerCase(Locale.ROOT)
+                .replace("\u00b2", "^2")
+                .replace("\u00b3", "^3")
+                .replaceAll("\\s+", "")
+                .replaceAll("^o\\((.*)\\)$", "$1")
+                .replace("*", "")
+                .replace("\u00b7", "")
+                // Treat every size variable as n, e.g. "mlogn" or "v+e"
+                .replaceAll("log|lg", "L")
+                .replaceAll("[a-z]", "n")
+                .replace("L", "log");
+        // Sums are dominated by their largest term, e.g. "n+n" or "nlogn+n"
+        ComplexityClass largest = null;
+        for (String term : s.split("\\+")) {
+            ComplexityClass parsed = parseTerm(term);
+            if (parsed == null) {
+                return null;
+            }
+            if (largest == null || parsed.compareTo(largest) > 0) {
+                largest = parsed;
+            }
+        }
+        return largest;
+    }
+
+    private static ComplexityClass parseTerm(String term) {
+        return switch (term) {
+            case "1" -> CONSTANT;
+            case "logn", "log(n)" -> LOGARITHMIC;
+            case "n" -> LINEAR;
+            case "nlogn", "nlog(n)", "lognn", "log(n)n" -> LINEARITHMIC;
+            case "n^2", "nn" -> QUADRATIC;
+            case "n^3", "nnn" -> CUBIC;
+            case "2^n" -> EXPONENTIAL;
+            default -> null;
+        };
+    }
+}
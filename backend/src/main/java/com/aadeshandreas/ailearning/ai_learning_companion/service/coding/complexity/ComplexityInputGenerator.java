@@ -0,0 +1,189 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.complexity;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random arguments of a given size for the parameter types that
+ * {@link com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.MethodSignatureParser}
+ * resolves.
+ * <p>
+ * The size is the number of elements of every array, list or string argument, and the side length
+ * of two-dimensional arrays, matching how complexities such as {@code O(m * n)} are stated for
+ * grids. Scalar numbers are the size itself when the method has no sized argument (e.g.
+ * {@code fib(int n)}), otherwise a random value below it.
+ */
+class ComplexityInputGenerator {
+
+    private static final int WORD_LENGTH = 5;
+    private static final int MAX_GRID_SIDE = 2048;
+
+    private final Class<?>[] parameterTypes;
+    private final boolean[] stringLists;
+    private final boolean sized;
+    private final boolean grid;
+
+    /**
+     * @param parameterTypes The resolved parameter types of the method
+     * @param typeNames The declared parameter type names, used to tell {@code List<String>} apart
+     */
+    ComplexityInputGenerator(Class<?>[] parameterTypes, List<String> typeNames) {
+        this.parameterTypes = parameterTypes;
+        this.stringLists = new boolean[parameterTypes.length];
+        boolean anySized = false;
+        boolean anyGrid = false;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            stringLists[i] = parameterTypes[i] == List.class && typeNames.get(i).contains("String");
+            anySized |= isSized(parameterTypes[i]);
+            anyGrid |= parameterTypes[i].isArray() && parameterTypes[i].getComponentType().isArray();
+        }
+        this.sized = anySized;
+        this.grid = anyGrid;
+    }
+
+    /**
+     * Returns the largest size worth generating; grids grow with the square of their size.
+     */
+    int maxSize(int defaultMax) {
+        return grid ? Math.min(defaultMax, MAX_GRID_SIDE) : defaultMax;
+    }
+
+    /**
+     * Returns whether arguments can be generated for every parameter type.
+     */
+    static boolean supports(Class<?>[] parameterTypes) {
+        for (Class<?> type : parameterTypes) {
+            if (!isSized(type) && !isScalar(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generates one set of arguments of the given size.
+     */
+    Object[] generate(int size, Random random) {
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = stringLists[i] ? words(size, random) : value(parameterTypes[i], size, random);
+        }
+        return args;
+    }
+
+    /**
+     * Copies generated arguments, so a method that modifies its input in place gets the original
+     * input again on the next call. Strings and boxed numbers are immutable and shared.
+     */
+    Object[] copy(Object[] args) {
+        Object[] copy = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            copy[i] = copyValue(args[i]);
+        }
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof List<?> list) {
+            return new ArrayList<>(list);
+        }
+        if (value == null || !value.getClass().isArray()) {
+            return value;
+        }
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        if (value.getClass().getComponentType().isArray()) {
+            for (int i = 0; i < length; i++) {
+                Array.set(copy, i, copyValue(Array.get(value, i)));
+            }
+        } else {
+            System.arraycopy(value, 0, copy, 0, length);
+        }
+        return copy;
+    }
+
+    private Object value(Class<?> type, int size, Random random) {
+        int scalar = sized ? random.nextInt(Math.max(size, 1)) : size;
+        if (type == int.class || type == Integer.class) return scalar;
+        if (type == long.class || type == Long.class) return (long) scalar;
+        if (type == double.class || type == Double.class) return (double) scalar;
+        if (type == float.class || type == Float.class) return (float) scalar;
+        if (type == short.class || type == Short.class) return (short) Math.min(scalar, Short.MAX_VALUE);
+        if (type == byte.class || type == Byte.class) return (byte) Math.min(scalar, Byte.MAX_VALUE);
+        if (type == boolean.class || type == Boolean.class) return random.nextBoolean();
+        if (type == char.class || type == Character.class) return letter(random);
+        if (type == String.class) return string(size, random);
+
+        if (type == int[].class) return random.ints(size, -size, size + 1).toArray();
+        if (type == long[].class) return random.longs(size, -size, size + 1L).toArray();
+        if (type == double[].class) return random.doubles(size, -size, size + 1.0).toArray();
+        if (type == float[].class) {
+            float[] array = new float[size];
+            for (int i = 0; i < size; i++) array[i] = random.nextFloat() * size;
+            return array;
+        }
+        if (type == short[].class) {
+            short[] array = new short[size];
+            for (int i = 0; i < size; i++) array[i] = (short) random.nextInt(Short.MAX_VALUE);
+            return array;
+        }
+        if (type == byte[].class) {
+            byte[] array = new byte[size];
+            random.nextBytes(array);
+            return array;
+        }
+        if (type == boolean[].class) {
+            boolean[] array = new boolean[size];
+            for (int i = 0; i < size; i++) array[i] = random.nextBoolean();
+            return array;
+        }
+        if (type == char[].class) return string(size, random).toCharArray();
+        if (type == String[].class) return words(size, random).toArray(new String[0]);
+        if (type == List.class) {
+            List<Integer> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) list.add(random.nextInt(2 * size + 1) - size);
+            return list;
+        }
+
+        // Square two-dimensional arrays
+        Class<?> rowType = type.getComponentType();
+        Object matrix = Array.newInstance(rowType, size);
+        for (int i = 0; i < size; i++) {
+            Array.set(matrix, i, value(rowType, size, random));
+        }
+        return matrix;
+    }
+
+    private static List<String> words(int size, Random random) {
+        List<String> words = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            words.add(string(WORD_LENGTH, random));
+        }
+        return words;
+    }
+
+    private static String string(int length, Random random) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(letter(random));
+        }
+        return sb.toString();
+    }
+
+    private static char letter(Random random) {
+        return (char) ('a' + random.nextInt(26));
+    }
+
+    private static boolean isSized(Class<?> type) {
+        return type == String.class || type == List.class
+                || (type.isArray() && (isScalar(type.getComponentType()) || isSized(type.getComponentType())));
+    }
+
+    private static boolean isScalar(Class<?> type) {
+        return type.isPrimitive() && type != void.class
+                || type == Integer.class || type == Long.class || type == Double.class || type == Float.class
+                || type == Short.class || type == Byte.class || type == Boolean.class || type == Character.class;
+    }
+}
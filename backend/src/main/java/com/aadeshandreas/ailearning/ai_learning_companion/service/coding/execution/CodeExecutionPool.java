@@ -0,0 +1,447 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.PoolStats;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudget;
+import com.sun.management.ThreadMXBean;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared, size-bounded thread pool that runs user code for the whole coding subsystem.
+ * <p>
+ * The pool is sized from the available cores and backed by a bounded queue; submissions beyond
+ * the queue capacity are rejected rather than piling up. Cancelling a running task interrupts its
+ * worker. User code that ignores the interrupt keeps its thread busy, so each such abandoned task
+ * temporarily grows the pool by one thread (up to twice its base size) until the task finally
+ * ends, keeping the usable capacity constant.
+ * <p>
+ * Time limits are measured from the moment a worker starts a task, not from its submission, so
+ * time spent waiting in the queue is never charged to user code; see
+ * {@link #getWithinRunLimit(Future, long, TimeUnit)}. A task that no worker picks up within
+ * {@link #MAX_QUEUE_WAIT_MS} is withdrawn and reported as rejected instead.
+ * <p>
+ * Every task runs with a fresh {@link InstructionBudget} on its worker, and cancelling a running
+ * task also expires that budget. For instrumented submissions this stops even code that ignores
+ * interrupts, so the worker always comes back.
+ * <p>
+ * A sampler thread reads the bytes allocated by each running task's worker every few
+ * milliseconds. A task that allocates more than the per-test memory limit is cancelled the same
+ * way, and its future fails with a {@link MemoryLimitExceededException} instead of reporting a
+ * plain cancellation. Tasks running several test cases can restart the measurement per test with
+ * {@link #restartMemoryMeasurement()}. The limit counts allocations, not live objects, so it is
+ * deliberately generous; it is there to stop runaway allocation loops before they stall the
+ * shared heap.
+ * <p>
+ * A separate dispatch executor provides the threads that coordinate parallel test cases. Those
+ * threads only wait on tasks of the execution pool, so they never compete with user code for
+ * workers and cannot deadlock it.
+ */
+@Component
+public class CodeExecutionPool {
+
+    /**
+     * Longest a task may wait in the queue for a free worker before it is withdrawn.
+     */
+    public static final long MAX_QUEUE_WAIT_MS = 10_000;
+
+    private static final long MEMORY_SAMPLE_INTERVAL_MS = 10;
+    private static final long MAX_QUEUE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(MAX_QUEUE_WAIT_MS);
+    private static final ThreadLocal<TrackedTask<?>> CURRENT_TASK = new ThreadLocal<>();
+
+    private final int baseSize;
+    private final int queueCapacity;
+    private final long instructionLimit;
+    private final long memoryLimitBytes;
+    private final TrackingThreadPoolExecutor executor;
+    private final ThreadPoolExecutor dispatchExecutor;
+    private final ScheduledExecutorService memorySampler;
+    private final ThreadMXBean threads;
+    private final Set<TrackedTask<?>> runningTasks = ConcurrentHashMap.newKeySet();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicInteger abandonedTasks = new AtomicInteger();
+
+    public CodeExecutionPool(
+            @Value("${coding.execution.pool-size:0}") int poolSize,
+            @Value("${coding.execution.queue-capacity:0}") int queueCapacity,
+            @Value("${coding.execution.instruction-budget.limit:100000000}") long instructionLimit,
+            @Value("${coding.execution.memory.test-limit-mb:512}") long memoryLimitMb
+    ) {
+        this.baseSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity > 0 ? queueCapacity : baseSize * 16;
+        this.instructionLimit = instructionLimit;
+
+        this.executor = new TrackingThreadPoolExecutor(
+                baseSize,
+                new ArrayBlockingQueue<>(this.queueCapacity),
+                daemonThreadFactory("code-exec-")
+        );
+        this.dispatchExecutor = new ThreadPoolExecutor(
+                0, baseSize * 2, 30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                daemonThreadFactory("code-dispatch-")
+        );
+
+        // Allocation counters are a HotSpot extension; without them no memory limit is enforced
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean extended
+                && extended.isThreadAllocatedMemorySupported() && extended.isThreadAllocatedMemoryEnabled()
+                ? extended
+                : null;
+        this.threads = memoryLimitMb > 0 ? threadBean : null;
+        this.memoryLimitBytes = this.threads != null ? memoryLimitMb << 20 : 0;
+        if (this.threads != null) {
+            this.memorySampler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("code-memory-sampler-"));
+            this.memorySampler.scheduleWithFixedDelay(this::sampleMemory,
+                    MEMORY_SAMPLE_INTERVAL_MS, MEMORY_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        } else {
+            this.memorySampler = null;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Returns the executor that strategies submit user code to.
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the executor for threads that coordinate test cases running in parallel.
+     * Submissions are rejected when every dispatch thread is busy; callers are expected
+     * to fall back to running the work themselves.
+     */
+    public ExecutorService getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    /**
+     * Returns the number of worker threads the pool runs with when no task is abandoned.
+     */
+    public int getBaseSize() {
+        return baseSize;
+    }
+
+    /**
+     * Returns the number of operations an instrumented submission may perform per task.
+     */
+    public long getInstructionLimit() {
+        return instructionLimit;
+    }
+
+    /**
+     * Returns the number of bytes one test case may allocate, or 0 if no limit is enforced.
+     */
+    public long getMemoryLimitBytes() {
+        return memoryLimitBytes;
+    }
+
+    /**
+     * Starts a new per-test memory allowance for the task running on the current thread, e.g.
+     * before the next test case of the same task. Does nothing outside a pool task.
+     */
+    public void restartMemoryMeasurement() {
+        TrackedTask<?> task = CURRENT_TASK.get();
+        if (task != null && threads != null) {
+            task.allocationBaseline = threads.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Waits for the result of a task submitted to this pool's executor, allowing it the given time
+     * from the moment a worker starts running it. Time spent queued behind other tasks does not count.
+     * Futures of other executors are simply waited on with the given timeout.
+     *
+     * @param future A future returned by {@link #getExecutor()}
+     * @param timeout The time the task may run for
+     * @param unit The unit of the timeout
+     * @return The task's result
+     * @throws TimeoutException if the task ran for longer than the timeout; it is not cancelled
+     * @throws RejectedExecutionException if no worker started the task within {@link #MAX_QUEUE_WAIT_MS};
+     *                                    the task has been withdrawn and will never run
+     */
+    public static <T> T getWithinRunLimit(Future<T> future, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (future instanceof CodeExecutionPool.TrackedTask<T> task) {
+            return task.getWithinRunLimit(unit.toNanos(timeout));
+        }
+        return future.get(timeout, unit);
+    }
+
+    /**
+     * Returns a snapshot of the pool's queue depth, activity and rejection counters.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+                executor.getPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getCompletedTaskCount(),
+                rejectedTasks.get(),
+                abandonedTasks.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (memorySampler != null) {
+            memorySampler.shutdownNow();
+        }
+        dispatchExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cancels every running task whose worker has allocated more than the per-test limit.
+     */
+    private void sampleMemory() {
+        for (TrackedTask<?> task : runningTasks) {
+            Thread runner = task.runner;
+            if (runner == null) {
+                continue;
+            }
+            long allocated = threads.getThreadAllocatedBytes(runner.threadId());
+            if (allocated >= 0 && allocated - task.allocationBaseline > memoryLimitBytes && task.runner == runner) {
+                task.exceedMemoryLimit();
+            }
+        }
+    }
+
+    /**
+     * Adds a replacement worker for a cancelled task that is still running.
+     */
+    private synchronized void onAbandoned() {
+        int abandoned = abandonedTasks.incrementAndGet();
+        if (abandoned <= baseSize) {
+            executor.setMaximumPoolSize(baseSize + abandoned);
+            executor.setCorePoolSize(baseSize + abandoned);
+        }
+    }
+
+    /**
+     * Removes the replacement worker once an abandoned task has finally returned.
+     */
+    private synchronized void onAbandonedFinished() {
+        int abandoned = abandonedTasks.decrementAndGet();
+        if (abandoned < baseSize) {
+            executor.setCorePoolSize(baseSize + abandoned);
+            executor.setMaximumPoolSize(baseSize + abandoned);
+        }
+    }
+
+    /**
+     * Thread pool whose tasks report when they are cancelled while still running.
+     */
+    private class TrackingThreadPoolExecutor extends ThreadPoolExecutor {
+
+        TrackingThreadPoolExecutor(int size, ArrayBlockingQueue<Runnable> queue, ThreadFactory threadFactory) {
+            super(size, size, 30, TimeUnit.SECONDS, queue, threadFactory, (runnable, pool) -> {
+                rejectedTasks.incrementAndGet();
+                throw new RejectedExecutionException("Code execution queue is full");
+            });
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+            return new TrackedTask<>(callable);
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+            return new TrackedTask<>(Executors.callable(runnable, value));
+        }
+    }
+
+    /**
+     * FutureTask that knows whether it was cancelled after its worker had started running it.
+     */
+    private class TrackedTask<T> extends FutureTask<T> {
+        private volatile Thread runner;
+        private volatile InstructionBudget budget;
+        private volatile boolean abandoned;
+        private volatile long allocationBaseline;
+        private volatile boolean memoryLimitExceeded;
+        private final long submittedAt = System.nanoTime();
+        private volatile long startedAt;
+        private boolean started;             // Guarded by this
+        private boolean withdrawn;           // Guarded by this
+
+        TrackedTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (withdrawn) {
+                    return;
+                }
+                startedAt = System.nanoTime();
+                started = true;
+            }
+            if (threads != null) {
+                allocationBaseline = threads.getCurrentThreadAllocatedBytes();
+            }
+            runner = Thread.currentThread();
+            budget = InstructionBudget.begin(instructionLimit);
+            CURRENT_TASK.set(this);
+            if (threads != null) {
+                runningTasks.add(this);
+            }
+            try {
+                super.run();
+            } finally {
+                runningTasks.remove(this);
+                CURRENT_TASK.remove();
+                InstructionBudget.end();
+                budget = null;
+                runner = null;
+                synchronized (this) {
+                    if (abandoned) {
+                        abandoned = false;
+                        onAbandonedFinished();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            InstructionBudget runningBudget = budget;
+            if (cancelled && runningBudget != null) {
+                // Stops instrumented code at its next budget check, even if it ignores the interrupt
+                runningBudget.expire();
+            }
+            synchronized (this) {
+                if (cancelled && runner != null && !abandoned) {
+                    abandoned = true;
+                    onAbandoned();
+                }
+            }
+            return cancelled;
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            try {
+                return super.get();
+            } catch (CancellationException e) {
+                if (memoryLimitExceeded) {
+                    throw new ExecutionException(memoryLimitError());
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            try {
+                return super.get(timeout, unit);
+            } catch (CancellationException e) {
+                if (memoryLimitExceeded) {
+                    throw new ExecutionException(memoryLimitError());
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Waits for the result, giving the task {@code limitNanos} from the moment it started running.
+         */
+        T getWithinRunLimit(long limitNanos) throws InterruptedException, ExecutionException, TimeoutException {
+            while (true) {
+                boolean running;
+                synchronized (this) {
+                    running = started;
+                }
+                long deadline = running ? startedAt + limitNanos : submittedAt + MAX_QUEUE_WAIT_NANOS;
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    try {
+                        // While queued, wake up within one run limit so a start is noticed in time
+                        return get(running ? remaining : Math.min(remaining, limitNanos), TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException e) {
+                        // Re-check: the task may have started while we waited, moving its deadline
+                        continue;
+                    }
+                }
+                if (running) {
+                    throw new TimeoutException();
+                }
+                if (withdraw()) {
+                    throw new RejectedExecutionException(
+                            "No execution thread became free within " + MAX_QUEUE_WAIT_MS + " ms");
+                }
+            }
+        }
+
+        /**
+         * Cancels the task if no worker has started it yet.
+         *
+         * @return Whether the task was withdrawn; false if it has already started
+         */
+        private boolean withdraw() {
+            synchronized (this) {
+                if (started) {
+                    return false;
+                }
+                withdrawn = true;
+            }
+            cancel(false);
+            executor.remove(this);
+            return true;
+        }
+
+        /**
+         * Stops the task like a cancellation, but reports it as having exceeded its memory limit.
+         */
+        void exceedMemoryLimit() {
+            if (isDone()) {
+                // Cancelled by an earlier sample but not yet noticed by the worker; a second, failing
+                // cancel would clear the flag the waiting caller relies on
+                return;
+            }
+            memoryLimitExceeded = true;
+            if (!cancel(true)) {
+                memoryLimitExceeded = false;
+            }
+        }
+
+        private MemoryLimitExceededException memoryLimitError() {
+            return new MemoryLimitExceededException(
+                    "Memory Limit Exceeded (allocated more than " + (memoryLimitBytes >> 20) + " MB)");
+        }
+    }
+}
@@ -7,30 +7,38 @@ import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.executi
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy.ExecutionStrategyFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
 /**
  * Default implementation of TestCaseExecutor that uses strategy pattern
- * to select the appropriate execution approach.
+ * to select the appropriate execution approach. User code runs on the shared
+ * {@link CodeExecutionPool} rather than a per-test thread.
  */
 @Component
 public class DefaultTestCaseExecutor implements TestCaseExecutor {
 
     private final ExecutionStrategyFactory strategyFactory;
+    private final CodeExecutionPool executionPool;
 
-    public DefaultTestCaseExecutor(ExecutionStrategyFactory strategyFactory) {
+    public DefaultTestCaseExecutor(ExecutionStrategyFactory strategyFactory, CodeExecutionPool executionPool) {
         this.strategyFactory = strategyFactory;
+        this.executionPool = executionPool;
     }
 
     @Override
     public TestResult executeTestCase(Class<?> compiledClass, TestCase testCase, CodingQuestion question) {
-        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
-            // Select the appropriate strategy
-            ExecutionStrategy strategy = strategyFactory.selectStrategy(compiledClass, testCase);
+        // Select the appropriate strategy
+        ExecutionStrategy strategy = strategyFactory.selectStrategy(compiledClass, testCase);
+
+        // Execute using the selected strategy on the shared, bounded execution pool
+        return strategy.execute(compiledClass, testCase, question, executionPool.getExecutor());
+    }
 
-            // Execute using the selected strategy
-            return strategy.execute(compiledClass, testCase, question, executor);
-        }
+    @Override
+    public boolean canRunInParallel(Class<?> compiledClass, TestCase testCase) {
+        return strategyFactory.selectStrategy(compiledClass, testCase).supportsParallelExecution();
+    }
+
+    @Override
+    public boolean canUseGeneratedHarness(Class<?> compiledClass, TestCase testCase) {
+        return strategyFactory.selectStrategy(compiledClass, testCase).supportsGeneratedHarness();
     }
 }
@@ -0,0 +1,79 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudgetExceededError;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Turns exceptions raised while running user code into messages shown in test results.
+ */
+public final class ExecutionErrorMessages {
+
+    private ExecutionErrorMessages() {
+    }
+
+    /**
+     * Builds an error message from an exception with proper cause chain handling.
+     */
+    public static String describe(Throwable e) {
+        // An exhausted instruction budget is a time limit, not a bug in the submission
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InstructionBudgetExceededError || t instanceof MemoryLimitExceededException) {
+                return t.getMessage();
+            }
+            if (t instanceof OutOfMemoryError) {
+                return "Memory Limit Exceeded (" + t.getMessage() + ")";
+            }
+        }
+
+        Throwable cause = e.getCause();
+        if (cause != null) {
+            String errorMsg = cause.getClass().getSimpleName();
+            if (cause.getMessage() != null && !cause.getMessage().isEmpty()) {
+                errorMsg += ": " + cause.getMessage();
+            }
+
+            // Get the root cause if there's a chain
+            Throwable rootCause = cause;
+            while (rootCause.getCause() != null && rootCause.getCause() != rootCause) {
+                rootCause = rootCause.getCause();
+            }
+            if (rootCause != cause) {
+                if (rootCause.getMessage() != null && !rootCause.getMessage().isEmpty()) {
+                    errorMsg += " (Caused by: " + rootCause.getClass().getSimpleName() + ": " + rootCause.getMessage() + ")";
+                } else {
+                    errorMsg += " (Caused by: " + rootCause.getClass().getSimpleName() + ")";
+                }
+            }
+            return errorMsg;
+        }
+
+        String errorMsg = e.getClass().getSimpleName();
+        if (e.getMessage() != null && !e.getMessage().isEmpty()) {
+            errorMsg += ": " + e.getMessage();
+        }
+        return errorMsg;
+    }
+
+    /**
+     * Returns whether an exception means the user code ran out of its memory allowance, either
+     * because the pool stopped it or because the heap itself was exhausted.
+     */
+    public static boolean isMemoryLimitExceeded(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof MemoryLimitExceededException || t instanceof OutOfMemoryError) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the error message for an exception thrown directly by user code, worded exactly as
+     * if it had been raised through a reflective invocation on the execution pool.
+     */
+    public static String describeThrown(Throwable thrown) {
+        return describe(new ExecutionException(new RuntimeException(new InvocationTargetException(thrown))));
+    }
+}
@@ -0,0 +1,41 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+
+/**
+ * Receives progress of a code execution while it runs, e.g. to stream results to the client.
+ */
+public interface ExecutionListener {
+
+    /**
+     * A listener that ignores every event and never cancels.
+     */
+    ExecutionListener NONE = new ExecutionListener() {
+    };
+
+    /**
+     * Called once the code has passed validation and compiled, before the first test case starts.
+     *
+     * @param totalTests Number of test cases that will be run
+     * @param compilationTime Time spent compiling (or fetching cached bytecode), in milliseconds
+     */
+    default void onCompiled(int totalTests, long compilationTime) {
+    }
+
+    /**
+     * Called as soon as a test case has a result. Test cases running in parallel report from
+     * several threads, and not necessarily in order.
+     *
+     * @param index Position of the test case in the run
+     * @param result The outcome of the test case
+     */
+    default void onTestResult(int index, TestResult result) {
+    }
+
+    /**
+     * Checked before each test case starts; once this returns true, no further test cases are started.
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
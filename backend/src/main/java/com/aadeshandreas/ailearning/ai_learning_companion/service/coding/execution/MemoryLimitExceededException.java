@@ -0,0 +1,12 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution;
+
+/**
+ * Reported as the cause of a failed pool task whose user code allocated more memory than one test
+ * case may use. The user code never sees this exception; it is stopped through cancellation.
+ */
+public class MemoryLimitExceededException extends RuntimeException {
+
+    public MemoryLimitExceededException(String message) {
+        super(message);
+    }
+}
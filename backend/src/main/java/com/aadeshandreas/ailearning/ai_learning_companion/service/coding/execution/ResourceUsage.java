@@ -0,0 +1,132 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+
+/**
+ * Measures the resources one test case uses on the thread that runs the user code.
+ * <p>
+ * Call {@link #start()} and {@link #stop()} on the executing thread around the user code, or wrap
+ * the task with {@link #measure(Callable)}, then {@link #applyTo(TestResult)} from any thread. When
+ * the code overruns its time limit, {@link #stopRunning()} records what it has used so far. CPU
+ * time and allocated bytes only count the executing thread, not threads started by user code.
+ * <p>
+ * The peak thread count is JVM-wide, so it is only recorded in worker mode (see
+ * {@link #recordPeakThreads()}), where each process runs one job; in the shared server JVM it
+ * would mix in every other submission and resetting it per test would disturb them.
+ */
+public class ResourceUsage {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean EXTENDED_THREADS =
+            THREADS instanceof com.sun.management.ThreadMXBean extended ? extended : null;
+
+    private static volatile boolean peakThreadsRecorded;
+
+    private long startWall;
+    private long startCpu;
+    private long startAllocated;
+    // Id of the executing thread, written last by start(); -1 until the code starts
+    private volatile long threadId = -1;
+
+    private long wallTimeNanos;
+    private long cpuTimeNanos;
+    private long allocatedBytes;
+    private int peakThreads;
+    private volatile boolean completed;
+
+    /**
+     * Makes every measurement record the JVM's peak thread count. Called once by a worker process,
+     * which runs nothing but the user code of one job.
+     */
+    public static void recordPeakThreads() {
+        peakThreadsRecorded = true;
+    }
+
+    /**
+     * Wraps a task so that it is measured on whichever thread runs it.
+     */
+    public <T> Callable<T> measure(Callable<T> task) {
+        return () -> {
+            start();
+            try {
+                return task.call();
+            } finally {
+                stop();
+            }
+        };
+    }
+
+    /**
+     * Records the starting counters of the current thread.
+     */
+    public void start() {
+        if (peakThreadsRecorded) {
+            THREADS.resetPeakThreadCount();
+        }
+        startAllocated = allocatedBytesOfCurrentThread();
+        startCpu = cpuTimeOfCurrentThread();
+        startWall = System.nanoTime();
+        threadId = Thread.currentThread().threadId();
+    }
+
+    /**
+     * Records the resources used by the current thread since {@link #start()}.
+     */
+    public synchronized void stop() {
+        record(System.nanoTime(), cpuTimeOfCurrentThread(), allocatedBytesOfCurrentThread());
+    }
+
+    /**
+     * Records the resources used so far by code still running on another thread, e.g. when its time
+     * limit fires. Call it before interrupting the code, while the thread is still on this task. Does
+     * nothing if the code has not started or has already finished.
+     */
+    public synchronized void stopRunning() {
+        long thread = threadId;
+        if (completed || thread < 0) {
+            return;
+        }
+        long cpu = THREADS.isThreadCpuTimeSupported() ? THREADS.getThreadCpuTime(thread) : 0;
+        long allocated = EXTENDED_THREADS != null && EXTENDED_THREADS.isThreadAllocatedMemoryEnabled()
+                ? EXTENDED_THREADS.getThreadAllocatedBytes(thread)
+                : 0;
+        record(System.nanoTime(), cpu, allocated);
+    }
+
+    /**
+     * Copies the measurements into a test result; does nothing if the measured code has neither
+     * finished nor been stopped with {@link #stopRunning()}.
+     */
+    public void applyTo(TestResult result) {
+        if (!completed) {
+            return;
+        }
+        result.setWallTimeNanos(wallTimeNanos);
+        result.setCpuTimeNanos(cpuTimeNanos);
+        result.setAllocatedBytes(allocatedBytes);
+        result.setPeakThreads(peakThreads);
+    }
+
+    private void record(long wall, long cpu, long allocated) {
+        wallTimeNanos = wall - startWall;
+        cpuTimeNanos = Math.max(0, cpu - startCpu);
+        allocatedBytes = Math.max(0, allocated - startAllocated);
+        peakThreads = peakThreadsRecorded ? THREADS.getPeakThreadCount() : 0;
+        // Written last, so a reader that sees it also sees the measurements
+        completed = true;
+    }
+
+    private static long cpuTimeOfCurrentThread() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long allocatedBytesOfCurrentThread() {
+        return EXTENDED_THREADS != null && EXTENDED_THREADS.isThreadAllocatedMemoryEnabled()
+                ? EXTENDED_THREADS.getCurrentThreadAllocatedBytes()
+                : 0;
+    }
+}
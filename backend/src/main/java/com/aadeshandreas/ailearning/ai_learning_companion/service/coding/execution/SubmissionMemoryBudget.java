@@ -0,0 +1,49 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adds up the bytes allocated by all test cases of one submission and tells the runners to stop
+ * starting new test cases once the submission has allocated more than its limit.
+ * <p>
+ * Allocation is counted cumulatively, including memory that is already garbage, because that is
+ * what drives garbage collection work in the shared JVM.
+ */
+public class SubmissionMemoryBudget {
+
+    private final long limitBytes;
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * @param limitBytes Total bytes the submission may allocate; 0 or less disables the limit
+     */
+    public SubmissionMemoryBudget(long limitBytes) {
+        this.limitBytes = limitBytes;
+    }
+
+    /**
+     * Adds the allocation measured for a finished test case and returns the result unchanged.
+     */
+    public TestResult record(TestResult result) {
+        allocatedBytes.addAndGet(result.getAllocatedBytes());
+        return result;
+    }
+
+    public boolean exhausted() {
+        return limitBytes > 0 && allocatedBytes.get() > limitBytes;
+    }
+
+    /**
+     * Creates the result for a test case that was not started because the budget is exhausted.
+     */
+    public TestResult notStarted(TestCase testCase) {
+        TestResult result = TestResult.memoryLimitExceeded(testCase.getId(), testCase.getInput(),
+                "Memory Limit Exceeded (submission allocated more than " + (limitBytes >> 20) + " MB in total)");
+        result.setExpectedOutput(testCase.getExpectedOutput());
+        result.setSkipped(true);
+        return result;
+    }
+}
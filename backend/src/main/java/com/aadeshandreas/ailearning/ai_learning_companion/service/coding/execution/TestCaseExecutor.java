@@ -18,4 +18,22 @@ public interface TestCaseExecutor {
      * @return TestResult containing the outcome of the test
      */
     TestResult executeTestCase(Class<?> compiledClass, TestCase testCase, CodingQuestion question);
+
+    /**
+     * Checks whether the test case may run concurrently with other test cases of the same class.
+     *
+     * @param compiledClass The compiled class to test
+     * @param testCase The test case to run
+     * @return true if the test case can be executed in parallel
+     */
+    boolean canRunInParallel(Class<?> compiledClass, TestCase testCase);
+
+    /**
+     * Checks whether the test case may be run by a generated harness instead of reflectively.
+     *
+     * @param compiledClass The compiled class to test
+     * @param testCase The test case to run
+     * @return true if the test case can be executed through a generated harness
+     */
+    boolean canUseGeneratedHarness(Class<?> compiledClass, TestCase testCase);
 }
@@ -0,0 +1,254 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness.HarnessTestRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the test cases of a submission against its compiled class.
+ * <p>
+ * In parallel mode, test cases whose strategy supports it are spread over several lanes:
+ * the calling thread runs one lane and up to {@code max-per-submission - 1} more run on the
+ * dispatch executor of {@link CodeExecutionPool}. Lanes pull the next test case from a shared
+ * index, so a lane that could not be started simply leaves more work to the others. Test cases
+ * that opt out of parallel execution run afterwards on the calling thread. Results are always
+ * returned in the original test case order.
+ * <p>
+ * An optional failure limit stops the run early: once that many test cases have failed, no
+ * further test cases are started and the remaining ones are reported as skipped. Test cases
+ * already in flight on other lanes still complete and are reported normally. In the same way, no
+ * further test cases start once the submission as a whole has allocated more than its memory
+ * limit; those are reported as skipped for exceeding the memory limit.
+ * <p>
+ * An {@link ExecutionListener} receives each result as soon as its test case completes, and can
+ * stop the run the same way the failure limit does; the test cases it leaves unstarted are reported
+ * as skipped because the run was cancelled.
+ * <p>
+ * When the submission was compiled together with a generated harness and every test case would
+ * otherwise use a plain method invocation, the whole suite is handed to {@link HarnessTestRunner}
+ * instead, which calls the solution directly without per-test parsing or thread handoffs.
+ */
+@Component
+public class TestSuiteRunner {
+
+    private final TestCaseExecutor testCaseExecutor;
+    private final HarnessTestRunner harnessTestRunner;
+    private final CodeExecutionPool executionPool;
+    private final boolean parallelEnabled;
+    private final int maxParallelismPerSubmission;
+    private final long submissionMemoryLimitBytes;
+
+    public TestSuiteRunner(
+            TestCaseExecutor testCaseExecutor,
+            HarnessTestRunner harnessTestRunner,
+            CodeExecutionPool executionPool,
+            @Value("${coding.execution.parallel.enabled:false}") boolean parallelEnabled,
+            @Value("${coding.execution.parallel.max-per-submission:4}") int maxParallelismPerSubmission,
+            @Value("${coding.execution.memory.submission-limit-mb:2048}") long submissionMemoryLimitMb
+    ) {
+        this.testCaseExecutor = testCaseExecutor;
+        this.harnessTestRunner = harnessTestRunner;
+        this.executionPool = executionPool;
+        this.parallelEnabled = parallelEnabled;
+        this.maxParallelismPerSubmission = Math.max(1, maxParallelismPerSubmission);
+        this.submissionMemoryLimitBytes = submissionMemoryLimitMb << 20;
+    }
+
+    /**
+     * Executes the given test cases and returns one result per test case, in order.
+     *
+     * @param compiledClass The compiled class to test
+     * @param testCases The test cases to run
+     * @param question The coding question containing method signature and context
+     * @return The test results, in the same order as {@code testCases}
+     */
+    public List<TestResult> runAll(Class<?> compiledClass, List<TestCase> testCases, CodingQuestion question) {
+        return runAll(compiledClass, testCases, question, 0);
+    }
+
+    /**
+     * Executes the given test cases, stopping once {@code maxFailures} of them have failed.
+     *
+     * @param compiledClass The compiled class to test
+     * @param testCases The test cases to run
+     * @param question The coding question containing method signature and context
+     * @param maxFailures Number of failed tests after which the run stops; 0 or less runs every test
+     * @return The test results, in the same order as {@code testCases}; tests that were not run are
+     * reported as skipped
+     */
+    public List<TestResult> runAll(Class<?> compiledClass, List<TestCase> testCases, CodingQuestion question,
+                                   int maxFailures) {
+        return runAll(compiledClass, testCases, question, maxFailures, ExecutionListener.NONE);
+    }
+
+    private List<TestResult> runAll(Class<?> compiledClass, List<TestCase> testCases, CodingQuestion question,
+                                    int maxFailures, ExecutionListener listener) {
+        TestResult[] results = new TestResult[testCases.size()];
+        FailureBudget failures = new FailureBudget(maxFailures);
+        SubmissionMemoryBudget memory = new SubmissionMemoryBudget(submissionMemoryLimitBytes);
+
+        List<Integer> parallelIndexes = new ArrayList<>();
+        List<Integer> sequentialIndexes = new ArrayList<>();
+        for (int i = 0; i < testCases.size(); i++) {
+            boolean parallel = parallelEnabled && testCaseExecutor.canRunInParallel(compiledClass, testCases.get(i));
+            (parallel ? parallelIndexes : sequentialIndexes).add(i);
+        }
+
+        runInParallel(compiledClass, testCases, question, parallelIndexes, results, failures, memory, listener);
+        for (int index : sequentialIndexes) {
+            if (failures.exhausted() || memory.exhausted() || listener.isCancelled()) {
+                break;
+            }
+            results[index] = report(listener, index, failures.record(memory.record(
+                    testCaseExecutor.executeTestCase(compiledClass, testCases.get(index), question))));
+        }
+
+        return withSkipped(results, testCases, maxFailures, memory, listener);
+    }
+
+    /**
+     * Executes the given test cases through a generated harness when all of them are eligible,
+     * otherwise falls back to {@link #runAll(Class, List, CodingQuestion, int)}.
+     *
+     * @param compiledClass The compiled class to test
+     * @param harnessClass The harness compiled alongside {@code compiledClass} for exactly these
+     * test cases, or null if none is available
+     * @param testCases The test cases to run
+     * @param question The coding question containing method signature and context
+     * @param maxFailures Number of failed tests after which the run stops; 0 or less runs every test
+     * @return The test results, in the same order as {@code testCases}; tests that were not run are
+     * reported as skipped
+     */
+    public List<TestResult> runAll(Class<?> compiledClass, Class<?> harnessClass, List<TestCase> testCases,
+                                   CodingQuestion question, int maxFailures) {
+        return runAll(compiledClass, harnessClass, testCases, question, maxFailures, ExecutionListener.NONE);
+    }
+
+    /**
+     * Executes the given test cases like {@link #runAll(Class, Class, List, CodingQuestion, int)},
+     * reporting each result to a listener as soon as it is available.
+     *
+     * @param listener Receives results as test cases complete, and may stop the run early
+     * @return The test results, in the same order as {@code testCases}; tests that were not run are
+     * reported as skipped
+     */
+    public List<TestResult> runAll(Class<?> compiledClass, Class<?> harnessClass, List<TestCase> testCases,
+                                   CodingQuestion question, int maxFailures, ExecutionListener listener) {
+        boolean harnessEligible = harnessClass != null && testCases.stream()
+                .allMatch(testCase -> testCaseExecutor.canUseGeneratedHarness(compiledClass, testCase));
+        if (!harnessEligible) {
+            return runAll(compiledClass, testCases, question, maxFailures, listener);
+        }
+
+        SubmissionMemoryBudget memory = new SubmissionMemoryBudget(submissionMemoryLimitBytes);
+        return withSkipped(harnessTestRunner.runAll(harnessClass, testCases, maxFailures, memory, listener),
+                testCases, maxFailures, memory, listener);
+    }
+
+    /**
+     * Fills the slots of test cases that were never started because the failure limit was reached,
+     * the submission ran out of memory budget or the run was cancelled.
+     */
+    private static List<TestResult> withSkipped(TestResult[] results, List<TestCase> testCases, int maxFailures,
+                                                SubmissionMemoryBudget memory, ExecutionListener listener) {
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                TestCase testCase = testCases.get(i);
+                if (memory.exhausted()) {
+                    results[i] = memory.notStarted(testCase);
+                } else if (listener.isCancelled()) {
+                    results[i] = TestResult.cancelled(testCase.getId(), testCase.getInput());
+                } else {
+                    results[i] = TestResult.skipped(testCase.getId(), testCase.getInput(), maxFailures);
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private static TestResult report(ExecutionListener listener, int index, TestResult result) {
+        listener.onTestResult(index, result);
+        return result;
+    }
+
+    private void runInParallel(Class<?> compiledClass, List<TestCase> testCases, CodingQuestion question,
+                               List<Integer> indexes, TestResult[] results, FailureBudget failures,
+                               SubmissionMemoryBudget memory, ExecutionListener listener) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        Runnable lane = () -> {
+            int position;
+            while (!failures.exhausted() && !memory.exhausted() && !listener.isCancelled()
+                    && (position = next.getAndIncrement()) < indexes.size()) {
+                int index = indexes.get(position);
+                results[index] = report(listener, index, failures.record(memory.record(
+                        testCaseExecutor.executeTestCase(compiledClass, testCases.get(index), question))));
+            }
+        };
+
+        // Start helper lanes; the calling thread always runs one lane itself
+        int lanes = Math.min(maxParallelismPerSubmission, indexes.size());
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < lanes; i++) {
+            try {
+                helpers.add(executionPool.getDispatchExecutor().submit(lane));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+
+        lane.run();
+
+        for (Future<?> helper : helpers) {
+            try {
+                helper.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for test cases", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    /**
+     * Counts failed tests across lanes and tells lanes when to stop starting new ones.
+     */
+    private static class FailureBudget {
+        private final int maxFailures;
+        private final AtomicInteger failed = new AtomicInteger();
+
+        FailureBudget(int maxFailures) {
+            this.maxFailures = maxFailures;
+        }
+
+        TestResult record(TestResult result) {
+            if (!result.isPassed()) {
+                failed.incrementAndGet();
+            }
+            return result;
+        }
+
+        boolean exhausted() {
+            return maxFailures > 0 && failed.get() >= maxFailures;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness;
+
+/**
+ * Source code of a generated test harness, compiled against the bytecode of the submission.
+ *
+ * @param className The simple name of the (package-private) harness class
+ * @param source The Java source of the harness class
+ * @param caseCount Number of test cases the harness can run, indexed from 0
+ */
+public record HarnessSource(String className, String source, int caseCount) {
+}
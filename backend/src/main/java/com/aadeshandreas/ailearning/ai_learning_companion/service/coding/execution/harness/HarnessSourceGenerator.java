@@ -0,0 +1,164 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.InputParser;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.MethodSignatureParser;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates a harness class that calls the solution method directly for every test case.
+ * <p>
+ * Test inputs are parsed once with the regular {@link InputParser} and written back out as Java
+ * literals, so the harness passes exactly the arguments the reflective path would. The generated
+ * class exposes a single {@code static Object run(int caseIndex)} entry point; cases are split
+ * over several helper methods to stay clear of the JVM's per-method bytecode limit.
+ * <p>
+ * Generated sources only depend on the question and its test inputs, so they are kept in a small
+ * LRU map; identical sources also share a single entry in the compiled class cache.
+ */
+@Component
+public class HarnessSourceGenerator {
+
+    public static final String HARNESS_CLASS_NAME = "__SolutionHarness";
+
+    private static final int CASES_PER_METHOD = 32;
+    private static final int MAX_SOURCE_LENGTH = 1 << 20;
+    private static final int MAX_CACHED_SOURCES = 64;
+
+    private final InputParser inputParser;
+
+    private final Map<Key, HarnessSource> generated = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, HarnessSource> eldest) {
+            return size() > MAX_CACHED_SOURCES;
+        }
+    };
+
+    public HarnessSourceGenerator(InputParser inputParser) {
+        this.inputParser = inputParser;
+    }
+
+    /**
+     * Generates the harness for running the given test cases against a solution class.
+     *
+     * @param className The name of the user's solution class
+     * @param question The coding question containing the method signature
+     * @param testCases The test cases to embed, in execution order
+     * @return The harness source, or null if any test input cannot be embedded as a literal
+     */
+    public HarnessSource generate(String className, CodingQuestion question, List<TestCase> testCases) {
+        String signature = question.getMethodSignature();
+        if (className == null || signature == null || testCases.isEmpty()) {
+            return null;
+        }
+
+        Key key = new Key(className, signature, testCases.stream().map(TestCase::getInput).toList());
+        synchronized (generated) {
+            HarnessSource cached = generated.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        HarnessSource source = buildSource(key);
+        if (source != null) {
+            synchronized (generated) {
+                generated.put(key, source);
+            }
+        }
+        return source;
+    }
+
+    private HarnessSource buildSource(Key key) {
+        Class<?>[] parameterTypes = MethodSignatureParser.extractParameterTypes(key.signature());
+        String methodName = MethodSignatureParser.extractMethodName(key.signature());
+        String target = MethodSignatureParser.isStatic(key.signature())
+                ? key.className()
+                : "new " + key.className() + "()";
+        boolean returnsVoid = MethodSignatureParser.returnsVoid(key.signature());
+
+        StringBuilder cases = new StringBuilder();
+        int caseCount = key.inputs().size();
+        for (int i = 0; i < caseCount; i++) {
+            String arguments = writeArguments(key.inputs().get(i), parameterTypes);
+            if (arguments == null) {
+                return null;
+            }
+
+            if (i % CASES_PER_METHOD == 0) {
+                if (i > 0) {
+                    closeChunk(cases);
+                }
+                cases.append("    private static Object run").append(i / CASES_PER_METHOD)
+                        .append("(int i) throws Throwable {\n        switch (i) {\n");
+            }
+
+            String call = target + "." + methodName + "(" + arguments + ")";
+            cases.append("            case ").append(i).append(": ");
+            if (returnsVoid) {
+                cases.append(call).append("; return null;\n");
+            } else {
+                cases.append("return ").append(call).append(";\n");
+            }
+
+            if (cases.length() > MAX_SOURCE_LENGTH) {
+                return null;
+            }
+        }
+        closeChunk(cases);
+
+        StringBuilder source = new StringBuilder()
+                .append("final class ").append(HARNESS_CLASS_NAME).append(" {\n")
+                .append("    static Object run(int i) throws Throwable {\n")
+                .append("        switch (i / ").append(CASES_PER_METHOD).append(") {\n");
+        for (int chunk = 0; chunk * CASES_PER_METHOD < caseCount; chunk++) {
+            source.append("            case ").append(chunk).append(": return run").append(chunk).append("(i);\n");
+        }
+        source.append("            default: throw new IllegalArgumentException(\"No test case \" + i);\n")
+                .append("        }\n    }\n\n")
+                .append(cases)
+                .append("}\n");
+
+        return new HarnessSource(HARNESS_CLASS_NAME, source.toString(), caseCount);
+    }
+
+    /**
+     * Parses one test input and writes it as a comma-separated argument list.
+     */
+    private String writeArguments(String input, Class<?>[] parameterTypes) {
+        Object[] args;
+        try {
+            args = inputParser.parseTestInput(input, parameterTypes);
+        } catch (Exception e) {
+            // Leave malformed input to the reflective path, which reports it per test case
+            return null;
+        }
+        if (args.length != parameterTypes.length) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            String literal = JavaLiteralWriter.write(args[i], parameterTypes[i]);
+            if (literal == null) {
+                return null;
+            }
+            if (i > 0) sb.append(", ");
+            sb.append(literal);
+        }
+        return sb.toString();
+    }
+
+    private static void closeChunk(StringBuilder cases) {
+        cases.append("            default: throw new IllegalArgumentException(\"No test case \" + i);\n")
+                .append("        }\n    }\n\n");
+    }
+
+    private record Key(String className, String signature, List<String> inputs) {
+    }
+}
@@ -0,0 +1,331 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.comparison.OutputComparator;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionErrorMessages;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionListener;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.MemoryLimitExceededException;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ResourceUsage;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.SubmissionMemoryBudget;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.formatting.OutputFormatter;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudget;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs every test case of a submission through its generated harness in a single pool task.
+ * <p>
+ * The task walks the cases in order and publishes which case it is on. The calling thread
+ * enforces the same per-test time limit as the reflective strategies: when a case overruns, it is
+ * reported as timed out, the task is cancelled, and a fresh task resumes with the next case.
+ * Results are claimed per slot with compare-and-set, so a late result from a cancelled task can
+ * never overwrite the timeout that replaced it. A case that exceeds the per-test memory limit is
+ * handled the same way, and no further case starts once the submission's memory budget is spent.
+ * Each result is passed to an {@link ExecutionListener} as soon as it claims its slot.
+ */
+@Component
+public class HarnessTestRunner {
+
+    private static final long TIMEOUT_MS = 2000; // 2 seconds per test case
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+    private static final long MAX_QUEUE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(CodeExecutionPool.MAX_QUEUE_WAIT_MS);
+    private static final String SERVER_BUSY = "Server busy: too many submissions are running, please try again";
+
+    private final CodeExecutionPool executionPool;
+    private final OutputFormatter outputFormatter;
+    private final OutputComparator outputComparator;
+
+    public HarnessTestRunner(CodeExecutionPool executionPool, OutputFormatter outputFormatter,
+                             OutputComparator outputComparator) {
+        this.executionPool = executionPool;
+        this.outputFormatter = outputFormatter;
+        this.outputComparator = outputComparator;
+    }
+
+    /**
+     * Runs the test cases through the harness, stopping once {@code maxFailures} of them have failed.
+     *
+     * @param harnessClass The compiled harness class, loaded alongside the solution class
+     * @param testCases The test cases the harness was generated for, in the same order
+     * @param maxFailures Number of failed tests after which the run stops; 0 or less runs every test
+     * @param memory Allocation budget shared by all test cases of the submission
+     * @param listener Receives results as test cases complete, and may stop the run early
+     * @return One result per test case; entries are null for test cases that were never started
+     */
+    public TestResult[] runAll(Class<?> harnessClass, List<TestCase> testCases, int maxFailures,
+                               SubmissionMemoryBudget memory, ExecutionListener listener) {
+        MethodHandle entryPoint = resolveEntryPoint(harnessClass);
+        Results results = new Results(testCases.size(), listener);
+        AtomicInteger failed = new AtomicInteger();
+
+        int next = 0;
+        while (next < testCases.size() && !(maxFailures > 0 && failed.get() >= maxFailures) && !memory.exhausted()
+                && !listener.isCancelled()) {
+            Batch batch = new Batch(entryPoint, testCases, results, failed, maxFailures, memory, listener, next);
+            Future<?> future;
+            try {
+                future = executionPool.getExecutor().submit(batch);
+            } catch (RejectedExecutionException e) {
+                for (int i = next; i < testCases.size(); i++) {
+                    results.claim(i, transientFailure(testCases.get(i), SERVER_BUSY));
+                }
+                break;
+            }
+            next = await(batch, future, testCases, results, failed);
+        }
+
+        TestResult[] ordered = new TestResult[testCases.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = results.get(i);
+        }
+        return ordered;
+    }
+
+    /**
+     * Waits for a batch to finish, timing out the case it is stuck on if it overruns. Each case's
+     * limit starts when the batch begins it, so time the batch spends queued is not counted; a
+     * batch that no worker starts within {@link CodeExecutionPool#MAX_QUEUE_WAIT_MS} is withdrawn
+     * and its cases are reported as server busy.
+     *
+     * @return The index of the first case that still needs a new batch, or the case count when done
+     */
+    private int await(Batch batch, Future<?> future, List<TestCase> testCases, Results results, AtomicInteger failed) {
+        while (true) {
+            // Read the index before its start time; a newer start time only makes us wait longer
+            int running = batch.current;
+            ResourceUsage usage = batch.usage;
+            long startedAt = batch.startedAt;
+            boolean started = startedAt != Batch.NOT_STARTED;
+            long remaining = started
+                    ? TIMEOUT_NANOS - (System.nanoTime() - startedAt)
+                    : MAX_QUEUE_WAIT_NANOS - (System.nanoTime() - batch.submittedAt);
+
+            if (remaining > 0) {
+                try {
+                    // While queued, wake up within one case limit so a start is noticed in time
+                    future.get(started ? remaining : Math.min(remaining, TIMEOUT_NANOS), TimeUnit.NANOSECONDS);
+                    return testCases.size();
+                } catch (TimeoutException e) {
+                    continue;
+                } catch (InterruptedException e) {
+                    batch.cancelled = true;
+                    future.cancel(true);
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for test cases", e);
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof MemoryLimitExceededException memoryLimit)) {
+                        throw new IllegalStateException("Test harness failed", e.getCause());
+                    }
+                    // The pool already stopped the batch; report the case it was on and resume after it
+                    batch.cancelled = true;
+                    int stopped = batch.current;
+                    if (results.claim(stopped, memoryFailure(testCases.get(stopped), memoryLimit.getMessage()))) {
+                        failed.incrementAndGet();
+                    }
+                    return stopped + 1;
+                }
+            }
+
+            if (!started) {
+                if (batch.startedAt != Batch.NOT_STARTED) {
+                    continue;
+                }
+                // No worker became free; withdraw the batch rather than time out cases that never ran
+                batch.cancelled = true;
+                future.cancel(true);
+                for (int i = running; i < testCases.size(); i++) {
+                    results.claim(i, transientFailure(testCases.get(i), SERVER_BUSY));
+                }
+                return testCases.size();
+            }
+
+            // The case may have finished just now; only give up on it if we claim its slot first.
+            // Its usage so far is measured before the claim publishes the result
+            TestResult timedOut = transientFailure(testCases.get(running), "Time Limit Exceeded (2 seconds)");
+            usage.stopRunning();
+            usage.applyTo(timedOut);
+            if (results.claim(running, timedOut)) {
+                batch.memory.record(timedOut);
+                failed.incrementAndGet();
+                batch.cancelled = true;
+                // Interrupt the worker so the shared pool gets it back
+                future.cancel(true);
+                return running + 1;
+            }
+            if (future.isDone()) {
+                return testCases.size();
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private TestResult evaluate(TestCase testCase, Object actualResult) {
+        String actualOutput = outputFormatter.formatOutput(actualResult);
+        boolean passed = outputComparator.compareOutputs(actualOutput, testCase.getExpectedOutput());
+
+        TestResult result = newResult(testCase);
+        result.setPassed(passed);
+        result.setActualOutput(actualOutput);
+        if (!passed) {
+            result.setError("Expected: " + testCase.getExpectedOutput() + ", but got: " + actualOutput);
+        }
+        return result;
+    }
+
+    private static TestResult failure(TestCase testCase, String error) {
+        TestResult result = newResult(testCase);
+        result.setPassed(false);
+        result.setError(error);
+        return result;
+    }
+
+    private static TestResult transientFailure(TestCase testCase, String error) {
+        TestResult result = failure(testCase, error);
+        result.setTransientFailure(true);
+        return result;
+    }
+
+    private static TestResult memoryFailure(TestCase testCase, String error) {
+        TestResult result = failure(testCase, error);
+        result.setMemoryLimitExceeded(true);
+        return result;
+    }
+
+    private static TestResult newResult(TestCase testCase) {
+        TestResult result = new TestResult();
+        result.setTestId(testCase.getId());
+        result.setInput(testCase.getInput());
+        result.setExpectedOutput(testCase.getExpectedOutput());
+        return result;
+    }
+
+    private static MethodHandle resolveEntryPoint(Class<?> harnessClass) {
+        try {
+            // The harness class is package-private to the submission's package
+            Method run = harnessClass.getDeclaredMethod("run", int.class);
+            run.setAccessible(true);
+            return MethodHandles.lookup().unreflect(run);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Test harness has no entry point", e);
+        }
+    }
+
+    /**
+     * Result slots of a run. Each slot is claimed once, by whichever result arrives first, and the
+     * claiming result is passed on to the listener.
+     */
+    private static class Results {
+        private final AtomicReferenceArray<TestResult> slots;
+        private final ExecutionListener listener;
+
+        Results(int size, ExecutionListener listener) {
+            this.slots = new AtomicReferenceArray<>(size);
+            this.listener = listener;
+        }
+
+        boolean claim(int index, TestResult result) {
+            if (!slots.compareAndSet(index, null, result)) {
+                return false;
+            }
+            listener.onTestResult(index, result);
+            return true;
+        }
+
+        TestResult get(int index) {
+            return slots.get(index);
+        }
+    }
+
+    /**
+     * Runs test cases from a starting index until done, cancelled, or out of failure budget.
+     */
+    private class Batch implements Runnable {
+        private final MethodHandle entryPoint;
+        private final List<TestCase> testCases;
+        private final Results results;
+        private final AtomicInteger failed;
+        private final int maxFailures;
+        private final SubmissionMemoryBudget memory;
+        private final ExecutionListener listener;
+
+        // Start times are System.nanoTime() values, which may be any long; this one is reserved
+        static final long NOT_STARTED = Long.MIN_VALUE;
+
+        final long submittedAt = System.nanoTime();
+        volatile int current;
+        volatile long startedAt = NOT_STARTED;
+        // Measures the case at current; replaced before current moves on
+        volatile ResourceUsage usage;
+        volatile boolean cancelled;
+
+        Batch(MethodHandle entryPoint, List<TestCase> testCases, Results results, AtomicInteger failed,
+              int maxFailures, SubmissionMemoryBudget memory, ExecutionListener listener, int from) {
+            this.entryPoint = entryPoint;
+            this.testCases = testCases;
+            this.results = results;
+            this.failed = failed;
+            this.maxFailures = maxFailures;
+            this.memory = memory;
+            this.listener = listener;
+            this.current = from;
+        }
+
+        @Override
+        public void run() {
+            for (int i = current; i < testCases.size(); i++) {
+                if (cancelled || (maxFailures > 0 && failed.get() >= maxFailures) || memory.exhausted()
+                        || listener.isCancelled()) {
+                    return;
+                }
+                ResourceUsage usage = new ResourceUsage();
+                this.usage = usage;
+                startedAt = System.nanoTime();
+                current = i;
+
+                TestCase testCase = testCases.get(i);
+                TestResult result;
+                // Each case gets the full budgets, as it would running as its own pool task
+                InstructionBudget.restart();
+                executionPool.restartMemoryMeasurement();
+                usage.start();
+                try {
+                    Object actualResult;
+                    try {
+                        actualResult = (Object) entryPoint.invokeExact(i);
+                    } finally {
+                        usage.stop();
+                    }
+                    result = evaluate(testCase, actualResult);
+                } catch (Throwable t) {
+                    result = ExecutionErrorMessages.isMemoryLimitExceeded(t)
+                            ? memoryFailure(testCase, ExecutionErrorMessages.describeThrown(t))
+                            : failure(testCase, ExecutionErrorMessages.describeThrown(t));
+                }
+                usage.applyTo(result);
+                memory.record(result);
+
+                // A cancelled batch may have been interrupted mid-case; its result is not trustworthy.
+                // The pool may cancel it directly, e.g. for exceeding the memory limit
+                if (cancelled || InstructionBudget.isExpired()) {
+                    return;
+                }
+                if (results.claim(i, result) && !result.isPassed()) {
+                    failed.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+/**
+ * Writes parsed test input values back out as Java source expressions.
+ * <p>
+ * Values come from {@link com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.DefaultInputParser},
+ * so the generated expression evaluates to exactly what the reflective path would have passed.
+ */
+public final class JavaLiteralWriter {
+
+    private JavaLiteralWriter() {
+    }
+
+    /**
+     * Writes a value as a Java expression.
+     *
+     * @param value The parsed value
+     * @param expectedType The declared parameter type, or null if unknown
+     * @return The Java expression, or null if the value cannot be expressed as a literal
+     */
+    public static String write(Object value, Class<?> expectedType) {
+        if (value == null) {
+            return expectedType != null && expectedType.isPrimitive() ? null : "null";
+        }
+        if (value.getClass().isArray()) {
+            return writeArray(value);
+        }
+        if (value instanceof List<?> list) {
+            return writeList(list);
+        }
+        return writeScalar(value);
+    }
+
+    private static String writeScalar(Object value) {
+        if (value instanceof String s) {
+            return quote(s);
+        } else if (value instanceof Integer i) {
+            return Integer.toString(i);
+        } else if (value instanceof Long l) {
+            return l + "L";
+        } else if (value instanceof Double d) {
+            if (d.isNaN()) return "Double.NaN";
+            if (d.isInfinite()) return d > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+            return Double.toString(d);
+        } else if (value instanceof Float f) {
+            if (f.isNaN()) return "Float.NaN";
+            if (f.isInfinite()) return f > 0 ? "Float.POSITIVE_INFINITY" : "Float.NEGATIVE_INFINITY";
+            return f + "f";
+        } else if (value instanceof Boolean b) {
+            return Boolean.toString(b);
+        } else if (value instanceof Character c) {
+            return c == '"' ? "'\"'" : "'" + escape(c) + "'";
+        } else if (value instanceof Byte b) {
+            return "(byte) " + b;
+        } else if (value instanceof Short s) {
+            return "(short) " + s;
+        }
+        return null;
+    }
+
+    private static String writeArray(Object array) {
+        Class<?> componentType = array.getClass().getComponentType();
+        StringBuilder sb = new StringBuilder("new ").append(array.getClass().getCanonicalName());
+        // "int[][]" -> "new int[][]{...}"
+        sb.append('{');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) sb.append(", ");
+            String element = write(Array.get(array, i), componentType);
+            if (element == null) {
+                return null;
+            }
+            sb.append(element);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String writeList(List<?> list) {
+        if (list.isEmpty()) {
+            return "new java.util.ArrayList<>()";
+        }
+        StringBuilder sb = new StringBuilder("new java.util.ArrayList<>(java.util.Arrays.asList(");
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) sb.append(", ");
+            String element = write(list.get(i), null);
+            if (element == null) {
+                return null;
+            }
+            sb.append(element);
+        }
+        return sb.append("))").toString();
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            sb.append(escape(s.charAt(i)));
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Escapes a character for use inside a string or char literal. Control and quote characters
+     * use octal escapes, because unicode escapes are translated before the source is tokenized.
+     */
+    private static String escape(char c) {
+        if (c == '"' || c == '\'' || c == '\\' || c < 0x20 || c == 0x7f) {
+            return String.format("\\%03o", (int) c);
+        }
+        if (c > 0x7f) {
+            return String.format("\\u%04x", (int) c);
+        }
+        return String.valueOf(c);
+    }
+}
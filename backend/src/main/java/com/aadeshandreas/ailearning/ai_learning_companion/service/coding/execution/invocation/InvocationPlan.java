@@ -0,0 +1,158 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.SharedHelperClasses;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.MethodSignatureParser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Resolved, reusable recipe for calling the solution method of a compiled class.
+ * <p>
+ * The method signature is parsed and the target method, its static-ness and the no-arg
+ * constructor are resolved into {@link MethodHandle}s once; every test case then only spreads
+ * its arguments into the cached handle. Exceptions thrown by user code are wrapped in
+ * {@link InvocationTargetException}, matching {@link Method#invoke} so error reporting is unchanged.
+ */
+public class InvocationPlan {
+
+    private final String methodName;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+    private final MethodHandle invoker;        // (Object[])Object for static, (Object, Object[])Object otherwise
+    private final MethodHandle constructor;    // ()Object, or null if there is no no-arg constructor
+
+    private InvocationPlan(String methodName, Class<?>[] parameterTypes, boolean isStatic,
+                           MethodHandle invoker, MethodHandle constructor) {
+        this.methodName = methodName;
+        this.parameterTypes = parameterTypes;
+        this.isStatic = isStatic;
+        this.invoker = invoker;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Resolves the method described by the question's signature on the compiled class.
+     *
+     * @param compiledClass The compiled user class
+     * @param methodSignature The method signature from the coding question
+     * @return A plan ready to invoke the method
+     * @throws NoSuchMethodException if no matching method exists
+     * @throws IllegalAccessException if the method cannot be made accessible
+     */
+    static InvocationPlan create(Class<?> compiledClass, String methodSignature)
+            throws NoSuchMethodException, IllegalAccessException {
+        String methodName = MethodSignatureParser.extractMethodName(methodSignature);
+        Class<?>[] parameterTypes = MethodSignatureParser.extractParameterTypes(methodSignature);
+
+        Method method = findMethod(compiledClass, methodName, parameterTypes);
+        // Make method accessible in case the class is not public
+        method.setAccessible(true);
+        parameterTypes = withDeclaredHelperTypes(parameterTypes, method);
+
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        MethodHandle invoker = spreadInvoker(MethodHandles.lookup().unreflect(method), isStatic);
+
+        MethodHandle constructor = null;
+        if (!isStatic) {
+            constructor = resolveNoArgConstructor(compiledClass);
+        }
+
+        return new InvocationPlan(methodName, parameterTypes, isStatic, invoker, constructor);
+    }
+
+    /**
+     * Returns the parameter types declared by the question's signature, used to parse test inputs.
+     */
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * Invokes the solution method, creating a fresh instance first if the method is not static.
+     *
+     * @param args The parsed arguments
+     * @return The method's return value (boxed), or null for void methods
+     * @throws InvocationTargetException if the user code throws
+     * @throws NoSuchMethodException if an instance is needed but the class has no no-arg constructor
+     */
+    public Object invoke(Object[] args) throws InvocationTargetException, NoSuchMethodException {
+        try {
+            if (isStatic) {
+                return (Object) invoker.invokeExact(args);
+            }
+            if (constructor == null) {
+                throw new NoSuchMethodException("No no-arg constructor available to call " + methodName);
+            }
+            Object instance = (Object) constructor.invokeExact();
+            return (Object) invoker.invokeExact(instance, args);
+        } catch (NoSuchMethodException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Adapts a direct method handle to take its arguments as a single Object[] and return Object.
+     */
+    static MethodHandle spreadInvoker(MethodHandle handle, boolean isStatic) {
+        int parameterCount = handle.type().parameterCount() - (isStatic ? 0 : 1);
+        return handle.asType(handle.type().generic()).asSpreader(Object[].class, parameterCount);
+    }
+
+    /**
+     * Resolves the no-arg constructor as a ()Object handle, or returns null if the class has none.
+     */
+    static MethodHandle resolveNoArgConstructor(Class<?> compiledClass) throws IllegalAccessException {
+        try {
+            Constructor<?> constructor = compiledClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Replaces shared helper types with the classes the method actually declares, which differ when
+     * the submission declares its own {@code ListNode} or {@code TreeNode}.
+     */
+    private static Class<?>[] withDeclaredHelperTypes(Class<?>[] parameterTypes, Method method) {
+        Class<?>[] declared = method.getParameterTypes();
+        if (declared.length != parameterTypes.length) {
+            return parameterTypes;
+        }
+        Class<?>[] resolved = parameterTypes.clone();
+        for (int i = 0; i < resolved.length; i++) {
+            if (SharedHelperClasses.isHelper(resolved[i].getName())) {
+                resolved[i] = declared[i];
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Finds the method in the class that matches the method name and parameter types.
+     */
+    private static Method findMethod(Class<?> clazz, String methodName, Class<?>[] parameterTypes) throws NoSuchMethodException {
+        try {
+            // Try exact match first
+            return clazz.getDeclaredMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            // If exact match fails, try to find by name and parameter count
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.getName().equals(methodName) && method.getParameterCount() == parameterTypes.length) {
+                    return method;
+                }
+            }
+            throw new NoSuchMethodException("Method " + methodName + " not found with " + parameterTypes.length + " parameters");
+        }
+    }
+}
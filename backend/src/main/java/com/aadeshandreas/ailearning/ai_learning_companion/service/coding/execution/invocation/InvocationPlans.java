@@ -0,0 +1,56 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-class cache of invocation plans.
+ * <p>
+ * Plans are attached to the compiled class through a {@link ClassValue}, so they are built once
+ * per compiled class (and method signature) and shared by every test case and operation, and they
+ * become unreachable together with the class loader of the submission.
+ */
+public final class InvocationPlans {
+
+    private static final ClassValue<PlansForClass> PLANS = new ClassValue<>() {
+        @Override
+        protected PlansForClass computeValue(Class<?> type) {
+            return new PlansForClass();
+        }
+    };
+
+    private InvocationPlans() {
+    }
+
+    /**
+     * Returns the plan for calling the solution method described by {@code methodSignature}.
+     */
+    public static InvocationPlan forMethod(Class<?> compiledClass, String methodSignature)
+            throws NoSuchMethodException, IllegalAccessException {
+        PlansForClass plans = PLANS.get(compiledClass);
+        InvocationPlan plan = plans.methodPlans.get(methodSignature);
+        if (plan == null) {
+            plan = InvocationPlan.create(compiledClass, methodSignature);
+            plans.methodPlans.putIfAbsent(methodSignature, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the plan for running operation-based tests against the compiled class.
+     */
+    public static OperationPlan forOperations(Class<?> compiledClass) throws IllegalAccessException {
+        PlansForClass plans = PLANS.get(compiledClass);
+        OperationPlan plan = plans.operationPlan;
+        if (plan == null) {
+            plan = OperationPlan.create(compiledClass);
+            plans.operationPlan = plan;
+        }
+        return plan;
+    }
+
+    private static class PlansForClass {
+        private final Map<String, InvocationPlan> methodPlans = new ConcurrentHashMap<>();
+        private volatile OperationPlan operationPlan;
+    }
+}
@@ -0,0 +1,93 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolved method handles for operation-based tests (e.g. LRU Cache, Stack implementations).
+ * <p>
+ * All declared methods of the compiled class are indexed by name and parameter count once,
+ * so each operation is a map lookup followed by a direct handle call instead of a scan over
+ * {@link Class#getDeclaredMethods()}.
+ */
+public class OperationPlan {
+
+    private final Class<?> compiledClass;
+    private final MethodHandle constructor;
+    private final Map<String, OperationMethod> methods;
+
+    private OperationPlan(Class<?> compiledClass, MethodHandle constructor, Map<String, OperationMethod> methods) {
+        this.compiledClass = compiledClass;
+        this.constructor = constructor;
+        this.methods = methods;
+    }
+
+    /**
+     * Indexes the declared methods and no-arg constructor of the compiled class.
+     */
+    static OperationPlan create(Class<?> compiledClass) throws IllegalAccessException {
+        Map<String, OperationMethod> methods = new HashMap<>();
+        for (Method method : compiledClass.getDeclaredMethods()) {
+            String key = key(method.getName(), method.getParameterCount());
+            if (methods.containsKey(key)) {
+                continue; // Keep the first match, as a linear scan would
+            }
+            method.setAccessible(true);
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            MethodHandle invoker = InvocationPlan.spreadInvoker(MethodHandles.lookup().unreflect(method), isStatic);
+            methods.put(key, new OperationMethod(invoker, isStatic));
+        }
+        return new OperationPlan(compiledClass, InvocationPlan.resolveNoArgConstructor(compiledClass), Map.copyOf(methods));
+    }
+
+    /**
+     * Creates a new instance of the compiled class using its no-arg constructor.
+     *
+     * @throws InvocationTargetException if the constructor throws
+     * @throws NoSuchMethodException if the class has no no-arg constructor
+     */
+    public Object newInstance() throws InvocationTargetException, NoSuchMethodException {
+        if (constructor == null) {
+            throw new NoSuchMethodException(compiledClass.getName() + ".<init>()");
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Invokes the operation with the given name and arguments on the instance.
+     *
+     * @throws NoSuchMethodException if no method with that name and parameter count exists
+     * @throws InvocationTargetException if the user code throws
+     */
+    public Object invoke(String methodName, Object instance, Object[] args)
+            throws NoSuchMethodException, InvocationTargetException {
+        OperationMethod method = methods.get(key(methodName, args.length));
+        if (method == null) {
+            throw new NoSuchMethodException("Method " + methodName + " with " + args.length + " parameters not found");
+        }
+        try {
+            if (method.isStatic()) {
+                return (Object) method.invoker().invokeExact(args);
+            }
+            return (Object) method.invoker().invokeExact(instance, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static String key(String methodName, int parameterCount) {
+        return methodName + "/" + parameterCount;
+    }
+
+    private record OperationMethod(MethodHandle invoker, boolean isStatic) {
+    }
+}
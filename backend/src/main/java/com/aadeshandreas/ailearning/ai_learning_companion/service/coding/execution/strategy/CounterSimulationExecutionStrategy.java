@@ -3,23 +3,73 @@ package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execut
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionErrorMessages;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ResourceUsage;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation.InstructionBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Execution strategy for counter simulation tests (e.g., MutexCounter).
  * These tests involve concurrent thread execution to verify thread-safety.
+ * <p>
+ * By default the scenario runs once on platform threads. In stress mode it runs
+ * {@link CounterSimulationSettings#repeats()} times on virtual threads, with a different random
+ * yield probability per run, and the result reports how many runs lost updates. Yields are
+ * injected at the field writes of instrumented submissions (see {@link InstructionBudget#yieldPoint()}),
+ * i.e. between reading the counter and storing the new value, where lost updates happen. Stress
+ * mode therefore always turns instrumentation on (see {@code InstructionBudgetInstrumenter}).
+ * Virtual threads are a preview feature in Java 19, so they are looked up reflectively; the
+ * {@code spring-boot:run} configuration and the execution workers start their JVMs with
+ * {@code --enable-preview}. A JVM started without it uses platform threads instead, and the thread
+ * limit of stress mode is then lowered to {@value #PLATFORM_STRESS_MAX_THREADS}.
+ * <p>
+ * Tests may not ask for more than {@link CounterSimulationSettings#maxThreads()} threads, and all
+ * runs of a test share one wall-clock budget; simulated threads still running when it is used up
+ * are cancelled through their {@link InstructionBudget} and interrupted.
  */
 public class CounterSimulationExecutionStrategy implements ExecutionStrategy {
 
-    private static final long TIMEOUT_MS = 2000; // Base timeout
+    // Extra time the pool task gets to stop its simulated threads once the budget is used up
+    private static final long STOP_GRACE_MS = 500;
+    // Highest chance of yielding at a field write in a stress run
+    private static final double MAX_YIELD_PROBABILITY = 0.5;
+    // Most simulated threads per stress test when they have to be platform threads
+    private static final int PLATFORM_STRESS_MAX_THREADS = 64;
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterSimulationExecutionStrategy.class);
+    private static final ThreadFactory VIRTUAL_THREADS = virtualThreadFactory();
+
+    private final CounterSimulationSettings settings;
+
+    public CounterSimulationExecutionStrategy(CounterSimulationSettings settings) {
+        if (settings.stress() && VIRTUAL_THREADS == null && settings.maxThreads() > PLATFORM_STRESS_MAX_THREADS) {
+            logger.warn("Virtual threads are unavailable (start the JVM with --enable-preview on Java 19); "
+                    + "counter stress runs use platform threads, limited to {} per test", PLATFORM_STRESS_MAX_THREADS);
+            settings = new CounterSimulationSettings(true, PLATFORM_STRESS_MAX_THREADS, settings.repeats(),
+                    settings.timeBudgetMs());
+        }
+        this.settings = settings;
+    }
 
     @Override
     public boolean canHandle(Class<?> compiledClass, TestCase testCase) {
@@ -35,12 +85,19 @@ public class CounterSimulationExecutionStrategy implements ExecutionStrategy {
         }
     }
 
+    @Override
+    public boolean supportsParallelExecution() {
+        // Each test already spawns its own threads and measures contention between them
+        return false;
+    }
+
     @Override
     public TestResult execute(Class<?> compiledClass, TestCase testCase, CodingQuestion question, ExecutorService executor) {
         TestResult result = new TestResult();
         result.setTestId(testCase.getId());
         result.setInput(testCase.getInput());
         result.setExpectedOutput(testCase.getExpectedOutput());
+        ResourceUsage usage = new ResourceUsage();
 
         try {
             String input = testCase.getInput();
@@ -56,78 +113,205 @@ public class CounterSimulationExecutionStrategy implements ExecutionStrategy {
             int numThreads = Integer.parseInt(parts[1].trim());
             int incrementsPerThread = Integer.parseInt(parts[2].trim());
 
-            Future<String> future = executor.submit(() -> {
-                try {
-                    // Create instance with initial value
-                    Object instance;
-                    try {
-                        Constructor<?> constructor = compiledClass.getDeclaredConstructor(int.class);
-                        constructor.setAccessible(true);
-                        instance = constructor.newInstance(initialValue);
-                    } catch (NoSuchMethodException e) {
-                        // Try no-arg constructor
-                        Constructor<?> constructor = compiledClass.getDeclaredConstructor();
-                        constructor.setAccessible(true);
-                        instance = constructor.newInstance();
-                    }
-
-                    // Get increment and getValue methods
-                    Method incrementMethod = compiledClass.getDeclaredMethod("increment");
-                    Method getValueMethod = compiledClass.getDeclaredMethod("getValue");
-                    incrementMethod.setAccessible(true);
-                    getValueMethod.setAccessible(true);
-
-                    final Object finalInstance = instance;
-
-                    // Create and start threads
-                    List<Thread> threads = new ArrayList<>();
-                    for (int i = 0; i < numThreads; i++) {
-                        Thread thread = new Thread(() -> {
-                            try {
-                                for (int j = 0; j < incrementsPerThread; j++) {
-                                    incrementMethod.invoke(finalInstance);
-                                }
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
-                        threads.add(thread);
-                        thread.start();
-                    }
-
-                    // Wait for all threads to complete
-                    for (Thread thread : threads) {
-                        thread.join();
-                    }
-
-                    // Get final value
-                    Object value = getValueMethod.invoke(finalInstance);
-                    return String.valueOf(value);
+            if (numThreads > settings.maxThreads()) {
+                result.setPassed(false);
+                result.setError("Counter simulation asks for " + numThreads
+                        + " threads, more than the limit of " + settings.maxThreads());
+                return result;
+            }
 
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            });
+            Future<Outcome> future = executor.submit(usage.measure(() -> simulate(
+                    compiledClass, initialValue, numThreads, incrementsPerThread, testCase.getExpectedOutput())));
 
-            String actualOutput = future.get(TIMEOUT_MS * numThreads, TimeUnit.MILLISECONDS);
-            result.setActualOutput(actualOutput);
+            Outcome outcome;
+            try {
+                outcome = CodeExecutionPool.getWithinRunLimit(future, settings.timeBudgetMs() + STOP_GRACE_MS,
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Measure what the code used so far, then interrupt the worker so the shared pool gets it back
+                usage.stopRunning();
+                future.cancel(true);
+                throw e;
+            }
+            if (outcome.runs() == 0) {
+                throw new TimeoutException();
+            }
+            result.setActualOutput(outcome.actualOutput());
+            result.setRuns(outcome.runs());
+            result.setFailedRuns(outcome.failedRuns());
 
-            boolean passed = actualOutput.equals(testCase.getExpectedOutput());
+            boolean passed = outcome.failedRuns() == 0;
             result.setPassed(passed);
 
             if (!passed) {
-                result.setError("Expected: " + testCase.getExpectedOutput() + ", but got: " + actualOutput);
+                String error = "Expected: " + testCase.getExpectedOutput() + ", but got: " + outcome.actualOutput();
+                if (settings.stress()) {
+                    error += " (wrong in " + outcome.failedRuns() + " of " + outcome.runs() + " runs)";
+                }
+                result.setError(error);
             }
 
         } catch (TimeoutException e) {
             result.setPassed(false);
             result.setError("Time Limit Exceeded");
+            result.setTransientFailure(true);
+        } catch (RejectedExecutionException e) {
+            result.setPassed(false);
+            result.setError("Server busy: too many submissions are running, please try again");
+            result.setTransientFailure(true);
         } catch (Exception e) {
             result.setPassed(false);
-            result.setError("Error executing counter simulation: " + e.getMessage());
-            e.printStackTrace();
+            if (ExecutionErrorMessages.isMemoryLimitExceeded(e)) {
+                result.setMemoryLimitExceeded(true);
+                result.setError(ExecutionErrorMessages.describe(e));
+            } else {
+                result.setError("Error executing counter simulation: " + e.getMessage());
+                e.printStackTrace();
+            }
         }
 
+        usage.applyTo(result);
         return result;
     }
+
+    /**
+     * Runs the scenario up to the configured number of times within the time budget.
+     *
+     * @return The outcome of the completed runs; no runs completed if the first did not finish in time
+     */
+    private Outcome simulate(Class<?> compiledClass, int initialValue, int numThreads, int incrementsPerThread,
+                             String expectedOutput) throws Exception {
+        // Get increment and getValue methods
+        Method incrementMethod = compiledClass.getDeclaredMethod("increment");
+        Method getValueMethod = compiledClass.getDeclaredMethod("getValue");
+        incrementMethod.setAccessible(true);
+        getValueMethod.setAccessible(true);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.timeBudgetMs());
+        Random random = new Random();
+        String actualOutput = null;
+        int runs = 0;
+        int failedRuns = 0;
+        for (int run = 0; run < settings.repeats(); run++) {
+            Object instance = newInstance(compiledClass, initialValue);
+            double yieldProbability = settings.stress() ? random.nextDouble() * MAX_YIELD_PROBABILITY : 0;
+            if (!runThreads(instance, incrementMethod, numThreads, incrementsPerThread, yieldProbability,
+                    random.nextLong(), deadline)) {
+                break;
+            }
+
+            String value = String.valueOf(getValueMethod.invoke(instance));
+            runs++;
+            boolean correct = value.equals(expectedOutput);
+            if (!correct) {
+                failedRuns++;
+            }
+            // Show the first wrong value if there is one
+            if (runs == 1 || (!correct && failedRuns == 1)) {
+                actualOutput = value;
+            }
+        }
+        return new Outcome(actualOutput, runs, failedRuns);
+    }
+
+    /**
+     * Starts the simulated threads together and waits for them until the deadline.
+     *
+     * @return true if every thread finished in time, false if they had to be stopped
+     */
+    private boolean runThreads(Object instance, Method incrementMethod, int numThreads, int incrementsPerThread,
+                               double yieldProbability, long seed, long deadline) throws Exception {
+        ThreadFactory threadFactory = settings.stress() && VIRTUAL_THREADS != null ? VIRTUAL_THREADS : Thread::new;
+        CountDownLatch startGate = new CountDownLatch(1);
+        Queue<InstructionBudget> budgets = new ConcurrentLinkedQueue<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // Create and start threads
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            long threadSeed = seed + i;
+            Thread thread = threadFactory.newThread(() -> {
+                budgets.add(InstructionBudget.begin(0));
+                InstructionBudget.injectYields(yieldProbability, threadSeed);
+                try {
+                    startGate.await();
+                    for (int j = 0; j < incrementsPerThread; j++) {
+                        incrementMethod.invoke(instance);
+                    }
+                } catch (InterruptedException e) {
+                    // Stopped because the time budget ran out
+                } catch (InvocationTargetException e) {
+                    failure.compareAndSet(null, e.getCause());
+                } catch (Exception | Error e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    InstructionBudget.end();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        startGate.countDown();
+
+        // Wait for all threads to complete
+        try {
+            for (Thread thread : threads) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs > 0) {
+                    thread.join(remainingMs);
+                }
+                if (thread.isAlive()) {
+                    stop(threads, budgets);
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            stop(threads, budgets);
+            throw e;
+        }
+
+        if (failure.get() != null) {
+            throw new RuntimeException(failure.get());
+        }
+        return true;
+    }
+
+    private static void stop(List<Thread> threads, Queue<InstructionBudget> budgets) {
+        budgets.forEach(InstructionBudget::expire);
+        threads.forEach(Thread::interrupt);
+    }
+
+    private static Object newInstance(Class<?> compiledClass, int initialValue) throws Exception {
+        // Create instance with initial value
+        try {
+            Constructor<?> constructor = compiledClass.getDeclaredConstructor(int.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(initialValue);
+        } catch (NoSuchMethodException e) {
+            // Try no-arg constructor
+            Constructor<?> constructor = compiledClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        }
+    }
+
+    /**
+     * Returns a factory of virtual threads, or null when this JVM does not provide them.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Result of the completed runs of one test.
+     *
+     * @param actualOutput The counter value of the first wrong run, or of the first run if all were right
+     */
+    private record Outcome(String actualOutput, int runs, int failedRuns) {
+    }
 }
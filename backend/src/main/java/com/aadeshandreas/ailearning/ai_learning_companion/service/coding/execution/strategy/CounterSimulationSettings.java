@@ -0,0 +1,24 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy;
+
+/**
+ * How {@link CounterSimulationExecutionStrategy} runs the simulated threads of a test.
+ *
+ * @param stress Whether to run the scenario repeatedly on virtual threads with randomized yields,
+ *               instead of once on platform threads
+ * @param maxThreads Most simulated threads a single test may ask for
+ * @param repeats Number of runs of the scenario in stress mode
+ * @param timeBudgetMs Wall-clock budget for all runs of one test together
+ */
+public record CounterSimulationSettings(boolean stress, int maxThreads, int repeats, long timeBudgetMs) {
+
+    /**
+     * Creates settings from configuration values.
+     *
+     * @param mode "stress" for repeated runs on virtual threads; anything else runs the scenario once
+     */
+    public static CounterSimulationSettings of(String mode, int maxThreads, int repeats, long timeBudgetMs) {
+        boolean stress = "stress".equalsIgnoreCase(mode);
+        return new CounterSimulationSettings(stress, Math.max(1, maxThreads), stress ? Math.max(1, repeats) : 1,
+                timeBudgetMs);
+    }
+}
@@ -30,4 +30,26 @@ public interface ExecutionStrategy {
      * @return TestResult containing the outcome
      */
     TestResult execute(Class<?> compiledClass, TestCase testCase, CodingQuestion question, ExecutorService executor);
+
+    /**
+     * Indicates whether test cases handled by this strategy may run concurrently with other
+     * test cases against the same compiled class. Strategies that manage their own threads
+     * should opt out.
+     *
+     * @return true if this strategy is safe to run in parallel
+     */
+    default boolean supportsParallelExecution() {
+        return true;
+    }
+
+    /**
+     * Indicates whether test cases handled by this strategy can instead be run by a generated
+     * harness that calls the solution method directly. Only strategies that do nothing more than
+     * invoke the question's method once with the parsed input and compare its output qualify.
+     *
+     * @return true if a generated harness produces the same results as this strategy
+     */
+    default boolean supportsGeneratedHarness() {
+        return false;
+    }
 }
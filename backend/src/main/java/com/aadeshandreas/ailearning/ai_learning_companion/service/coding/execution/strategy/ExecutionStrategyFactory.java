@@ -5,6 +5,7 @@ import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compari
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.formatting.OutputFormatter;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.DefaultInputParser;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.InputParser;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -18,7 +19,15 @@ public class ExecutionStrategyFactory {
 
     private final List<ExecutionStrategy> strategies;
 
-    public ExecutionStrategyFactory(InputParser inputParser, OutputFormatter outputFormatter, OutputComparator outputComparator) {
+    public ExecutionStrategyFactory(
+            InputParser inputParser,
+            OutputFormatter outputFormatter,
+            OutputComparator outputComparator,
+            @Value("${coding.execution.counter-simulation.mode:single}") String counterSimulationMode,
+            @Value("${coding.execution.counter-simulation.max-threads:256}") int counterSimulationMaxThreads,
+            @Value("${coding.execution.counter-simulation.repeats:10}") int counterSimulationRepeats,
+            @Value("${coding.execution.counter-simulation.time-budget-ms:2000}") long counterSimulationTimeBudgetMs
+    ) {
         this.strategies = new ArrayList<>();
 
         // Order matters - more specific strategies should come first
@@ -28,7 +37,8 @@ public class ExecutionStrategyFactory {
         DefaultInputParser defaultInputParser = (DefaultInputParser) inputParser;
 
         strategies.add(new OperationBasedExecutionStrategy(defaultInputParser));
-        strategies.add(new CounterSimulationExecutionStrategy());
+        strategies.add(new CounterSimulationExecutionStrategy(CounterSimulationSettings.of(counterSimulationMode,
+                counterSimulationMaxThreads, counterSimulationRepeats, counterSimulationTimeBudgetMs)));
         strategies.add(new SingleMethodExecutionStrategy(inputParser, outputFormatter, outputComparator));
     }
 
@@ -49,4 +59,16 @@ public class ExecutionStrategyFactory {
         // This should never happen as SingleMethodExecutionStrategy always returns true
         throw new IllegalStateException("No execution strategy found for test case");
     }
+
+    /**
+     * Returns whether every test case calls a single solution method, i.e. selects
+     * {@link SingleMethodExecutionStrategy}.
+     *
+     * @param compiledClass The compiled class
+     * @param testCases The test cases of the question
+     */
+    public boolean isSingleMethod(Class<?> compiledClass, List<TestCase> testCases) {
+        return testCases.stream().allMatch(testCase ->
+                selectStrategy(compiledClass, testCase) instanceof SingleMethodExecutionStrategy);
+    }
 }
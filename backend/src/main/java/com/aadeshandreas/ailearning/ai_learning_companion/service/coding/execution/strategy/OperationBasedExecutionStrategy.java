@@ -3,14 +3,19 @@ package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execut
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionErrorMessages;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ResourceUsage;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.InvocationPlans;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.OperationPlan;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.DefaultInputParser;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.util.ParsingUtils;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -40,6 +45,7 @@ public class OperationBasedExecutionStrategy implements ExecutionStrategy {
         result.setTestId(testCase.getId());
         result.setInput(testCase.getInput());
         result.setExpectedOutput(testCase.getExpectedOutput());
+        ResourceUsage usage = new ResourceUsage();
 
         try {
             String input = testCase.getInput();
@@ -54,8 +60,11 @@ public class OperationBasedExecutionStrategy implements ExecutionStrategy {
                 return result;
             }
 
+            // Resolve (or reuse) the method handles for this class
+            OperationPlan plan = InvocationPlans.forOperations(compiledClass);
+
             // Execute operations
-            Future<String> future = executor.submit(() -> {
+            Future<String> future = executor.submit(usage.measure(() -> {
                 List<String> results = new ArrayList<>();
                 Object instance = null;
 
@@ -65,23 +74,29 @@ public class OperationBasedExecutionStrategy implements ExecutionStrategy {
 
                     if (operation.equals(compiledClass.getSimpleName())) {
                         // Constructor call
-                        instance = compiledClass.getDeclaredConstructor().newInstance();
+                        instance = plan.newInstance();
                         results.add("null");
                     } else {
                         // Method call
                         Object[] parsedArgs = inputParser.parseOperationArguments(args);
-                        Method method = findMethodByName(compiledClass, operation, parsedArgs.length);
-                        method.setAccessible(true);
-
-                        Object returnValue = method.invoke(instance, parsedArgs);
+                        Object returnValue = plan.invoke(operation, instance, parsedArgs);
                         results.add(returnValue == null ? "null" : String.valueOf(returnValue));
                     }
                 }
 
                 return "[" + String.join(", ", results) + "]";
-            });
-
-            String actualOutput = future.get(TIMEOUT_MS * operations.length, TimeUnit.MILLISECONDS);
+            }));
+
+            String actualOutput;
+            try {
+                actualOutput = CodeExecutionPool.getWithinRunLimit(future, TIMEOUT_MS * operations.length,
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Measure what the code used so far, then interrupt the worker so the shared pool gets it back
+                usage.stopRunning();
+                future.cancel(true);
+                throw e;
+            }
             result.setActualOutput(actualOutput);
 
             boolean passed = actualOutput.equals(testCase.getExpectedOutput());
@@ -94,24 +109,23 @@ public class OperationBasedExecutionStrategy implements ExecutionStrategy {
         } catch (TimeoutException e) {
             result.setPassed(false);
             result.setError("Time Limit Exceeded");
+            result.setTransientFailure(true);
+        } catch (RejectedExecutionException e) {
+            result.setPassed(false);
+            result.setError("Server busy: too many submissions are running, please try again");
+            result.setTransientFailure(true);
         } catch (Exception e) {
             result.setPassed(false);
-            result.setError("Error executing operations: " + e.getMessage());
-            e.printStackTrace(); // For debugging
+            if (ExecutionErrorMessages.isMemoryLimitExceeded(e)) {
+                result.setMemoryLimitExceeded(true);
+                result.setError(ExecutionErrorMessages.describe(e));
+            } else {
+                result.setError("Error executing operations: " + e.getMessage());
+                e.printStackTrace(); // For debugging
+            }
         }
 
+        usage.applyTo(result);
         return result;
     }
-
-    /**
-     * Finds method by name and parameter count.
-     */
-    private Method findMethodByName(Class<?> clazz, String methodName, int paramCount) throws NoSuchMethodException {
-        for (Method method : clazz.getDeclaredMethods()) {
-            if (method.getName().equals(methodName) && method.getParameterCount() == paramCount) {
-                return method;
-            }
-        }
-        throw new NoSuchMethodException("Method " + methodName + " with " + paramCount + " parameters not found");
-    }
 }
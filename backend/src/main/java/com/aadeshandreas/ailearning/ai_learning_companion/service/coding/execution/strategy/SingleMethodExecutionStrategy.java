@@ -5,12 +5,16 @@ import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
 import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.comparison.OutputComparator;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.formatting.OutputFormatter;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionErrorMessages;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ResourceUsage;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.InvocationPlan;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.invocation.InvocationPlans;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.InputParser;
-import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.MethodSignatureParser;
 
-import java.lang.reflect.Method;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -39,41 +43,47 @@ public class SingleMethodExecutionStrategy implements ExecutionStrategy {
         return true;
     }
 
+    @Override
+    public boolean supportsGeneratedHarness() {
+        return true;
+    }
+
     @Override
     public TestResult execute(Class<?> compiledClass, TestCase testCase, CodingQuestion question, ExecutorService executor) {
         TestResult result = new TestResult();
         result.setTestId(testCase.getId());
         result.setInput(testCase.getInput());
         result.setExpectedOutput(testCase.getExpectedOutput());
+        ResourceUsage usage = new ResourceUsage();
 
         try {
-            // Parse method name and parameter types from signature
-            String methodName = MethodSignatureParser.extractMethodName(question.getMethodSignature());
-            Class<?>[] parameterTypes = MethodSignatureParser.extractParameterTypes(question.getMethodSignature());
-            Object[] args = inputParser.parseTestInput(testCase.getInput(), parameterTypes);
-
-            // Execute with timeout
-            Future<Object> future = executor.submit(() -> {
+            // Resolve (or reuse) the method handles for this class and signature
+            InvocationPlan plan = InvocationPlans.forMethod(compiledClass, question.getMethodSignature());
+
+            // Parsing may run the submission's own ListNode or TreeNode constructors and formatting its
+            // toString, so both happen on the pool under the same limits as the call itself
+            Future<String> future = executor.submit(usage.measure(() -> {
+                Object[] args = inputParser.parseTestInput(testCase.getInput(), plan.getParameterTypes());
+                Object actualResult;
                 try {
-                    Method method = findMethod(compiledClass, methodName, parameterTypes);
-
-                    // Make method accessible in case the class is not public
-                    method.setAccessible(true);
-
-                    // If method is static, invoke with null instance; otherwise create instance
-                    if (java.lang.reflect.Modifier.isStatic(method.getModifiers())) {
-                        return method.invoke(null, args);
-                    } else {
-                        Object instance = compiledClass.getDeclaredConstructor().newInstance();
-                        return method.invoke(instance, args);
-                    }
+                    // Static methods are called directly; otherwise the plan creates a fresh instance
+                    actualResult = plan.invoke(args);
                 } catch (Exception e) {
                     throw new RuntimeException(e);
                 }
-            });
-
-            Object actualResult = future.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
-            String actualOutput = outputFormatter.formatOutput(actualResult);
+                return outputFormatter.formatOutput(actualResult);
+            }));
+
+            String actualOutput;
+            try {
+                // The limit counts from when a worker starts the task, not from submission
+                actualOutput = CodeExecutionPool.getWithinRunLimit(future, TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Measure what the code used so far, then interrupt the worker so the shared pool gets it back
+                usage.stopRunning();
+                future.cancel(true);
+                throw e;
+            }
 
             // Compare results
             boolean passed = outputComparator.compareOutputs(actualOutput, testCase.getExpectedOutput());
@@ -87,62 +97,18 @@ public class SingleMethodExecutionStrategy implements ExecutionStrategy {
         } catch (TimeoutException e) {
             result.setPassed(false);
             result.setError("Time Limit Exceeded (2 seconds)");
+            result.setTransientFailure(true);
+        } catch (RejectedExecutionException e) {
+            result.setPassed(false);
+            result.setError("Server busy: too many submissions are running, please try again");
+            result.setTransientFailure(true);
         } catch (Exception e) {
             result.setPassed(false);
-            result.setError(buildErrorMessage(e));
+            result.setMemoryLimitExceeded(ExecutionErrorMessages.isMemoryLimitExceeded(e));
+            result.setError(ExecutionErrorMessages.describe(e));
         }
 
+        usage.applyTo(result);
         return result;
     }
-
-    /**
-     * Finds the method in the class that matches the method name and parameter types.
-     */
-    private Method findMethod(Class<?> clazz, String methodName, Class<?>[] parameterTypes) throws NoSuchMethodException {
-        try {
-            // Try exact match first
-            return clazz.getDeclaredMethod(methodName, parameterTypes);
-        } catch (NoSuchMethodException e) {
-            // If exact match fails, try to find by name and parameter count
-            for (Method method : clazz.getDeclaredMethods()) {
-                if (method.getName().equals(methodName) && method.getParameterCount() == parameterTypes.length) {
-                    return method;
-                }
-            }
-            throw new NoSuchMethodException("Method " + methodName + " not found with " + parameterTypes.length + " parameters");
-        }
-    }
-
-    /**
-     * Builds an error message from an exception with proper cause chain handling.
-     */
-    private String buildErrorMessage(Exception e) {
-        Throwable cause = e.getCause();
-        if (cause != null) {
-            String errorMsg = cause.getClass().getSimpleName();
-            if (cause.getMessage() != null && !cause.getMessage().isEmpty()) {
-                errorMsg += ": " + cause.getMessage();
-            }
-
-            // Get the root cause if there's a chain
-            Throwable rootCause = cause;
-            while (rootCause.getCause() != null && rootCause.getCause() != rootCause) {
-                rootCause = rootCause.getCause();
-            }
-            if (rootCause != cause) {
-                if (rootCause.getMessage() != null && !rootCause.getMessage().isEmpty()) {
-                    errorMsg += " (Caused by: " + rootCause.getClass().getSimpleName() + ": " + rootCause.getMessage() + ")";
-                } else {
-                    errorMsg += " (Caused by: " + rootCause.getClass().getSimpleName() + ")";
-                }
-            }
-            return errorMsg;
-        }
-
-        String errorMsg = e.getClass().getSimpleName();
-        if (e.getMessage() != null && !e.getMessage().isEmpty()) {
-            errorMsg += ": " + e.getMessage();
-        }
-        return errorMsg;
-    }
 }
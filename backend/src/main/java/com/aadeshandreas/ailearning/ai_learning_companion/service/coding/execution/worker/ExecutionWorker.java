@@ -0,0 +1,196 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parent-side handle of one execution worker process.
+ * <p>
+ * A daemon thread copies the worker's stdout into a queue, so the thread running a job can wait
+ * for the response in short slices and check the process's CPU time and wall-clock deadline in
+ * between. A worker is used by one job at a time.
+ */
+class ExecutionWorker {
+
+    // The JVM exits with this code when -XX:+ExitOnOutOfMemoryError triggers
+    private static final int OUT_OF_MEMORY_EXIT_CODE = 3;
+    private static final long POLL_MS = 100;
+
+    // Identity sentinel queued when the worker's stdout closes
+    private static final String END_OF_STREAM = new String("");
+
+    private final Process process;
+    private final BufferedWriter input;
+    private final BlockingQueue<String> output = new LinkedBlockingQueue<>();
+    private final ObjectMapper objectMapper;
+    private int jobs;
+
+    private ExecutionWorker(Process process, ObjectMapper objectMapper) {
+        this.process = process;
+        this.objectMapper = objectMapper;
+        this.input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+        Thread reader = new Thread(this::readOutput, "execution-worker-" + process.pid() + "-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Starts a worker process and waits until it reports that it is ready.
+     *
+     * @param command The command line launching {@link ExecutionWorkerMain}
+     * @param objectMapper Mapper used for the JSON lines protocol
+     * @param startupTimeoutMs How long to wait for the worker to become ready
+     * @return The ready worker
+     * @throws IOException if the process cannot be started or does not become ready in time
+     */
+    static ExecutionWorker start(List<String> command, ObjectMapper objectMapper, long startupTimeoutMs)
+            throws IOException {
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        ExecutionWorker worker = new ExecutionWorker(process, objectMapper);
+
+        try {
+            String ready = worker.output.poll(startupTimeoutMs, TimeUnit.MILLISECONDS);
+            if (ready == null || ready == END_OF_STREAM) {
+                worker.destroy();
+                throw new IOException("Execution worker did not become ready within " + startupTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            worker.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while starting execution worker");
+        }
+        return worker;
+    }
+
+    /**
+     * Sends a job to the worker and waits for its response. If the worker exceeds a limit it is
+     * killed; either way a {@link WorkerFailure} means this worker must not be reused.
+     *
+     * @param request The job to run
+     * @param wallTimeoutMs Maximum wall-clock time for the job
+     * @param cpuTimeLimitMs Maximum CPU time the worker process may consume during the job
+     * @return The worker's response
+     * @throws WorkerFailure if the worker crashed, was killed, or broke the protocol
+     */
+    WorkerResponse run(WorkerRequest request, long wallTimeoutMs, long cpuTimeLimitMs) throws WorkerFailure {
+        jobs++;
+        Duration cpuAtStart = cpuTime();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wallTimeoutMs);
+
+        try {
+            input.write(objectMapper.writeValueAsString(request));
+            input.newLine();
+            input.flush();
+
+            while (true) {
+                String line = output.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (line == END_OF_STREAM) {
+                    throw exitFailure();
+                }
+                if (line != null) {
+                    // The JVM itself prints some diagnostics to stdout, e.g. when exiting on OutOfMemoryError
+                    if (!line.startsWith("{")) {
+                        continue;
+                    }
+                    WorkerResponse response = objectMapper.readValue(line, WorkerResponse.class);
+                    if (response.id() == request.id()) {
+                        return response;
+                    }
+                    continue;
+                }
+
+                Duration cpuNow = cpuTime();
+                if (cpuAtStart != null && cpuNow != null && cpuNow.minus(cpuAtStart).toMillis() > cpuTimeLimitMs) {
+                    destroy();
+                    throw new WorkerFailure("Time Limit Exceeded (CPU time limit of " + cpuTimeLimitMs + " ms)");
+                }
+                if (System.nanoTime() > deadline) {
+                    destroy();
+                    throw new WorkerFailure("Time Limit Exceeded (" + wallTimeoutMs + " ms for all test cases)");
+                }
+            }
+        } catch (IOException e) {
+            destroy();
+            throw new WorkerFailure("Execution worker failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            destroy();
+            Thread.currentThread().interrupt();
+            throw new WorkerFailure("Interrupted while waiting for execution worker");
+        }
+    }
+
+    /**
+     * Returns the number of jobs this worker has been given.
+     */
+    int getJobs() {
+        return jobs;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    void destroy() {
+        process.destroyForcibly();
+    }
+
+    private Duration cpuTime() {
+        return process.toHandle().info().totalCpuDuration().orElse(null);
+    }
+
+    private WorkerFailure exitFailure() throws InterruptedException {
+        int exitCode = process.waitFor();
+        if (exitCode == OUT_OF_MEMORY_EXIT_CODE) {
+            return new WorkerFailure("Memory Limit Exceeded (execution worker ran out of heap)", true);
+        }
+        return new WorkerFailure("Execution worker crashed (exit code " + exitCode + ")");
+    }
+
+    private void readOutput() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+            }
+        } catch (IOException e) {
+            // The process is gone; treated the same as end of stream
+        } finally {
+            output.add(END_OF_STREAM);
+        }
+    }
+
+    /**
+     * Signals that a job could not be completed and the worker has been or must be discarded.
+     */
+    static class WorkerFailure extends Exception {
+        private final boolean memoryLimitExceeded;
+
+        WorkerFailure(String message) {
+            this(message, false);
+        }
+
+        WorkerFailure(String message, boolean memoryLimitExceeded) {
+            super(message);
+            this.memoryLimitExceeded = memoryLimitExceeded;
+        }
+
+        boolean isMemoryLimitExceeded() {
+            return memoryLimitExceeded;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.worker;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.BenchmarkResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.benchmark.BenchmarkSettings;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.benchmark.SolutionBenchmark;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.comparison.DefaultOutputComparator;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.comparison.OutputComparator;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.InMemoryClassLoader;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.CodeExecutionPool;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.DefaultTestCaseExecutor;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ResourceUsage;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.TestSuiteRunner;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.harness.HarnessTestRunner;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy.CounterSimulationSettings;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.strategy.ExecutionStrategyFactory;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.formatting.DefaultOutputFormatter;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.formatting.OutputFormatter;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.DefaultInputParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Entry point of an execution worker process started by {@link ExecutionWorkerPool}.
+ * <p>
+ * Reads one {@link WorkerRequest} per line from stdin, runs it with the same test runner and
+ * strategies as in-process execution, and writes one {@link WorkerResponse} per line to stdout.
+ * Benchmark requests are run with {@link SolutionBenchmark} instead of the test runner.
+ * Output printed by user code is discarded so it cannot corrupt the protocol stream. The first
+ * line written is an empty response with id 0, signalling that the worker is ready.
+ */
+public final class ExecutionWorkerMain {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DefaultInputParser inputParser = new DefaultInputParser();
+    private final CodeExecutionPool executionPool;
+    private final ExecutionStrategyFactory strategyFactory;
+    private final TestSuiteRunner testSuiteRunner;
+
+    private ExecutionWorkerMain(int poolSize, long instructionLimit, long testMemoryLimitMb,
+                                long submissionMemoryLimitMb, CounterSimulationSettings counterSimulation) {
+        OutputFormatter outputFormatter = new DefaultOutputFormatter();
+        OutputComparator outputComparator = new DefaultOutputComparator();
+
+        this.executionPool = new CodeExecutionPool(poolSize, 0, instructionLimit, testMemoryLimitMb);
+        this.strategyFactory = new ExecutionStrategyFactory(inputParser, outputFormatter, outputComparator,
+                counterSimulation.stress() ? "stress" : "single", counterSimulation.maxThreads(),
+                counterSimulation.repeats(), counterSimulation.timeBudgetMs());
+        this.testSuiteRunner = new TestSuiteRunner(
+                new DefaultTestCaseExecutor(strategyFactory, executionPool),
+                new HarnessTestRunner(executionPool, outputFormatter, outputComparator),
+                executionPool,
+                false,
+                1,
+                submissionMemoryLimitMb
+        );
+    }
+
+    public static void main(String[] args) throws IOException {
+        int poolSize = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        long instructionLimit = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long testMemoryLimitMb = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        long submissionMemoryLimitMb = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        CounterSimulationSettings counterSimulation = CounterSimulationSettings.of(
+                args.length > 4 ? args[4] : "single",
+                args.length > 5 ? Integer.parseInt(args[5]) : 256,
+                args.length > 6 ? Integer.parseInt(args[6]) : 10,
+                args.length > 7 ? Long.parseLong(args[7]) : 2000);
+
+        // This process runs one job at a time, so the JVM's peak thread count belongs to it
+        ResourceUsage.recordPeakThreads();
+
+        // Keep the real stdout for the protocol and silence anything user code prints
+        PrintStream protocolOut = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+
+        ExecutionWorkerMain worker = new ExecutionWorkerMain(poolSize, instructionLimit, testMemoryLimitMb,
+                submissionMemoryLimitMb, counterSimulation);
+        worker.write(protocolOut, worker.response(0, List.of(), null, null));
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            worker.write(protocolOut, worker.handle(worker.objectMapper.readValue(line, WorkerRequest.class)));
+        }
+
+        // The parent closed our stdin; pool threads are daemons, but abandoned user code may not be
+        Runtime.getRuntime().halt(0);
+    }
+
+    private WorkerResponse handle(WorkerRequest request) {
+        try {
+            ClassLoader classLoader = new InMemoryClassLoader(request.classBytes());
+            Class<?> compiledClass = classLoader.loadClass(request.className());
+            Class<?> harnessClass = request.harnessClassName() != null
+                    ? classLoader.loadClass(request.harnessClassName())
+                    : null;
+
+            CodingQuestion question = new CodingQuestion();
+            question.setMethodSignature(request.methodSignature());
+
+            if (request.benchmark() != null) {
+                return response(request.id(), null, benchmark(request.benchmark()).run(
+                        compiledClass, question, request.testCases()), null);
+            }
+            List<TestResult> results = testSuiteRunner.runAll(
+                    compiledClass, harnessClass, request.testCases(), question, request.maxFailures());
+            return response(request.id(), results, null, null);
+        } catch (Exception | LinkageError e) {
+            return response(request.id(), null, null,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private SolutionBenchmark benchmark(BenchmarkSettings settings) {
+        return new SolutionBenchmark(executionPool, inputParser, strategyFactory, settings.warmupIterations(),
+                settings.measurementIterations(), settings.iterationTimeMs(), settings.cpuBudgetMs());
+    }
+
+    private WorkerResponse response(long id, List<TestResult> results, BenchmarkResult benchmark, String error) {
+        return new WorkerResponse(id, results, benchmark, error, executionPool.getStats().abandonedTasks(),
+                ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private void write(PrintStream out, WorkerResponse response) throws IOException {
+        out.println(objectMapper.writeValueAsString(response));
+        out.flush();
+    }
+}
@@ -0,0 +1,344 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.worker;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.BenchmarkResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CodingQuestion;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.WorkerPoolStats;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.benchmark.BenchmarkSettings;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompiledCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of pre-started JVM processes that run submissions outside the application JVM.
+ * <p>
+ * Each worker runs {@link ExecutionWorkerMain} with its own heap limit and receives compiled class
+ * bytes and test cases as JSON lines over its stdin. A job that exceeds its CPU-time or wall-clock
+ * budget, or runs the worker out of memory, kills that worker and fails the job. Workers are also
+ * recycled after a fixed number of jobs, when timed-out user code is still running inside them, or
+ * when they hold too many threads. Replacements are started in the background.
+ * <p>
+ * Workers are pre-started when the application is ready if {@code coding.execution.mode} is
+ * {@code worker}; otherwise they are only started on first use.
+ */
+@Component
+public class ExecutionWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionWorkerPool.class);
+
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+    private static final long STARTUP_TIMEOUT_MS = 30_000;
+    private static final long ACQUIRE_TIMEOUT_MS = 10_000;
+    private static final long WALL_TIME_PER_TEST_MS = 2_500;
+    private static final long WALL_TIME_SLACK_MS = 5_000;
+
+    private final ObjectMapper objectMapper;
+    private final boolean preStart;
+    private final int size;
+    private final int heapMb;
+    private final long cpuTimeLimitMs;
+    private final int maxJobsPerWorker;
+    private final int maxThreadsPerWorker;
+    private final int threadsPerWorker;
+    private final long instructionLimit;
+    private final long testMemoryLimitMb;
+    private final long submissionMemoryLimitMb;
+    private final String counterSimulationMode;
+    private final int counterSimulationMaxThreads;
+    private final int counterSimulationRepeats;
+    private final long counterSimulationTimeBudgetMs;
+
+    private final BlockingQueue<ExecutionWorker> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final AtomicLong requestIds = new AtomicLong();
+    private final AtomicLong completedJobs = new AtomicLong();
+    private final AtomicLong recycledWorkers = new AtomicLong();
+    private final AtomicLong killedWorkers = new AtomicLong();
+    private volatile boolean shutDown;
+
+    public ExecutionWorkerPool(
+            ObjectMapper objectMapper,
+            @Value("${coding.execution.mode:in-process}") String executionMode,
+            @Value("${coding.execution.worker.count:2}") int size,
+            @Value("${coding.execution.worker.heap-mb:256}") int heapMb,
+            @Value("${coding.execution.worker.cpu-time-ms:10000}") long cpuTimeLimitMs,
+            @Value("${coding.execution.worker.max-jobs:200}") int maxJobsPerWorker,
+            @Value("${coding.execution.worker.max-threads:64}") int maxThreadsPerWorker,
+            @Value("${coding.execution.worker.threads:2}") int threadsPerWorker,
+            @Value("${coding.execution.instruction-budget.limit:100000000}") long instructionLimit,
+            @Value("${coding.execution.memory.test-limit-mb:512}") long testMemoryLimitMb,
+            @Value("${coding.execution.memory.submission-limit-mb:2048}") long submissionMemoryLimitMb,
+            @Value("${coding.execution.counter-simulation.mode:single}") String counterSimulationMode,
+            @Value("${coding.execution.counter-simulation.max-threads:256}") int counterSimulationMaxThreads,
+            @Value("${coding.execution.counter-simulation.repeats:10}") int counterSimulationRepeats,
+            @Value("${coding.execution.counter-simulation.time-budget-ms:2000}") long counterSimulationTimeBudgetMs
+    ) {
+        this.objectMapper = objectMapper;
+        this.preStart = "worker".equalsIgnoreCase(executionMode);
+        this.size = Math.max(1, size);
+        this.heapMb = heapMb;
+        this.cpuTimeLimitMs = cpuTimeLimitMs;
+        this.maxJobsPerWorker = maxJobsPerWorker;
+        this.maxThreadsPerWorker = maxThreadsPerWorker;
+        this.threadsPerWorker = threadsPerWorker;
+        this.instructionLimit = instructionLimit;
+        this.testMemoryLimitMb = testMemoryLimitMb;
+        this.submissionMemoryLimitMb = submissionMemoryLimitMb;
+        this.counterSimulationMode = counterSimulationMode;
+        this.counterSimulationMaxThreads = counterSimulationMaxThreads;
+        this.counterSimulationRepeats = counterSimulationRepeats;
+        this.counterSimulationTimeBudgetMs = counterSimulationTimeBudgetMs;
+    }
+
+    /**
+     * Starts the configured number of workers in the background once the application is ready,
+     * so the first submissions do not pay for JVM startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preStartInBackground() {
+        if (preStart) {
+            startInBackground("execution-worker-prestart");
+        }
+    }
+
+    /**
+     * Runs a compiled submission on a worker process.
+     *
+     * @param compiled The bytecode of the submission
+     * @param harnessClassName The binary name of a generated harness compiled with it, or null
+     * @param question The coding question containing the method signature
+     * @param testCases The test cases to run
+     * @param maxFailures Number of failed tests after which the run stops; 0 runs every test
+     * @return One result per test case, in order; every test fails with the same error if the
+     * worker had to be killed
+     * @throws IllegalStateException if the worker could not load or run the submission
+     */
+    public List<TestResult> execute(CompiledCode compiled, String harnessClassName, CodingQuestion question,
+                                    List<TestCase> testCases, int maxFailures) {
+        ExecutionWorker worker = acquire();
+        if (worker == null) {
+            return failAll(testCases, "Server busy: too many submissions are running, please try again", false);
+        }
+
+        WorkerRequest request = new WorkerRequest(requestIds.incrementAndGet(), compiled.className(),
+                compiled.classBytes(), harnessClassName, question.getMethodSignature(), testCases, maxFailures, null);
+        // A counter simulation may use its whole time budget, which can exceed the usual allowance per test
+        long wallTimeoutMs = testCases.size() * Math.max(WALL_TIME_PER_TEST_MS, counterSimulationTimeBudgetMs)
+                + WALL_TIME_SLACK_MS;
+
+        WorkerResponse response;
+        try {
+            response = worker.run(request, wallTimeoutMs, cpuTimeLimitMs);
+        } catch (ExecutionWorker.WorkerFailure e) {
+            killedWorkers.incrementAndGet();
+            retire(worker);
+            return failAll(testCases, e.getMessage(), e.isMemoryLimitExceeded());
+        }
+
+        completedJobs.incrementAndGet();
+        release(worker, response);
+        if (response.error() != null) {
+            throw new IllegalStateException(response.error());
+        }
+        return response.results();
+    }
+
+    /**
+     * Benchmarks a compiled submission on a worker process, so the measurement neither competes with
+     * nor inherits JIT state from the application JVM.
+     *
+     * @param compiled The bytecode of the submission
+     * @param question The coding question containing the method signature
+     * @param testCases The test cases whose inputs are used
+     * @param settings Iteration counts and budgets of the benchmark
+     * @return The benchmark result; only its error is set if the worker could not run it
+     */
+    public BenchmarkResult benchmark(CompiledCode compiled, CodingQuestion question, List<TestCase> testCases,
+                                     BenchmarkSettings settings) {
+        ExecutionWorker worker = acquire();
+        if (worker == null) {
+            return BenchmarkResult.failed("Server busy: too many submissions are running, please try again");
+        }
+
+        WorkerRequest request = new WorkerRequest(requestIds.incrementAndGet(), compiled.className(),
+                compiled.classBytes(), null, question.getMethodSignature(), testCases, 0, settings);
+        long wallTimeoutMs = (settings.warmupIterations() + settings.measurementIterations()) * settings.iterationTimeMs()
+                + settings.cpuBudgetMs() + WALL_TIME_SLACK_MS;
+
+        WorkerResponse response;
+        try {
+            response = worker.run(request, wallTimeoutMs, cpuTimeLimitMs);
+        } catch (ExecutionWorker.WorkerFailure e) {
+            killedWorkers.incrementAndGet();
+            retire(worker);
+            return BenchmarkResult.failed(e.getMessage());
+        }
+
+        completedJobs.incrementAndGet();
+        release(worker, response);
+        return response.error() != null ? BenchmarkResult.failed(response.error()) : response.benchmark();
+    }
+
+    /**
+     * Returns a snapshot of the pool's counters.
+     */
+    public WorkerPoolStats getStats() {
+        return new WorkerPoolStats(workers.get(), idle.size(), completedJobs.get(),
+                recycledWorkers.get(), killedWorkers.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shutDown = true;
+        ExecutionWorker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.destroy();
+        }
+    }
+
+    private ExecutionWorker acquire() {
+        try {
+            while (true) {
+                ExecutionWorker worker = idle.poll();
+                if (worker == null) {
+                    worker = reserveSlot() ? startReserved() : idle.poll(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                }
+                if (worker == null) {
+                    return null;
+                }
+                if (worker.isAlive()) {
+                    return worker;
+                }
+                // Died while idle, e.g. killed by the operating system
+                killedWorkers.incrementAndGet();
+                retire(worker);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void release(ExecutionWorker worker, WorkerResponse response) {
+        boolean worn = worker.getJobs() >= maxJobsPerWorker
+                || response.abandonedTasks() > 0
+                || response.threadCount() > maxThreadsPerWorker;
+        if (shutDown || worn) {
+            recycledWorkers.incrementAndGet();
+            retire(worker);
+        } else {
+            idle.offer(worker);
+        }
+    }
+
+    /**
+     * Destroys a worker and starts a replacement in the background.
+     */
+    private void retire(ExecutionWorker worker) {
+        worker.destroy();
+        workers.decrementAndGet();
+        if (!shutDown) {
+            startInBackground("execution-worker-replace");
+        }
+    }
+
+    private void startInBackground(String threadName) {
+        Thread starter = new Thread(() -> {
+            while (!shutDown && reserveSlot()) {
+                ExecutionWorker worker = startReserved();
+                if (worker == null) {
+                    return;
+                }
+                idle.offer(worker);
+            }
+        }, threadName);
+        starter.setDaemon(true);
+        starter.start();
+    }
+
+    private boolean reserveSlot() {
+        if (workers.incrementAndGet() <= size) {
+            return true;
+        }
+        workers.decrementAndGet();
+        return false;
+    }
+
+    /**
+     * Starts a worker in a slot already reserved with {@link #reserveSlot()}, freeing the slot on failure.
+     */
+    private ExecutionWorker startReserved() {
+        try {
+            return ExecutionWorker.start(buildCommand(), objectMapper, STARTUP_TIMEOUT_MS);
+        } catch (IOException e) {
+            workers.decrementAndGet();
+            logger.warn("Failed to start execution worker: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> buildCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + heapMb + "m");
+        command.add("-XX:MaxMetaspaceSize=128m");
+        command.add("-XX:+ExitOnOutOfMemoryError");
+        command.add("-XX:+UseSerialGC");
+        if ("stress".equalsIgnoreCase(counterSimulationMode)) {
+            // Counter stress runs use virtual threads, a preview API in Java 19
+            command.add("--enable-preview");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+
+        // Inside an executable jar, application classes are only reachable through Boot's launcher
+        String codeSource = String.valueOf(
+                ExecutionWorkerMain.class.getProtectionDomain().getCodeSource().getLocation());
+        if (codeSource.contains("BOOT-INF")) {
+            command.add("-Dloader.main=" + ExecutionWorkerMain.class.getName());
+            command.add(PROPERTIES_LAUNCHER);
+        } else {
+            command.add(ExecutionWorkerMain.class.getName());
+        }
+
+        command.add(String.valueOf(threadsPerWorker));
+        command.add(String.valueOf(instructionLimit));
+        command.add(String.valueOf(testMemoryLimitMb));
+        command.add(String.valueOf(submissionMemoryLimitMb));
+        command.add(counterSimulationMode);
+        command.add(String.valueOf(counterSimulationMaxThreads));
+        command.add(String.valueOf(counterSimulationRepeats));
+        command.add(String.valueOf(counterSimulationTimeBudgetMs));
+        return command;
+    }
+
+    private static List<TestResult> failAll(List<TestCase> testCases, String error, boolean memoryLimitExceeded) {
+        List<TestResult> results = new ArrayList<>();
+        for (TestCase testCase : testCases) {
+            TestResult result = TestResult.error(testCase.getId(), testCase.getInput(), error);
+            result.setMemoryLimitExceeded(memoryLimitExceeded);
+            // A busy pool or a killed worker says nothing about the code itself
+            result.setTransientFailure(true);
+            result.setExpectedOutput(testCase.getExpectedOutput());
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,32 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.worker;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestCase;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.benchmark.BenchmarkSettings;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A job sent to an execution worker process, serialized as a single line of JSON.
+ *
+ * @param id Identifier echoed back in the matching {@link WorkerResponse}
+ * @param className The binary name of the submission's entry class
+ * @param classBytes Bytecode for every class of the submission, keyed by binary name
+ * @param harnessClassName The binary name of the generated test harness, or null if there is none
+ * @param methodSignature The method signature from the coding question
+ * @param testCases The test cases to run, in order
+ * @param maxFailures Number of failed tests after which the run stops; 0 runs every test
+ * @param benchmark Settings for benchmarking the solution on the test inputs instead of running
+ *                  the tests, or null
+ */
+public record WorkerRequest(
+        long id,
+        String className,
+        Map<String, byte[]> classBytes,
+        String harnessClassName,
+        String methodSignature,
+        List<TestCase> testCases,
+        int maxFailures,
+        BenchmarkSettings benchmark
+) {
+}
@@ -0,0 +1,26 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.worker;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.BenchmarkResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+
+import java.util.List;
+
+/**
+ * The outcome of a {@link WorkerRequest}, serialized as a single line of JSON.
+ *
+ * @param id The identifier of the request this response answers
+ * @param results One result per test case, or null if the submission could not be run or was benchmarked
+ * @param benchmark The benchmark result of a benchmark job, otherwise null
+ * @param error Why the submission could not be run, or null on success
+ * @param abandonedTasks Number of timed-out tasks the worker could not stop, since it started
+ * @param threadCount Number of live threads in the worker after the job
+ */
+public record WorkerResponse(
+        long id,
+        List<TestResult> results,
+        BenchmarkResult benchmark,
+        String error,
+        long abandonedTasks,
+        int threadCount
+) {
+}
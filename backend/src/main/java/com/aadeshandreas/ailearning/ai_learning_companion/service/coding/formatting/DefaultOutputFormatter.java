@@ -1,5 +1,6 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.formatting;
 
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.util.LinkedStructures;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
@@ -63,6 +64,14 @@ public class DefaultOutputFormatter implements OutputFormatter {
             }
         }
 
+        // Handle linked lists and trees - print in the same format their inputs use
+        if (LinkedStructures.isListNode(result.getClass())) {
+            return LinkedStructures.listValues(result).toString();
+        }
+        if (LinkedStructures.isTreeNode(result.getClass())) {
+            return LinkedStructures.treeValues(result).toString();
+        }
+
         return String.valueOf(result);
     }
 }
@@ -0,0 +1,119 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation;
+
+import java.util.Random;
+
+/**
+ * Per-test operation budget checked by instrumented submissions.
+ * <p>
+ * {@link InstructionBudgetInstrumenter} inserts a call to {@link #tick()} at every method entry and
+ * loop back-edge of user code. Each tick consumes one unit of the budget installed on the current
+ * thread; when the budget is exhausted, or when the test was cancelled, the tick throws
+ * {@link InstructionBudgetExceededError}, so even a tight {@code while (true)} stops and hands its
+ * thread back to the pool. Code is stopped after exactly the same number of operations on every
+ * run, however loaded the machine is.
+ * <p>
+ * Budgets are installed on pool threads only. Threads started by user code run unbudgeted, since
+ * an inherited budget could outlive its test on a shared thread such as the common fork-join pool.
+ * <p>
+ * The instrumenter also inserts a {@link #yieldPoint()} before every field write. It does nothing
+ * unless yields were injected into the current thread's budget, which concurrency tests use to
+ * interleave threads between a read and the write that depends on it.
+ */
+public final class InstructionBudget {
+
+    private static final ThreadLocal<InstructionBudget> CURRENT = new ThreadLocal<>();
+
+    private final long limit;
+    private long remaining;
+    private volatile boolean expired;
+    private double yieldProbability;
+    private Random yieldRandom;
+
+    private InstructionBudget(long limit) {
+        this.limit = limit;
+        this.remaining = limit > 0 ? limit : Long.MAX_VALUE;
+    }
+
+    /**
+     * Installs a fresh budget on the current thread.
+     *
+     * @param limit Number of operations allowed; 0 or less only enables cancellation
+     * @return The installed budget, which another thread may {@link #expire()}
+     */
+    public static InstructionBudget begin(long limit) {
+        InstructionBudget budget = new InstructionBudget(limit);
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    /**
+     * Refills the current thread's budget, e.g. before the next test case of the same task.
+     */
+    public static void restart() {
+        InstructionBudget budget = CURRENT.get();
+        if (budget != null) {
+            budget.remaining = budget.limit > 0 ? budget.limit : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Removes the current thread's budget.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns whether the current thread's budget has been expired, i.e. its task was cancelled.
+     */
+    public static boolean isExpired() {
+        InstructionBudget budget = CURRENT.get();
+        return budget != null && budget.expired;
+    }
+
+    /**
+     * Called by instrumented code; consumes one operation from the current thread's budget.
+     *
+     * @throws InstructionBudgetExceededError if the budget is exhausted or has expired
+     */
+    public static void tick() {
+        InstructionBudget budget = CURRENT.get();
+        if (budget != null && (--budget.remaining < 0 || budget.expired)) {
+            throw new InstructionBudgetExceededError(budget.expired
+                    ? "Execution cancelled"
+                    : "Time Limit Exceeded (more than " + budget.limit + " operations)");
+        }
+    }
+
+    /**
+     * Makes yield points on the current thread give up the processor with the given probability.
+     *
+     * @param probability Chance of yielding at each yield point; 0 or less disables yielding
+     * @param seed Seed of the random choices, so a run can be reproduced
+     */
+    public static void injectYields(double probability, long seed) {
+        InstructionBudget budget = CURRENT.get();
+        if (budget != null) {
+            budget.yieldProbability = probability;
+            budget.yieldRandom = new Random(seed);
+        }
+    }
+
+    /**
+     * Called by instrumented code before each field write; yields if the current thread injects yields.
+     */
+    public static void yieldPoint() {
+        InstructionBudget budget = CURRENT.get();
+        if (budget != null && budget.yieldProbability > 0
+                && budget.yieldRandom.nextDouble() < budget.yieldProbability) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Makes every further check against this budget fail, from any thread.
+     */
+    public void expire() {
+        expired = true;
+    }
+}
@@ -0,0 +1,14 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation;
+
+/**
+ * Thrown inside user code when its instruction budget runs out or its execution is cancelled.
+ * <p>
+ * This is an {@link Error} so that ordinary {@code catch (Exception e)} blocks in submissions do
+ * not swallow it; code that catches it anyway hits it again at its next budget check.
+ */
+public class InstructionBudgetExceededError extends Error {
+
+    public InstructionBudgetExceededError(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,203 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.instrumentation;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompiledCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Handle;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rewrites compiled submissions so they check an {@link InstructionBudget} as they run.
+ * <p>
+ * A call to {@link InstructionBudget#tick()} is inserted at the start of every method and before
+ * every backward jump, which covers all loops and, through method entries, all recursion. A call
+ * to {@link InstructionBudget#yieldPoint()} is inserted before every field write. The inserted
+ * calls take no operands and leave the operand stack untouched, so existing stack map frames stay
+ * valid. Submissions that reference the application's own classes are rejected, so
+ * user code cannot refill or remove its budget.
+ * <p>
+ * Instrumentation is turned on by {@code coding.execution.instruction-budget.enabled}, and always
+ * in counter simulation stress mode: its injected yields and the cancellation of simulated threads
+ * only take effect at the inserted calls.
+ */
+@Component
+public class InstructionBudgetInstrumenter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstructionBudgetInstrumenter.class);
+
+    private static final String APPLICATION_PACKAGE = "com/aadeshandreas/ailearning/";
+    private static final String BUDGET_OWNER = Type.getInternalName(InstructionBudget.class);
+
+    private final boolean enabled;
+
+    public InstructionBudgetInstrumenter(
+            @Value("${coding.execution.instruction-budget.enabled:false}") boolean enabled,
+            @Value("${coding.execution.counter-simulation.mode:single}") String counterSimulationMode
+    ) {
+        boolean stress = "stress".equalsIgnoreCase(counterSimulationMode);
+        if (stress && !enabled) {
+            logger.info("Counter simulation stress mode injects yields through instrumentation; "
+                    + "instrumenting submissions with the instruction budget");
+        }
+        this.enabled = enabled || stress;
+    }
+
+    /**
+     * Returns whether compiled submissions should be instrumented.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inserts budget checks into every class of a compilation.
+     *
+     * @param compiled The bytecode produced by javac
+     * @return The instrumented bytecode
+     * @throws SecurityException if the submission references application classes
+     */
+    public CompiledCode instrument(CompiledCode compiled) {
+        Map<String, byte[]> instrumented = new HashMap<>();
+        for (Map.Entry<String, byte[]> entry : compiled.classBytes().entrySet()) {
+            instrumented.put(entry.getKey(), instrumentClass(entry.getValue()));
+        }
+        return new CompiledCode(compiled.className(), instrumented);
+    }
+
+    private static byte[] instrumentClass(byte[] classBytes) {
+        ClassReader reader = new ClassReader(classBytes);
+        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        reader.accept(new ClassVisitor(Opcodes.ASM9, writer) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                return new BudgetMethodVisitor(super.visitMethod(access, name, descriptor, signature, exceptions));
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Inserts ticks at method entry and before backward jumps, and checks referenced owners.
+     */
+    private static class BudgetMethodVisitor extends MethodVisitor {
+        private final Set<Label> visitedLabels = new HashSet<>();
+
+        BudgetMethodVisitor(MethodVisitor methodVisitor) {
+            super(Opcodes.ASM9, methodVisitor);
+        }
+
+        @Override
+        public void visitCode() {
+            super.visitCode();
+            tick();
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            visitedLabels.add(label);
+            super.visitLabel(label);
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            // Labels are visited in code order, so a known label means a backward jump
+            if (visitedLabels.contains(label)) {
+                tick();
+            }
+            super.visitJumpInsn(opcode, label);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label defaultLabel, Label... labels) {
+            if (jumpsBack(defaultLabel, labels)) {
+                tick();
+            }
+            super.visitTableSwitchInsn(min, max, defaultLabel, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label defaultLabel, int[] keys, Label[] labels) {
+            if (jumpsBack(defaultLabel, labels)) {
+                tick();
+            }
+            super.visitLookupSwitchInsn(defaultLabel, keys, labels);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            checkOwner(owner);
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            checkOwner(owner);
+            if (opcode == Opcodes.PUTFIELD || opcode == Opcodes.PUTSTATIC) {
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, BUDGET_OWNER, "yieldPoint", "()V", false);
+            }
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            checkOwner(type);
+            super.visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            if (value instanceof Type type) {
+                checkOwner(type.getInternalName());
+            }
+            super.visitLdcInsn(value);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                           Object... bootstrapMethodArguments) {
+            for (Object argument : bootstrapMethodArguments) {
+                if (argument instanceof Handle handle) {
+                    checkOwner(handle.getOwner());
+                }
+            }
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        }
+
+        private boolean jumpsBack(Label defaultLabel, Label[] labels) {
+            if (visitedLabels.contains(defaultLabel)) {
+                return true;
+            }
+            for (Label label : labels) {
+                if (visitedLabels.contains(label)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void tick() {
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, BUDGET_OWNER, "tick", "()V", false);
+        }
+
+        private static void checkOwner(String owner) {
+            // Array types such as "[Lcom/...;" name their element type inside the descriptor
+            if (owner.startsWith(APPLICATION_PACKAGE) || owner.contains("L" + APPLICATION_PACKAGE)) {
+                throw new SecurityException("Forbidden API detected: " + owner.replace('/', '.'));
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.jobs;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ExecutionResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.JobState;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.JobStatus;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission.SubmissionRejectedException;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionListener;
+
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A submission running in the background, tracked so that its owner can poll for the result or cancel it.
+ * <p>
+ * The job is its own {@link ExecutionListener}: it counts finished tests for progress reports and
+ * stops the run from starting further tests once cancelled. A job cancelled while it is still
+ * waiting for an execution slot interrupts its waiting thread, which leaves the admission queue
+ * right away; a running job gives up its slot as soon as the test in progress ends.
+ */
+public class ExecutionJob implements ExecutionListener {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String sessionId;
+    private final CompletableFuture<ExecutionJob> done = new CompletableFuture<>();
+    private final AtomicInteger completedTests = new AtomicInteger();
+
+    // Guarded by this
+    private JobState state = JobState.QUEUED;
+    private Thread waitingThread;
+    private ExecutionResult result;
+    private String error;
+    private Long retryAfterSeconds;
+    private long finishedAt;
+
+    private volatile boolean cancelled;
+    private volatile int totalTests;
+
+    public ExecutionJob(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Records the thread that is about to wait for an execution slot, so that cancelling can interrupt it.
+     */
+    public synchronized void waiting(Thread thread) {
+        waitingThread = thread;
+    }
+
+    /**
+     * Marks the job as running once it holds an execution slot.
+     *
+     * @throws CancellationException if the job was cancelled before it started
+     */
+    public synchronized void started() {
+        waitingThread = null;
+        // Clears an interrupt from a cancellation that arrived just as the slot was granted
+        Thread.interrupted();
+        if (cancelled) {
+            throw new CancellationException("Job was cancelled");
+        }
+        state = JobState.RUNNING;
+    }
+
+    /**
+     * Cancels the job. Has no effect once the job has finished.
+     */
+    public synchronized void cancel() {
+        if (isFinished()) {
+            return;
+        }
+        cancelled = true;
+        if (waitingThread != null) {
+            waitingThread.interrupt();
+            waitingThread = null;
+        }
+    }
+
+    /**
+     * Records the outcome of the job's run, either its result or the exception it failed with.
+     */
+    public void finish(ExecutionResult result, Throwable failure) {
+        synchronized (this) {
+            if (isFinished()) {
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            this.result = result;
+            if (cancelled) {
+                state = JobState.CANCELLED;
+            } else if (cause != null) {
+                state = JobState.FAILED;
+                error = cause.getMessage();
+                if (cause instanceof SubmissionRejectedException rejected) {
+                    retryAfterSeconds = rejected.getRetryAfterSeconds();
+                }
+            } else {
+                state = JobState.COMPLETED;
+            }
+            waitingThread = null;
+            finishedAt = System.nanoTime();
+        }
+        done.complete(this);
+    }
+
+    /**
+     * Returns a future completed with this job once it has finished, or after the given wait,
+     * whichever comes first.
+     */
+    public CompletableFuture<ExecutionJob> awaitFinished(long waitMs) {
+        if (waitMs <= 0 || done.isDone()) {
+            return CompletableFuture.completedFuture(this);
+        }
+        return done.copy().completeOnTimeout(this, waitMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized boolean isFinished() {
+        return state == JobState.COMPLETED || state == JobState.FAILED || state == JobState.CANCELLED;
+    }
+
+    /**
+     * Returns when the job finished, in {@link System#nanoTime()} terms; only meaningful once finished.
+     */
+    synchronized long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Returns a snapshot of the job for the client.
+     */
+    public synchronized JobStatus toStatus() {
+        JobStatus status = new JobStatus();
+        status.setJobId(id);
+        status.setState(state);
+        status.setCompletedTests(completedTests.get());
+        status.setTotalTests(result != null ? result.getTotalTests() : totalTests);
+        status.setResult(result);
+        status.setError(error);
+        status.setRetryAfterSeconds(retryAfterSeconds);
+        return status;
+    }
+
+    @Override
+    public void onCompiled(int totalTests, long compilationTime) {
+        this.totalTests = totalTests;
+    }
+
+    @Override
+    public void onTestResult(int index, TestResult result) {
+        completedTests.incrementAndGet();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,96 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.jobs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-wide store of asynchronous execution jobs, looked up by job id and owning session.
+ * <p>
+ * A finished job is kept for {@code coding.jobs.ttl-seconds} so its owner can collect the result,
+ * then dropped whether or not anyone asked for it. The store holds at most
+ * {@code coding.jobs.max-entries} jobs; when it is full the oldest finished job is dropped early,
+ * and a new job is rejected if every stored job is still unfinished. Unfinished jobs are never
+ * dropped, since admission and execution time limits bound how long they can run.
+ */
+@Component
+public class ExecutionJobStore {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Insertion order, so the oldest jobs are checked for expiry first
+    private final LinkedHashMap<String, ExecutionJob> jobs = new LinkedHashMap<>();
+
+    public ExecutionJobStore(
+            @Value("${coding.jobs.max-entries:1000}") int maxEntries,
+            @Value("${coding.jobs.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Creates and stores a new job for a session.
+     *
+     * @throws RejectedExecutionException if the store is full of unfinished jobs
+     */
+    public synchronized ExecutionJob create(String sessionId) {
+        evictExpired();
+        if (jobs.size() >= maxEntries && !evictOldestFinished()) {
+            throw new RejectedExecutionException("Too many jobs are running");
+        }
+        ExecutionJob job = new ExecutionJob(sessionId);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    /**
+     * Returns a job if it exists, has not expired and belongs to the given session.
+     *
+     * @return The job, or null otherwise
+     */
+    public synchronized ExecutionJob get(String jobId, String sessionId) {
+        evictExpired();
+        ExecutionJob job = jobs.get(jobId);
+        return job != null && Objects.equals(job.getSessionId(), sessionId) ? job : null;
+    }
+
+    /**
+     * Drops a job, e.g. one that could not be started.
+     */
+    public synchronized void remove(String jobId) {
+        jobs.remove(jobId);
+    }
+
+    public synchronized int size() {
+        return jobs.size();
+    }
+
+    /**
+     * Drops finished jobs whose time to live has passed. Must be called with the lock held.
+     */
+    private void evictExpired() {
+        long now = System.nanoTime();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.getFinishedAt() > ttlNanos);
+    }
+
+    /**
+     * Drops the oldest finished job, if any. Must be called with the lock held.
+     */
+    private boolean evictOldestFinished() {
+        Iterator<ExecutionJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing;
 
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.util.LinkedStructures;
 import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.util.ParsingUtils;
 import org.springframework.stereotype.Component;
 
@@ -75,6 +76,14 @@ public class DefaultInputParser implements InputParser {
             return parseValueHeuristic(value);
         }
 
+        // Handle linked lists "[1,2,3]" and level-order trees "[1,2,null,3]" (before List, which "ListNode" contains)
+        if (LinkedStructures.isListNode(expectedType)) {
+            return LinkedStructures.buildList(expectedType, value);
+        }
+        if (LinkedStructures.isTreeNode(expectedType)) {
+            return LinkedStructures.buildTree(expectedType, value);
+        }
+
         // Handle array types (e.g., int[], String[])
         if (expectedType.isArray()) {
             return parseArrayValue(value, expectedType);
@@ -1,5 +1,7 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing;
 
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.SharedHelperClasses;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -12,6 +14,8 @@ public class MethodSignatureParser {
 
     private static final Pattern METHOD_NAME_PATTERN = Pattern.compile("\\s+(\\w+)\\s*\\(");
     private static final Pattern PARAMETERS_PATTERN = Pattern.compile("\\(([^)]*)\\)");
+    private static final Pattern STATIC_PATTERN = Pattern.compile("\\bstatic\\s[^(]*\\(");
+    private static final Pattern VOID_PATTERN = Pattern.compile("\\bvoid\\s+\\w+\\s*\\(");
 
     /**
      * Extracts method name from method signature.
@@ -25,40 +29,70 @@ public class MethodSignatureParser {
         return "solution"; // Default fallback
     }
 
+    /**
+     * Checks whether the signature declares a static method.
+     * Example: "public static boolean isValid(String s)" -> true
+     */
+    public static boolean isStatic(String signature) {
+        return STATIC_PATTERN.matcher(signature).find();
+    }
+
+    /**
+     * Checks whether the signature declares a method without a return value.
+     * Example: "public void push(int x)" -> true
+     */
+    public static boolean returnsVoid(String signature) {
+        return VOID_PATTERN.matcher(signature).find();
+    }
+
     /**
      * Extracts parameter types from method signature.
      * Example: "public static String foo(int a, long b)" -> [int.class, long.class]
      */
     public static Class<?>[] extractParameterTypes(String signature) {
+        List<Class<?>> types = new ArrayList<>();
+
+        for (String typeName : extractParameterTypeNames(signature)) {
+            Class<?> type = getClassForTypeName(typeName);
+            if (type != null) {
+                types.add(type);
+            }
+        }
+
+        return types.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * Extracts the declared parameter type names from method signature, including types that
+     * {@link #extractParameterTypes(String)} cannot resolve.
+     * Example: "public int foo(List<String> words, TreeNode root)" -> ["List<String>", "TreeNode"]
+     */
+    public static List<String> extractParameterTypeNames(String signature) {
         Matcher matcher = PARAMETERS_PATTERN.matcher(signature);
 
         if (!matcher.find()) {
-            return new Class<?>[0];
+            return List.of();
         }
 
         String paramList = matcher.group(1).trim();
         if (paramList.isEmpty()) {
-            return new Class<?>[0];
+            return List.of();
         }
 
         // Split parameters by comma (simple split - doesn't handle generic types perfectly)
         String[] params = paramList.split(",");
-        List<Class<?>> types = new ArrayList<>();
+        List<String> typeNames = new ArrayList<>();
 
         for (String param : params) {
             param = param.trim();
             // Extract just the type (first word before the parameter name)
             String[] parts = param.split("\\s+");
             if (parts.length > 0) {
-                String typeName = parts[0].trim();
-                Class<?> type = getClassForTypeName(typeName);
-                if (type != null) {
-                    types.add(type);
-                }
+                typeNames.add(parts[0].trim());
             }
         }
 
-        return types.toArray(new Class<?>[0]);
+        return typeNames;
     }
 
     /**
@@ -102,6 +136,11 @@ public class MethodSignatureParser {
             case "short[][]" -> short[][].class;
             case "String[][]" -> String[][].class;
             default -> {
+                // Shared helpers such as TreeNode, as submissions see them
+                Class<?> helper = SharedHelperClasses.load(typeName);
+                if (helper != null) {
+                    yield helper;
+                }
                 // Try to load the class by name
                 try {
                     yield Class.forName(typeName);
@@ -0,0 +1,257 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.parsing.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds and reads {@code ListNode} chains and level-order {@code TreeNode} trees, written like
+ * {@code [1, 2, 3]} and {@code [1, 2, null, 3]}.
+ * <p>
+ * The node class is passed in, so the shared helper classes and a submission's own declaration of
+ * the same name both work, as long as the class has a {@code val} field, {@code next} or
+ * {@code left}/{@code right} fields, and a constructor taking the value or no arguments. Field and
+ * constructor handles are resolved once per class, and both directions are iterative, so long
+ * chains and deep trees do not recurse.
+ */
+public class LinkedStructures {
+
+    private static final String LIST_NODE = "ListNode";
+    private static final String TREE_NODE = "TreeNode";
+
+    // Stops printing a structure that links back to itself
+    private static final int MAX_NODES = 1_000_000;
+
+    private static final ClassValue<NodeAccess> ACCESS = new ClassValue<>() {
+        @Override
+        protected NodeAccess computeValue(Class<?> type) {
+            return NodeAccess.resolve(type);
+        }
+    };
+
+    /**
+     * Checks whether the type is a linked list node.
+     */
+    public static boolean isListNode(Class<?> type) {
+        return type != null && type.getName().equals(LIST_NODE);
+    }
+
+    /**
+     * Checks whether the type is a binary tree node.
+     */
+    public static boolean isTreeNode(Class<?> type) {
+        return type != null && type.getName().equals(TREE_NODE);
+    }
+
+    /**
+     * Builds a chain of nodes from a value like "[1, 2, 3]"; "[]" is the empty list (null).
+     */
+    public static Object buildList(Class<?> type, String value) {
+        List<Integer> values = parseValues(value);
+        NodeAccess access = ACCESS.get(type);
+        Object head = null;
+        for (int i = values.size() - 1; i >= 0; i--) {
+            if (values.get(i) == null) {
+                throw new IllegalArgumentException("A linked list cannot contain null: " + value);
+            }
+            Object node = access.newNode(values.get(i));
+            access.setLink(node, 0, head);
+            head = node;
+        }
+        return head;
+    }
+
+    /**
+     * Builds a tree from its level order, like "[1, 2, null, 3]", where null marks a missing child;
+     * "[]" is the empty tree (null).
+     */
+    public static Object buildTree(Class<?> type, String value) {
+        List<Integer> values = parseValues(value);
+        if (values.isEmpty() || values.get(0) == null) {
+            return null;
+        }
+
+        NodeAccess access = ACCESS.get(type);
+        Object root = access.newNode(values.get(0));
+        ArrayDeque<Object> parents = new ArrayDeque<>();
+        parents.add(root);
+        int next = 1;
+        while (next < values.size()) {
+            Object parent = parents.poll();
+            if (parent == null) {
+                throw new IllegalArgumentException("Tree has more values than parents: " + value);
+            }
+            for (int side = 0; side < 2 && next < values.size(); side++, next++) {
+                Integer childValue = values.get(next);
+                if (childValue != null) {
+                    Object child = access.newNode(childValue);
+                    access.setLink(parent, side, child);
+                    parents.add(child);
+                }
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Returns the values of a chain of nodes in order.
+     */
+    public static List<Object> listValues(Object head) {
+        List<Object> values = new ArrayList<>();
+        if (head == null) {
+            return values;
+        }
+        NodeAccess access = ACCESS.get(head.getClass());
+        for (Object node = head; node != null; node = access.getLink(node, 0)) {
+            if (values.size() == MAX_NODES) {
+                throw new IllegalStateException("Linked list has more than " + MAX_NODES + " nodes or a cycle");
+            }
+            values.add(access.getValue(node));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the level order of a tree, with null for each missing child and no trailing nulls.
+     */
+    public static List<Object> treeValues(Object root) {
+        List<Object> values = new ArrayList<>();
+        if (root == null) {
+            return values;
+        }
+        NodeAccess access = ACCESS.get(root.getClass());
+        ArrayDeque<Object> queue = new ArrayDeque<>();
+        queue.add(root);
+        int nodes = 0;
+        int lastValue = 0;
+        while (!queue.isEmpty()) {
+            Object node = queue.poll();
+            if (node == NodeAccess.MISSING) {
+                values.add(null);
+                continue;
+            }
+            if (++nodes > MAX_NODES) {
+                throw new IllegalStateException("Tree has more than " + MAX_NODES + " nodes or a cycle");
+            }
+            values.add(access.getValue(node));
+            lastValue = values.size();
+            for (int side = 0; side < 2; side++) {
+                Object child = access.getLink(node, side);
+                queue.add(child != null ? child : NodeAccess.MISSING);
+            }
+        }
+        return values.subList(0, lastValue);
+    }
+
+    private static List<Integer> parseValues(String value) {
+        value = value.trim();
+        if (!value.startsWith("[") || !value.endsWith("]")) {
+            throw new IllegalArgumentException("Expected a bracketed list of values: " + value);
+        }
+        String content = value.substring(1, value.length() - 1).trim();
+        List<Integer> values = new ArrayList<>();
+        if (content.isEmpty()) {
+            return values;
+        }
+        for (String part : content.split(",")) {
+            part = part.trim();
+            values.add(part.equals("null") ? null : Integer.valueOf(part));
+        }
+        return values;
+    }
+
+    /**
+     * Handles for creating nodes of one class, reading their value, and reading and writing their links.
+     *
+     * @param constructor (Object)Object taking the value, or ()Object if the class has no such constructor
+     * @param valueSetter Sets the value after the no-arg constructor; null when the constructor takes the value
+     */
+    private record NodeAccess(MethodHandle constructor, MethodHandle valueSetter, MethodHandle valueGetter,
+                              MethodHandle[] linkGetters, MethodHandle[] linkSetters) {
+
+        // Placeholder for a missing child while walking a tree
+        static final Object MISSING = new Object();
+
+        private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+        private static final MethodType VALUE_CONSTRUCTOR = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType NO_ARG_CONSTRUCTOR = MethodType.methodType(Object.class);
+
+        static NodeAccess resolve(Class<?> type) {
+            String[] links = isTreeNode(type) ? new String[]{"left", "right"} : new String[]{"next"};
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                Field valueField = accessible(type.getDeclaredField("val"));
+                MethodHandle[] linkGetters = new MethodHandle[links.length];
+                MethodHandle[] linkSetters = new MethodHandle[links.length];
+                for (int i = 0; i < links.length; i++) {
+                    Field link = accessible(type.getDeclaredField(links[i]));
+                    linkGetters[i] = lookup.unreflectGetter(link).asType(GETTER);
+                    linkSetters[i] = lookup.unreflectSetter(link).asType(SETTER);
+                }
+
+                MethodHandle valueGetter = lookup.unreflectGetter(valueField).asType(GETTER);
+                try {
+                    Constructor<?> constructor = accessible(type.getDeclaredConstructor(valueField.getType()));
+                    return new NodeAccess(lookup.unreflectConstructor(constructor).asType(VALUE_CONSTRUCTOR), null,
+                            valueGetter, linkGetters, linkSetters);
+                } catch (NoSuchMethodException e) {
+                    Constructor<?> constructor = accessible(type.getDeclaredConstructor());
+                    return new NodeAccess(lookup.unreflectConstructor(constructor).asType(NO_ARG_CONSTRUCTOR),
+                            lookup.unreflectSetter(valueField).asType(SETTER), valueGetter, linkGetters, linkSetters);
+                }
+            } catch (NoSuchFieldException | NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException(type.getName() + " needs fields val, " + String.join(", ", links)
+                        + " and a constructor taking the value or no arguments: " + e.getMessage());
+            }
+        }
+
+        private static <T extends AccessibleObject> T accessible(T member) {
+            member.setAccessible(true);
+            return member;
+        }
+
+        Object newNode(int value) {
+            try {
+                if (valueSetter == null) {
+                    return (Object) constructor.invokeExact((Object) value);
+                }
+                Object node = (Object) constructor.invokeExact();
+                valueSetter.invokeExact(node, (Object) value);
+                return node;
+            } catch (Throwable t) {
+                throw new IllegalStateException("Could not create node: " + t.getMessage(), t);
+            }
+        }
+
+        Object getValue(Object node) {
+            try {
+                return (Object) valueGetter.invokeExact(node);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Could not read node: " + t.getMessage(), t);
+            }
+        }
+
+        Object getLink(Object node, int index) {
+            try {
+                return (Object) linkGetters[index].invokeExact(node);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Could not read node: " + t.getMessage(), t);
+            }
+        }
+
+        void setLink(Object node, int index, Object target) {
+            try {
+                linkSetters[index].invokeExact(node, target);
+            } catch (Throwable t) {
+                throw new IllegalStateException("Could not link node: " + t.getMessage(), t);
+            }
+        }
+    }
+}
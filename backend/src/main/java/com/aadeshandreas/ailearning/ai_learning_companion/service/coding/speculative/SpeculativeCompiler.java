@@ -0,0 +1,118 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.speculative;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CompileCheck;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompilationCancelledException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Compiles editor snapshots in the background while the student types, keeping only the latest
+ * snapshot of each session.
+ * <p>
+ * A snapshot is compiled once {@code coding.speculative-compile.debounce-ms} has passed without a
+ * newer one from the same session. A newer snapshot supersedes the previous one: if it has not
+ * started compiling it is dropped, and if it is compiling, javac is stopped at its next phase.
+ * Compiles run on a small dedicated pool so that they never hold up real submissions for long;
+ * their bytecode lands in the shared compile cache, where a later run of the same code finds it.
+ */
+@Component
+public class SpeculativeCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeculativeCompiler.class);
+
+    private final long debounceMs;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, Snapshot> latest = new ConcurrentHashMap<>();
+
+    public SpeculativeCompiler(
+            @Value("${coding.speculative-compile.debounce-ms:300}") long debounceMs,
+            @Value("${coding.speculative-compile.threads:1}") int threads
+    ) {
+        this.debounceMs = Math.max(0, debounceMs);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "speculative-compile-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Superseded snapshots leave the queue right away instead of at their scheduled time
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Schedules a compile of a session's latest snapshot, superseding any earlier one.
+     *
+     * @param sessionId The session the snapshot belongs to
+     * @param compile Compiles the snapshot; must not depend on request-scoped state
+     * @return A future completed with the compile outcome, or with a superseded check if a newer
+     *         snapshot arrived first
+     */
+    public CompletableFuture<CompileCheck> submit(String sessionId, SnapshotCompile compile) {
+        Snapshot snapshot = new Snapshot();
+        Snapshot previous = latest.put(sessionId, snapshot);
+        if (previous != null) {
+            previous.supersede();
+        }
+        snapshot.scheduled = executor.schedule(() -> compile(sessionId, snapshot, compile),
+                debounceMs, TimeUnit.MILLISECONDS);
+        return snapshot.result;
+    }
+
+    private void compile(String sessionId, Snapshot snapshot, SnapshotCompile compile) {
+        try {
+            if (snapshot.superseded) {
+                snapshot.result.complete(CompileCheck.superseded());
+                return;
+            }
+            snapshot.result.complete(compile.run(() -> snapshot.superseded));
+        } catch (CompilationCancelledException e) {
+            snapshot.result.complete(CompileCheck.superseded());
+        } catch (RuntimeException e) {
+            logger.warn("Speculative compile failed: {}", e.getMessage());
+            snapshot.result.completeExceptionally(e);
+        } finally {
+            latest.remove(sessionId, snapshot);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Compiles one snapshot, giving up once it is superseded.
+     */
+    @FunctionalInterface
+    public interface SnapshotCompile {
+        CompileCheck run(BooleanSupplier superseded) throws CompilationCancelledException;
+    }
+
+    private static class Snapshot {
+        private final CompletableFuture<CompileCheck> result = new CompletableFuture<>();
+        private volatile boolean superseded;
+        private volatile ScheduledFuture<?> scheduled;
+
+        /**
+         * Drops the snapshot if it is still waiting, or stops its compilation otherwise.
+         */
+        void supersede() {
+            superseded = true;
+            ScheduledFuture<?> pending = scheduled;
+            if (pending != null && pending.cancel(false)) {
+                result.complete(CompileCheck.superseded());
+            }
+        }
+    }
+}
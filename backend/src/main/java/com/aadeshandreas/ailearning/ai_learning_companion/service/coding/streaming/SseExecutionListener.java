@@ -0,0 +1,75 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.streaming;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.CompileStatus;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ExecutionResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.common.ApiResponse;
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.execution.ExecutionListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Pushes the progress of a code execution to the client as Server-Sent Events.
+ * <p>
+ * The stream carries a {@code compiled} event with a {@link CompileStatus}, then one
+ * {@code test-result} event per {@link TestResult} as each test completes, and ends with either a
+ * {@code result} event holding the final {@link ExecutionResult} or an {@code error} event, both
+ * wrapped in an {@link ApiResponse}. Once the client disconnects, or the stream times out or
+ * fails, the run is cancelled so that no further test cases start.
+ */
+public class SseExecutionListener implements ExecutionListener {
+
+    private final SseEmitter emitter;
+    private volatile boolean cancelled;
+
+    public SseExecutionListener(SseEmitter emitter) {
+        this.emitter = emitter;
+        emitter.onCompletion(() -> cancelled = true);
+        emitter.onTimeout(() -> cancelled = true);
+        emitter.onError(e -> cancelled = true);
+    }
+
+    @Override
+    public void onCompiled(int totalTests, long compilationTime) {
+        send("compiled", new CompileStatus(totalTests, compilationTime));
+    }
+
+    @Override
+    public void onTestResult(int index, TestResult result) {
+        send("test-result", result);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Sends the final result and closes the stream.
+     */
+    public void finish(ExecutionResult result) {
+        send("result", new ApiResponse<>("Success", "200_OK", result));
+        emitter.complete();
+    }
+
+    /**
+     * Sends an error in place of the final result and closes the stream.
+     */
+    public void fail(ApiResponse<?> error) {
+        send("error", error);
+        emitter.complete();
+    }
+
+    private void send(String name, Object data) {
+        if (cancelled) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream already ended
+            cancelled = true;
+        }
+    }
+}
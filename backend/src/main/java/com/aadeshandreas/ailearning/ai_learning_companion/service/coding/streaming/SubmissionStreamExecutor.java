@@ -0,0 +1,56 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.streaming;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Threads that drive streamed submissions and background jobs after their request thread has returned.
+ * <p>
+ * A stream thread waits in the admission queue, compiles, and coordinates the test run while
+ * results are pushed to the client; the user code itself still runs on the execution pool. The
+ * number of open streams is bounded, and a stream beyond the bound is rejected rather than queued,
+ * since the admission queue already orders waiting submissions fairly.
+ */
+@Component
+public class SubmissionStreamExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public SubmissionStreamExecutor(@Value("${coding.stream.max-concurrent:32}") int maxConcurrent) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                0, Math.max(1, maxConcurrent), 30, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "submission-stream-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * Starts streamed work on a stream thread.
+     *
+     * @param work The work to run; must not depend on request-scoped state
+     * @return A future completed with the work's result or exception
+     * @throws RejectedExecutionException if the maximum number of streams is already open
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,291 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompiledCode;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Rejects compiled submissions that reference denied classes or methods.
+ * <p>
+ * Every class file of a compilation is checked by walking its constant pool once: each class
+ * constant, and the owner, name and descriptor of each field and method reference, is looked up
+ * in the deny list, so the cost is linear in the size of the bytecode. Because javac has already
+ * resolved imports, aliases, whitespace and Unicode escapes, none of them can hide a reference the
+ * way they can from a scan of the source. Native methods are rejected as well.
+ * <p>
+ * Lambdas and string concatenation are compiled to invokedynamic instructions whose bootstrap
+ * methods live in {@code java.lang.invoke}; those bootstrap classes are allowed, while the rest of
+ * the package, which would give user code method handles, is not. More classes, packages
+ * (ending in a dot) or methods ({@code Class#method}) can be denied through
+ * {@code coding.validation.bytecode.extra-denied}.
+ */
+@Component
+public class BytecodeSecurityVerifier {
+
+    // Constant pool tags
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+    private static final List<String> DENIED_PACKAGES = List.of(
+            "java/lang/reflect/",
+            "java/lang/invoke/",
+            "java/lang/instrument/",
+            "java/lang/management/",
+            "java/nio/file/",
+            "java/nio/channels/",
+            "java/net/",
+            "java/rmi/",
+            "javax/management/",
+            "javax/naming/",
+            "javax/script/",
+            "sun/",
+            "com/sun/",
+            "jdk/",
+            "com/aadeshandreas/ailearning/"
+    );
+
+    private static final Set<String> DENIED_CLASSES = Set.of(
+            "java/lang/Runtime",
+            "java/lang/ProcessBuilder",
+            "java/lang/ProcessBuilder$Redirect",
+            "java/lang/Process",
+            "java/lang/ProcessHandle",
+            "java/lang/ClassLoader",
+            "java/lang/SecurityManager",
+            "java/lang/Module",
+            "java/lang/ModuleLayer",
+            "java/io/File",
+            "java/io/FileDescriptor",
+            "java/io/FileInputStream",
+            "java/io/FileOutputStream",
+            "java/io/FileReader",
+            "java/io/FileWriter",
+            "java/io/RandomAccessFile",
+            "java/io/ObjectInputStream",
+            "java/util/zip/ZipFile",
+            "java/util/jar/JarFile",
+            "java/util/logging/FileHandler"
+    );
+
+    // Methods denied on otherwise allowed classes, as owner#name or owner#name(descriptor prefix
+    private static final List<String> DENIED_METHODS = List.of(
+            "java/lang/System#exit",
+            "java/lang/System#load",
+            "java/lang/System#loadLibrary",
+            "java/lang/System#setSecurityManager",
+            "java/lang/System#setIn",
+            "java/lang/System#setOut",
+            "java/lang/System#setErr",
+            "java/lang/System#setProperty",
+            "java/lang/System#setProperties",
+            "java/lang/System#clearProperty",
+            "java/lang/System#getenv",
+            "java/lang/Thread#stop",
+            "java/lang/Thread#suspend",
+            "java/lang/Thread#resume",
+            "java/lang/Thread#getContextClassLoader",
+            "java/lang/Thread#setContextClassLoader",
+            "java/lang/Class#forName",
+            "java/lang/Class#newInstance",
+            "java/lang/Class#getClassLoader",
+            "java/lang/Class#getModule",
+            "java/lang/Class#getProtectionDomain",
+            "java/lang/Class#getResource",
+            "java/lang/Class#getResourceAsStream",
+            "java/lang/Class#getField",
+            "java/lang/Class#getFields",
+            "java/lang/Class#getDeclaredField",
+            "java/lang/Class#getDeclaredFields",
+            "java/lang/Class#getMethod",
+            "java/lang/Class#getMethods",
+            "java/lang/Class#getDeclaredMethod",
+            "java/lang/Class#getDeclaredMethods",
+            "java/lang/Class#getConstructor",
+            "java/lang/Class#getConstructors",
+            "java/lang/Class#getDeclaredConstructor",
+            "java/lang/Class#getDeclaredConstructors",
+            "java/lang/Class#getRecordComponents",
+            // Constructors that open a file by name
+            "java/io/PrintStream#<init>(Ljava/lang/String;",
+            "java/io/PrintWriter#<init>(Ljava/lang/String;",
+            "java/util/Formatter#<init>(Ljava/lang/String;"
+    );
+
+    // Bootstrap methods javac uses for lambdas, string concatenation, records and switches
+    private static final Set<String> BOOTSTRAP_CLASSES = Set.of(
+            "java/lang/invoke/LambdaMetafactory",
+            "java/lang/invoke/StringConcatFactory",
+            "java/lang/runtime/ObjectMethods",
+            "java/lang/runtime/SwitchBootstraps"
+    );
+
+    // Named by javac in the InnerClasses attribute of every class with a lambda; calls on them are still denied
+    private static final Set<String> LOOKUP_CLASSES = Set.of(
+            "java/lang/invoke/MethodHandles",
+            "java/lang/invoke/MethodHandles$Lookup"
+    );
+
+    private final List<String> deniedPackages;
+    private final Set<String> deniedClasses;
+    private final Set<String> deniedMethodNames;
+    private final List<String> deniedMethodDescriptors;
+
+    public BytecodeSecurityVerifier(
+            @Value("${coding.validation.bytecode.extra-denied:}") String[] extraDenied
+    ) {
+        List<String> packages = new ArrayList<>(DENIED_PACKAGES);
+        Set<String> classes = new HashSet<>(DENIED_CLASSES);
+        List<String> methods = new ArrayList<>(DENIED_METHODS);
+        for (String entry : extraDenied) {
+            String rule = entry.strip().replace('.', '/');
+            if (rule.isEmpty()) {
+                continue;
+            }
+            if (rule.contains("#")) {
+                methods.add(rule);
+            } else if (rule.endsWith("/")) {
+                packages.add(rule);
+            } else {
+                classes.add(rule);
+            }
+        }
+
+        this.deniedPackages = List.copyOf(packages);
+        this.deniedClasses = Set.copyOf(classes);
+        Set<String> methodNames = new HashSet<>();
+        List<String> methodDescriptors = new ArrayList<>();
+        for (String method : methods) {
+            if (method.contains("(")) {
+                methodDescriptors.add(method);
+            } else {
+                methodNames.add(method);
+            }
+        }
+        this.deniedMethodNames = Set.copyOf(methodNames);
+        this.deniedMethodDescriptors = List.copyOf(methodDescriptors);
+    }
+
+    /**
+     * Checks every class of a compilation.
+     *
+     * @param compiled The bytecode produced by javac
+     * @throws SecurityException naming the first denied reference found
+     */
+    public void verify(CompiledCode compiled) throws SecurityException {
+        for (byte[] classBytes : compiled.classBytes().values()) {
+            verifyClass(new ClassReader(classBytes));
+        }
+    }
+
+    private void verifyClass(ClassReader reader) {
+        char[] buffer = new char[reader.getMaxStringLength()];
+        for (int item = 1; item < reader.getItemCount(); item++) {
+            int offset = reader.getItem(item);
+            if (offset == 0) {
+                // Second slot of a long or double constant
+                continue;
+            }
+            switch (reader.readByte(offset - 1)) {
+                case CONSTANT_CLASS -> {
+                    String type = elementType(reader.readUTF8(offset, buffer));
+                    if (type != null && !LOOKUP_CLASSES.contains(type) && !BOOTSTRAP_CLASSES.contains(type)
+                            && isDeniedClass(type)) {
+                        throw forbidden(type);
+                    }
+                }
+                case CONSTANT_FIELDREF, CONSTANT_METHODREF, CONSTANT_INTERFACE_METHODREF -> {
+                    String owner = elementType(reader.readClass(offset, buffer));
+                    int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+                    String name = reader.readUTF8(nameAndType, buffer);
+                    String descriptor = reader.readUTF8(nameAndType + 2, buffer);
+                    checkMember(owner, name, descriptor);
+                }
+                default -> {
+                }
+            }
+        }
+
+        reader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                if ((access & Opcodes.ACC_NATIVE) != 0) {
+                    throw new SecurityException("Native methods are not allowed: " + name);
+                }
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    }
+
+    private void checkMember(String owner, String name, String descriptor) {
+        if (owner == null) {
+            return;
+        }
+        if (BOOTSTRAP_CLASSES.contains(owner)) {
+            // Bootstrap descriptors name java.lang.invoke types by design
+            return;
+        }
+        if (isDeniedClass(owner)) {
+            throw forbidden(owner);
+        }
+
+        String member = owner + "#" + name;
+        if (deniedMethodNames.contains(member)) {
+            throw forbidden(owner + "." + name);
+        }
+        for (String denied : deniedMethodDescriptors) {
+            if (denied.startsWith(member + "(") && (member + descriptor).startsWith(denied)) {
+                throw forbidden(owner + "." + name);
+            }
+        }
+
+        // Types passed to or returned from the member, e.g. a constructor taking a java.io.File
+        int start = descriptor.indexOf('L');
+        while (start >= 0) {
+            int end = descriptor.indexOf(';', start);
+            String type = descriptor.substring(start + 1, end);
+            if (isDeniedClass(type)) {
+                throw forbidden(type);
+            }
+            start = descriptor.indexOf('L', end);
+        }
+    }
+
+    private boolean isDeniedClass(String type) {
+        if (deniedClasses.contains(type)) {
+            return true;
+        }
+        for (String deniedPackage : deniedPackages) {
+            if (type.startsWith(deniedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the class named by a class constant, unwrapping array types; null for primitive arrays.
+     */
+    private static String elementType(String name) {
+        if (name == null || name.charAt(0) != '[') {
+            return name;
+        }
+        int start = name.lastIndexOf('[') + 1;
+        return name.charAt(start) == 'L' ? name.substring(start + 1, name.length() - 1) : null;
+    }
+
+    private static SecurityException forbidden(String reference) {
+        return new SecurityException("Forbidden API detected: " + reference.replace('/', '.'));
+    }
+}
@@ -0,0 +1,147 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton that finds any of a fixed set of substrings in a single pass over the text.
+ * <p>
+ * The automaton is built once into a flat, table-driven DFA, so matching costs one table lookup
+ * per character regardless of how many patterns there are. Text is fed one character at a time, which
+ * lets callers skip parts of the input (such as comments) without copying it.
+ */
+final class MultiPatternMatcher {
+
+    static final int START = 0;
+    private static final int NO_MATCH = -1;
+
+    private final List<String> patterns;
+    // Maps a character to its column in the transition table; characters in no pattern share the last column
+    private final int[] asciiIndex = new int[128];
+    private final Map<Character, Integer> otherIndex = new HashMap<>();
+    private final int columns;
+    // Row-major: the state after reading the character of a column in a state, or -1 - p if pattern p ends there
+    private final int[] transitions;
+
+    MultiPatternMatcher(List<String> patterns) {
+        this.patterns = List.copyOf(patterns);
+        Arrays.fill(asciiIndex, -1);
+        int alphabetSize = 0;
+        for (String pattern : this.patterns) {
+            for (char c : pattern.toCharArray()) {
+                if (indexOf(c) < 0) {
+                    if (c < 128) {
+                        asciiIndex[c] = alphabetSize++;
+                    } else {
+                        otherIndex.put(c, alphabetSize++);
+                    }
+                }
+            }
+        }
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> output = new ArrayList<>();
+        trie.add(newRow(alphabetSize));
+        output.add(NO_MATCH);
+        for (int p = 0; p < this.patterns.size(); p++) {
+            int state = START;
+            for (char c : this.patterns.get(p).toCharArray()) {
+                int column = indexOf(c);
+                if (trie.get(state)[column] < 0) {
+                    trie.get(state)[column] = trie.size();
+                    trie.add(newRow(alphabetSize));
+                    output.add(NO_MATCH);
+                }
+                state = trie.get(state)[column];
+            }
+            if (output.get(state) == NO_MATCH) {
+                output.set(state, p);
+            }
+        }
+
+        // Turn it into a DFA breadth-first, filling missing edges from each state's suffix link
+        int[] fail = new int[trie.size()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(START);
+        for (int column = 0; column < alphabetSize; column++) {
+            if (root[column] < 0) {
+                root[column] = START;
+            } else {
+                fail[root[column]] = START;
+                queue.add(root[column]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            if (output.get(state) == NO_MATCH) {
+                output.set(state, output.get(fail[state]));
+            }
+            int[] row = trie.get(state);
+            for (int column = 0; column < alphabetSize; column++) {
+                int next = row[column];
+                if (next < 0) {
+                    row[column] = trie.get(fail[state])[column];
+                } else {
+                    fail[next] = trie.get(fail[state])[column];
+                    queue.add(next);
+                }
+            }
+        }
+
+        // Every state returns to the start on a character that appears in no pattern
+        this.columns = alphabetSize + 1;
+        for (int c = 0; c < asciiIndex.length; c++) {
+            if (asciiIndex[c] < 0) {
+                asciiIndex[c] = alphabetSize;
+            }
+        }
+        // Matches are encoded in the table, so the caller needs a single check per character
+        this.transitions = new int[trie.size() * columns];
+        for (int state = 0; state < trie.size(); state++) {
+            int[] row = trie.get(state);
+            for (int column = 0; column < alphabetSize; column++) {
+                int next = row[column];
+                transitions[state * columns + column] = output.get(next) == NO_MATCH ? next : -1 - output.get(next);
+            }
+            transitions[state * columns + alphabetSize] = START;
+        }
+    }
+
+    /**
+     * Advances the automaton by one character.
+     *
+     * @param state The state after the previous character, or {@link #START}
+     * @return The state after this character, or a negative value if a pattern ends with this
+     *         character; {@link #matchedPattern(int)} tells which
+     */
+    int next(int state, char c) {
+        int column = c < 128 ? asciiIndex[c] : otherIndex.getOrDefault(c, columns - 1);
+        return transitions[state * columns + column];
+    }
+
+    /**
+     * Returns the pattern found, given the negative value returned by {@link #next(int, char)}.
+     */
+    String matchedPattern(int result) {
+        return patterns.get(-1 - result);
+    }
+
+    private int indexOf(char c) {
+        if (c < 128) {
+            return asciiIndex[c];
+        }
+        Integer column = otherIndex.get(c);
+        return column != null ? column : -1;
+    }
+
+    private static int[] newRow(int alphabetSize) {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
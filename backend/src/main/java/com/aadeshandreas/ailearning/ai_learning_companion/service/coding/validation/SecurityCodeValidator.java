@@ -1,12 +1,26 @@
 package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 /**
  * Validates user-submitted code for security threats using a blacklist approach.
+ * <p>
+ * All forbidden patterns, including any added through {@code coding.validation.extra-forbidden-patterns},
+ * are matched in a single pass by a {@link MultiPatternMatcher} built at startup. Only code is
+ * scanned: comments read as whitespace and string, character and text block literals as a single
+ * token, so a forbidden name in a comment or message is not reported. Unicode escapes are
+ * translated first, the way javac reads them, so they can neither hide a forbidden name nor fake
+ * the start of a literal.
+ * <p>
+ * Compiled bytecode is checked independently by {@link BytecodeSecurityVerifier}, which cannot be
+ * evaded by the way the source is written. This scan only rejects obvious cases before javac runs
+ * and can be turned off with {@code coding.validation.source-scan.enabled}; the length limit
+ * always applies.
  */
 @Component
 public class SecurityCodeValidator implements CodeValidator {
@@ -32,18 +46,151 @@ public class SecurityCodeValidator implements CodeValidator {
             "native "  // Prevent native method calls
     );
 
+    private final MultiPatternMatcher matcher;
+    private final boolean sourceScan;
+
+    public SecurityCodeValidator(
+            @Value("${coding.validation.extra-forbidden-patterns:}") String[] extraForbiddenPatterns,
+            @Value("${coding.validation.source-scan.enabled:true}") boolean sourceScan
+    ) {
+        List<String> patterns = new ArrayList<>(FORBIDDEN_APIS);
+        for (String pattern : extraForbiddenPatterns) {
+            if (!pattern.isBlank() && !patterns.contains(pattern.strip())) {
+                patterns.add(pattern.strip());
+            }
+        }
+        this.matcher = new MultiPatternMatcher(patterns);
+        this.sourceScan = sourceScan;
+    }
+
     @Override
     public void validateCode(String code) throws SecurityException {
+        // Check for excessive length (prevent DoS) before doing any work on the code
+        if (code.length() > MAX_CODE_LENGTH) {
+            throw new SecurityException("Code exceeds maximum length of " + MAX_CODE_LENGTH + " characters");
+        }
+
+        if (!sourceScan) {
+            return;
+        }
+
         // Check for forbidden APIs
-        for (String forbidden : FORBIDDEN_APIS) {
-            if (code.contains(forbidden)) {
-                throw new SecurityException("Forbidden API detected: " + forbidden);
+        String forbidden = findForbidden(code.contains("\\u") ? translateUnicodeEscapes(code) : code);
+        if (forbidden != null) {
+            throw new SecurityException("Forbidden API detected: " + forbidden);
+        }
+    }
+
+    /**
+     * Returns the first forbidden pattern found outside comments and literals, or null.
+     */
+    String findForbidden(String code) {
+        int state = MultiPatternMatcher.START;
+        int length = code.length();
+        int i = 0;
+        while (i < length) {
+            char c = code.charAt(i);
+            // Quotes and slashes sort below letters and digits, so most characters skip the lexing checks
+            if (c <= '/') {
+                char next = i + 1 < length ? code.charAt(i + 1) : 0;
+                if (c == '/' && (next == '/' || next == '*')) {
+                    // A comment reads as whitespace
+                    i = next == '/' ? skipLineComment(code, i) : skipBlockComment(code, i);
+                    c = ' ';
+                    i--;
+                } else if (c == '"' || c == '\'') {
+                    // A literal is a token of its own
+                    i = skipLiteral(code, i) - 1;
+                }
+            }
+            state = matcher.next(state, c);
+            if (state < 0) {
+                return matcher.matchedPattern(state);
+            }
+            i++;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the line break ending the comment starting at {@code start}. Like javac,
+     * a lone carriage return counts as a line break.
+     */
+    private static int skipLineComment(String code, int start) {
+        int end = start + 2;
+        while (end < code.length() && code.charAt(end) != '\n' && code.charAt(end) != '\r') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index just past the comment starting at {@code start}.
+     */
+    private static int skipBlockComment(String code, int start) {
+        int end = code.indexOf("*/", start + 2);
+        return end < 0 ? code.length() : end + 2;
+    }
+
+    /**
+     * Returns the index just past the string, text block or character literal starting at {@code start}.
+     * An unterminated literal ends at the line break, as javac would report it.
+     */
+    private static int skipLiteral(String code, int start) {
+        char quote = code.charAt(start);
+        boolean textBlock = quote == '"' && code.startsWith("\"\"\"", start);
+        int i = start + (textBlock ? 3 : 1);
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (textBlock ? code.startsWith("\"\"\"", i) : c == quote) {
+                return i + (textBlock ? 3 : 1);
+            } else if ((c == '\n' || c == '\r') && !textBlock) {
+                return i;
+            } else {
+                i++;
             }
         }
+        return code.length();
+    }
 
-        // Check for excessive length (prevent DoS)
-        if (code.length() > MAX_CODE_LENGTH) {
-            throw new SecurityException("Code exceeds maximum length of " + MAX_CODE_LENGTH + " characters");
+    /**
+     * Replaces Unicode escapes with the characters they stand for, as javac does before tokenizing.
+     * A backslash that is itself escaped does not start a Unicode escape.
+     */
+    static String translateUnicodeEscapes(String code) {
+        int length = code.length();
+        StringBuilder translated = new StringBuilder(length);
+        int backslashes = 0;
+        int i = 0;
+        while (i < length) {
+            char c = code.charAt(i);
+            if (c == '\\' && backslashes % 2 == 0 && i + 1 < length && code.charAt(i + 1) == 'u') {
+                int digits = i + 1;
+                while (digits < length && code.charAt(digits) == 'u') {
+                    digits++;
+                }
+                if (digits + 4 <= length && isHex(code, digits, digits + 4)) {
+                    translated.append((char) Integer.parseInt(code, digits, digits + 4, 16));
+                    i = digits + 4;
+                    backslashes = 0;
+                    continue;
+                }
+            }
+            backslashes = c == '\\' ? backslashes + 1 : 0;
+            translated.append(c);
+            i++;
+        }
+        return translated.toString();
+    }
+
+    private static boolean isHex(String code, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (Character.digit(code.charAt(i), 16) < 0) {
+                return false;
+            }
         }
+        return true;
     }
 }
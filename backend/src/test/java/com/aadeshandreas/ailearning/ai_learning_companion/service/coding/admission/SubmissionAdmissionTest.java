@@ -0,0 +1,212 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.admission;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.AdmissionLaneStats;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.metrics.AdmissionStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionAdmissionTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    private final List<String> order = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch finishHolder = new CountDownLatch(1);
+
+    @Test
+    void servesSessionsInRoundRobinOrder() throws Exception {
+        SubmissionAdmission admission = admission(1, 0, 2, 1, 5000);
+        Thread holder = holdSlot(admission, "holder", SubmissionLane.INTERACTIVE);
+
+        Thread a1 = submit(admission, "a", SubmissionLane.INTERACTIVE, "a1", 1);
+        Thread a2 = submit(admission, "a", SubmissionLane.INTERACTIVE, "a2", 2);
+        Thread b1 = submit(admission, "b", SubmissionLane.INTERACTIVE, "b1", 3);
+        finishHolder.countDown();
+        join(holder, a1, a2, b1);
+
+        assertEquals(List.of("a1", "b1", "a2"), order);
+    }
+
+    @Test
+    void rejectsSubmissionsBeyondSessionCap() throws Exception {
+        SubmissionAdmission admission = admission(1, 0, 1, 1, 5000);
+        Thread holder = holdSlot(admission, "holder", SubmissionLane.INTERACTIVE);
+        Thread a1 = submit(admission, "a", SubmissionLane.INTERACTIVE, "a1", 1);
+
+        SubmissionRejectedException error = assertThrows(SubmissionRejectedException.class,
+                () -> admission.run("a", SubmissionLane.INTERACTIVE, () -> order.add("a2")));
+        Thread b1 = submit(admission, "b", SubmissionLane.INTERACTIVE, "b1", 2);
+        finishHolder.countDown();
+        join(holder, a1, b1);
+
+        assertEquals("You already have submissions waiting, please wait for them to finish", error.getMessage());
+        assertEquals(List.of("a1", "b1"), order);
+    }
+
+    @Test
+    void keepsReservedSlotForInteractiveSubmissions() throws Exception {
+        SubmissionAdmission admission = admission(2, 0, 2, 1, 5000);
+        Thread holder = holdSlot(admission, "holder", SubmissionLane.BATCH);
+        Thread batch = submit(admission, "b", SubmissionLane.BATCH, "batch", 1);
+
+        admission.run("i", SubmissionLane.INTERACTIVE, () -> order.add("interactive"));
+        AdmissionLaneStats batchLane = lane(admission.getStats(), SubmissionLane.BATCH);
+        finishHolder.countDown();
+        join(holder, batch);
+
+        assertEquals(1, batchLane.running());
+        assertEquals(1, batchLane.queued());
+        assertEquals(List.of("interactive", "batch"), order);
+    }
+
+    @Test
+    void servesInteractiveSubmissionsFirst() throws Exception {
+        SubmissionAdmission admission = admission(1, 0, 2, 1, 60_000);
+        Thread holder = holdSlot(admission, "holder", SubmissionLane.INTERACTIVE);
+
+        Thread batch = submit(admission, "b", SubmissionLane.BATCH, "batch", 1);
+        Thread interactive = submit(admission, "i", SubmissionLane.INTERACTIVE, "interactive", 2);
+        finishHolder.countDown();
+        join(holder, batch, interactive);
+
+        assertEquals(List.of("interactive", "batch"), order);
+    }
+
+    @Test
+    void promotesStarvedBatchSubmission() throws Exception {
+        SubmissionAdmission admission = admission(1, 0, 2, 1, 0);
+        Thread holder = holdSlot(admission, "holder", SubmissionLane.INTERACTIVE);
+
+        Thread batch = submit(admission, "b", SubmissionLane.BATCH, "batch", 1);
+        Thread interactive = submit(admission, "i", SubmissionLane.INTERACTIVE, "interactive", 2);
+        finishHolder.countDown();
+        join(holder, batch, interactive);
+
+        assertEquals(List.of("batch", "interactive"), order);
+        assertEquals(1, lane(admission.getStats(), SubmissionLane.BATCH).starvationPromotions());
+    }
+
+    @Test
+    void passesOnSlotGrantedToInterruptedSubmission() throws Exception {
+        SubmissionAdmission admission = admission(1, 0, 2, 1, 5000);
+        AtomicReference<Throwable> interruptedError = new AtomicReference<>();
+        Thread holder = holdSlot(admission, "holder", SubmissionLane.INTERACTIVE);
+        Thread interrupted = new Thread(() -> {
+            try {
+                admission.run("a", SubmissionLane.INTERACTIVE, () -> order.add("a1"));
+            } catch (Throwable e) {
+                interruptedError.set(e);
+            }
+        });
+        interrupted.start();
+        awaitStats(admission, stats -> stats.queued() == 1);
+        Thread next = submit(admission, "b", SubmissionLane.INTERACTIVE, "b1", 2);
+
+        // Queue the holder's release on the lock ahead of the interrupted waiter, so the slot is
+        // granted to the waiter before it takes the lock back to give up its ticket
+        admission.lock.lock();
+        try {
+            finishHolder.countDown();
+            awaitTrue(() -> admission.lock.hasQueuedThread(holder));
+            interrupted.interrupt();
+            awaitTrue(() -> admission.lock.hasQueuedThread(interrupted));
+        } finally {
+            admission.lock.unlock();
+        }
+        join(holder, interrupted, next);
+
+        AdmissionStats stats = admission.getStats();
+        assertInstanceOf(IllegalStateException.class, interruptedError.get());
+        assertEquals(List.of("b1"), order);
+        assertEquals(0, stats.running());
+        assertEquals(0, stats.queued());
+        // The holder and b1; the abandoned grant is not counted
+        assertEquals(2, stats.admitted());
+    }
+
+    @Test
+    void estimatesRetryFromQueueLength() throws Exception {
+        SubmissionAdmission admission = admission(1, 1, 2, 1, 5000);
+        Thread holder = holdSlot(admission, "holder", SubmissionLane.INTERACTIVE);
+        Thread waiting = submit(admission, "a", SubmissionLane.INTERACTIVE, "a1", 1);
+
+        SubmissionRejectedException error = assertThrows(SubmissionRejectedException.class,
+                () -> admission.run("b", SubmissionLane.INTERACTIVE, () -> order.add("b1")));
+        finishHolder.countDown();
+        join(holder, waiting);
+
+        // One running and one queued, each assumed to take a second before any job has finished
+        assertEquals(2, error.getRetryAfterSeconds());
+        assertEquals(1, admission.getStats().rejected());
+    }
+
+    private static SubmissionAdmission admission(int maxConcurrent, int maxQueued, int maxQueuedPerSession,
+                                                 int interactiveReserved, long starvationMs) {
+        return new SubmissionAdmission(maxConcurrent, maxQueued, maxQueuedPerSession, TIMEOUT_MS,
+                interactiveReserved, starvationMs);
+    }
+
+    /**
+     * Starts a submission that keeps its slot until the test counts down {@link #finishHolder}.
+     */
+    private Thread holdSlot(SubmissionAdmission admission, String sessionId, SubmissionLane lane) throws Exception {
+        Thread holder = new Thread(() -> admission.run(sessionId, lane, () -> {
+            try {
+                return finishHolder.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        holder.start();
+        awaitStats(admission, stats -> stats.running() == 1);
+        return holder;
+    }
+
+    /**
+     * Starts a submission that records its label when it runs, and waits until it is queued.
+     */
+    private Thread submit(SubmissionAdmission admission, String sessionId, SubmissionLane lane, String label,
+                          int queuedAfter) throws Exception {
+        Thread thread = new Thread(() -> admission.run(sessionId, lane, () -> order.add(label)));
+        thread.start();
+        awaitStats(admission, stats -> stats.queued() == queuedAfter);
+        return thread;
+    }
+
+    private static void awaitStats(SubmissionAdmission admission, Predicate<AdmissionStats> condition)
+            throws InterruptedException {
+        awaitTrue(() -> condition.test(admission.getStats()));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the admission queue");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void join(Thread... threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(TIMEOUT_MS);
+            assertFalse(thread.isAlive(), "Submission did not finish");
+        }
+    }
+
+    private static AdmissionLaneStats lane(AdmissionStats stats, SubmissionLane lane) {
+        return stats.lanes().get(lane.ordinal());
+    }
+}
@@ -0,0 +1,70 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CodeFingerprintTest {
+
+    @Test
+    void ignoresCommentsAndFormatting() {
+        String compact = "public class S { public int f(int x) { return x + 1; } }";
+        String formatted = """
+                // Adds one
+                public class S {
+                    /* the method */
+                    public int f(int x) {
+                        return x
+                                + 1; // done
+                    }
+                }
+                """;
+
+        assertEquals(CodeFingerprint.of(compact), CodeFingerprint.of(formatted));
+    }
+
+    @Test
+    void keepsSpaceThatSeparatesTokens() {
+        assertEquals("int x=a- -b;", CodeFingerprint.normalize("int x = a - -b;"));
+        assertEquals("a+ +b", CodeFingerprint.normalize("a + +b"));
+        assertEquals("a/ /b", CodeFingerprint.normalize("a / /b"));
+    }
+
+    @Test
+    void doesNotJoinOperatorsIntoDifferentTokens() {
+        assertNotEquals(CodeFingerprint.of("int x = a - -b;"), CodeFingerprint.of("int x = a--b;"));
+        assertNotEquals(CodeFingerprint.of("int x = a + +b;"), CodeFingerprint.of("int x = a++b;"));
+    }
+
+    @Test
+    void treatsCommentBetweenTokensAsWhitespace() {
+        // javac reads a-/**/-b as a - -b, not as a--b
+        assertEquals(CodeFingerprint.of("int x = a - -b;"), CodeFingerprint.of("int x = a-/**/-b;"));
+        assertEquals("a b", CodeFingerprint.normalize("a/**/b"));
+    }
+
+    @Test
+    void copiesLiteralsVerbatim() {
+        assertEquals("String s=\"a  // b\";", CodeFingerprint.normalize("String s = \"a  // b\"; // c"));
+        assertEquals("String s=\"\\\" /* \";int z;", CodeFingerprint.normalize("String s = \"\\\" /* \"; int  z;"));
+        assertEquals("char c='\"';int y;", CodeFingerprint.normalize("char c = '\"'; int  y;"));
+        assertNotEquals(CodeFingerprint.of("String s = \"a b\";"), CodeFingerprint.of("String s = \"a  b\";"));
+    }
+
+    @Test
+    void copiesTextBlocksVerbatim() {
+        String textBlock = "String t = \"\"\"\n  a   b // c\n  \"\"\";";
+        String otherWhitespace = "String t = \"\"\"\n  a b // c\n  \"\"\";";
+
+        assertEquals("String t=\"\"\"\n  a   b // c\n  \"\"\";", CodeFingerprint.normalize(textBlock));
+        assertNotEquals(CodeFingerprint.of(textBlock), CodeFingerprint.of(otherWhitespace));
+    }
+
+    @Test
+    void leavesSourceWithUnicodeEscapesUnchanged() {
+        String code = "int \\u0078 = 1; // c\n";
+
+        assertEquals(code, CodeFingerprint.normalize(code));
+    }
+}
@@ -0,0 +1,59 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.caching;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.ExecutionResult;
+import com.aadeshandreas.ailearning.ai_learning_companion.model.coding.TestResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ExecutionResultCacheTest {
+
+    private final ExecutionResultCache cache = new ExecutionResultCache(16, 1 << 20);
+
+    @Test
+    void storesReproducibleResults() {
+        TestResult wrongAnswer = TestResult.error(2, "2", "Expected: 4, but got: 5");
+        // Running out of the instruction budget counts operations, so it is reproducible
+        TestResult outOfOperations = TestResult.error(3, "3", "Time Limit Exceeded (more than 1000 operations)");
+        ExecutionResult result = result(passed(1), wrongAnswer, outOfOperations);
+
+        cache.put("q1", "all", "f", result);
+
+        assertSame(result, cache.get("q1", "all", "f"));
+    }
+
+    @Test
+    void skipsResultsWithTransientFailures() {
+        TestResult busy = TestResult.error(2, "2", "Server busy: too many submissions are running, please try again");
+        busy.setTransientFailure(true);
+
+        cache.put("q1", "all", "f", result(passed(1), busy));
+        cache.put("q1", "all", "g", result(passed(1), TestResult.timeout(2, "2")));
+
+        assertNull(cache.get("q1", "all", "f"));
+        assertNull(cache.get("q1", "all", "g"));
+    }
+
+    @Test
+    void skipsResultsThatHitTheMemoryLimit() {
+        cache.put("q1", "all", "f", result(passed(1), TestResult.memoryLimitExceeded(2, "2", "Memory Limit Exceeded")));
+
+        assertNull(cache.get("q1", "all", "f"));
+    }
+
+    private static TestResult passed(int testId) {
+        TestResult result = new TestResult();
+        result.setTestId(testId);
+        result.setPassed(true);
+        return result;
+    }
+
+    private static ExecutionResult result(TestResult... tests) {
+        ExecutionResult result = new ExecutionResult();
+        result.setResults(List.of(tests));
+        return result;
+    }
+}
@@ -0,0 +1,185 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation;
+
+import com.aadeshandreas.ailearning.ai_learning_companion.service.coding.compilation.CompiledCode;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BytecodeSecurityVerifierTest {
+
+    private final BytecodeSecurityVerifier verifier = new BytecodeSecurityVerifier(new String[0]);
+
+    @Test
+    void rejectsProcessCreation() {
+        assertRejected("java.lang.Runtime",
+                "public class S { void f() throws Exception { Runtime.getRuntime().exec(\"ls\"); } }");
+        assertRejected("java.lang.ProcessBuilder",
+                "public class S { void f() throws Exception { new ProcessBuilder(\"ls\").start(); } }");
+    }
+
+    @Test
+    void rejectsFileAccessHiddenByImport() {
+        assertRejected("java.io.File",
+                "import java.io.File; public class S { Object f() { return new File(\"x\"); } }");
+        assertRejected("java.io.File",
+                "public class S { Object f() { return new java.io.File[2]; } }");
+    }
+
+    @Test
+    void rejectsReflection() {
+        assertRejected("java.lang.Class.forName",
+                "public class S { Object f() throws Exception { return Class.forName(\"S\"); } }");
+        assertRejected("java.lang.Class.getDeclaredMethods",
+                "public class S { Object f() { return S.class.getDeclaredMethods(); } }");
+    }
+
+    @Test
+    void rejectsPrintStreamOpenedByFileName() {
+        assertRejected("java.io.PrintStream.<init>",
+                "public class S { Object f() throws Exception { return new java.io.PrintStream(\"out.txt\"); } }");
+        assertAccepted("public class S { Object f() { return new java.io.PrintStream(System.out); } }");
+    }
+
+    @Test
+    void rejectsNativeMethods() {
+        SecurityException error = assertThrows(SecurityException.class,
+                () -> verifier.verify(compile("public class S { native void f(); }")));
+
+        assertEquals("Native methods are not allowed: f", error.getMessage());
+    }
+
+    @Test
+    void rejectsMethodHandleLookup() {
+        assertRejected("java.lang.invoke.MethodHandles", """
+                import java.lang.invoke.*;
+                public class S {
+                    Object f() throws Exception {
+                        return MethodHandles.lookup().findVirtual(String.class, "length", MethodType.methodType(int.class));
+                    }
+                }
+                """);
+    }
+
+    @Test
+    void rejectsEntriesFromExtraDenyList() {
+        BytecodeSecurityVerifier extended = new BytecodeSecurityVerifier(new String[]{" java.util.Random", "java.lang.Math#random"});
+
+        assertThrows(SecurityException.class,
+                () -> extended.verify(compile("public class S { int f() { return new java.util.Random().nextInt(); } }")));
+        assertThrows(SecurityException.class,
+                () -> extended.verify(compile("public class S { double f() { return Math.random(); } }")));
+    }
+
+    @Test
+    void acceptsLambdasAndStringConcatenation() {
+        assertAccepted("""
+                import java.util.*;
+                import java.util.stream.*;
+                public class S {
+                    String f(List<Integer> xs) {
+                        Runnable r = () -> {};
+                        r.run();
+                        return xs.stream().map(x -> x * 2).map(String::valueOf).collect(Collectors.joining(",")) + "!" + xs.size();
+                    }
+                }
+                """);
+    }
+
+    @Test
+    void acceptsRecordsAndSwitches() {
+        assertAccepted("""
+                public class S {
+                    record P(int x, String y) {}
+                    enum E { X, Y }
+                    int f(E e, P p) {
+                        int base = switch (e) { case X -> 1; case Y -> 2; };
+                        return base + p.hashCode() + (p.equals(new P(1, "a")) ? 1 : 0) + p.toString().length();
+                    }
+                }
+                """);
+    }
+
+    @Test
+    void acceptsPatternSwitches() {
+        // Pattern matching for switch is still a preview feature on some supported JDKs
+        assertAccepted("""
+                public class S {
+                    String f(Object o) {
+                        return switch (o) {
+                            case Integer i -> "int " + i;
+                            case String s -> "string " + s;
+                            default -> "other";
+                        };
+                    }
+                }
+                """, "--enable-preview", "--release", String.valueOf(Runtime.version().feature()));
+    }
+
+    private void assertRejected(String reference, String source) {
+        SecurityException error = assertThrows(SecurityException.class, () -> verifier.verify(compile(source)));
+
+        assertTrue(error.getMessage().startsWith("Forbidden API detected: " + reference), error.getMessage());
+    }
+
+    private void assertAccepted(String source, String... options) {
+        CompiledCode compiled = compile(source, options);
+
+        assertDoesNotThrow(() -> verifier.verify(compiled));
+    }
+
+    /**
+     * Compiles a single class named S in memory.
+     */
+    private static CompiledCode compile(String source, String... options) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Map<String, ByteArrayOutputStream> output = new HashMap<>();
+        JavaFileManager fileManager = new ForwardingJavaFileManager<>(
+                compiler.getStandardFileManager(null, null, null)) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                       FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("mem:///" + className + ".class"), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return output.computeIfAbsent(className, name -> new ByteArrayOutputStream());
+                    }
+                };
+            }
+        };
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///S.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        List<String> compilerOptions = new ArrayList<>(List.of("-proc:none"));
+        compilerOptions.addAll(List.of(options));
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        boolean success = compiler.getTask(null, fileManager, diagnostics, compilerOptions, null, List.of(file)).call();
+        assertTrue(success, diagnostics.getDiagnostics().toString());
+
+        Map<String, byte[]> classBytes = new HashMap<>();
+        output.forEach((name, bytes) -> classBytes.put(name, bytes.toByteArray()));
+        return new CompiledCode("S", classBytes);
+    }
+}
@@ -0,0 +1,70 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MultiPatternMatcherTest {
+
+    @Test
+    void findsPatternThatEndsFirst() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("he", "she", "his", "hers"));
+
+        assertEquals("she", find(matcher, "ushers"));
+        assertEquals("his", find(matcher, "this"));
+        assertNull(find(matcher, "hi thing s"));
+    }
+
+    @Test
+    void findsPatternThatIsPrefixOfAnother() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("abc", "ab"));
+
+        assertEquals("ab", find(matcher, "xabz"));
+        assertEquals("ab", find(matcher, "abc"));
+    }
+
+    @Test
+    void findsPatternInsideLongerPartialMatch() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("abcd", "bc"));
+
+        assertEquals("bc", find(matcher, "abce"));
+    }
+
+    @Test
+    void followsSuffixLinksAfterFailedMatch() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("aab", "System.exit"));
+
+        assertEquals("aab", find(matcher, "aaab"));
+        assertEquals("System.exit", find(matcher, "SystemSystem.exit"));
+    }
+
+    @Test
+    void restartsOnCharacterInNoPattern() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("ab"));
+
+        assertNull(find(matcher, "a-b"));
+        assertEquals("ab", find(matcher, "a-ab"));
+    }
+
+    @Test
+    void matchesCharactersOutsideAscii() {
+        MultiPatternMatcher matcher = new MultiPatternMatcher(List.of("\u00e9!"));
+
+        assertEquals("\u00e9!", find(matcher, "caf\u00e9!"));
+        assertNull(find(matcher, "caf\u00e8!"));
+    }
+
+    private static String find(MultiPatternMatcher matcher, String text) {
+        int state = MultiPatternMatcher.START;
+        for (char c : text.toCharArray()) {
+            state = matcher.next(state, c);
+            if (state < 0) {
+                return matcher.matchedPattern(state);
+            }
+        }
+        return null;
+    }
+}
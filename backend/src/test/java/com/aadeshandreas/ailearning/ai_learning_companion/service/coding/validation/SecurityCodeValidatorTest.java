@@ -0,0 +1,107 @@
+package com.aadeshandreas.ailearning.ai_learning_companion.service.coding.validation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SecurityCodeValidatorTest {
+
+    private final SecurityCodeValidator validator = new SecurityCodeValidator(new String[0], true);
+
+    @Test
+    void findsForbiddenApiInCode() {
+        assertEquals("System.exit", validator.findForbidden("class S { void f() { System.exit(0); } }"));
+    }
+
+    @Test
+    void readsCommentsAsWhitespace() {
+        assertEquals("native ", validator.findForbidden("class S { native/**/void f(); }"));
+        assertEquals("native ", validator.findForbidden("class S { native// comment\nvoid f(); }"));
+        assertNull(validator.findForbidden("class S { /* System.exit(0); */ }"));
+        assertNull(validator.findForbidden("class S { // System.exit(0);\n}"));
+    }
+
+    @Test
+    void endsLineCommentAtCarriageReturn() {
+        // javac treats a lone CR as a line terminator, so the call after it is code
+        assertEquals("System.exit", validator.findForbidden("class S { // note\rvoid f() { System.exit(0); } }"));
+    }
+
+    @Test
+    void ignoresForbiddenNamesInLiterals() {
+        assertNull(validator.findForbidden("class S { String s = \"System.exit(0)\"; }"));
+        assertNull(validator.findForbidden("class S { String s = \"\\\" System.exit(0) \\\"\"; }"));
+        assertNull(validator.findForbidden("class S { String s = \"\"\"\n  \\\"\"\" System.exit(0)\n  \"\"\"; }"));
+        assertNull(validator.findForbidden("class S { String s = \"/* \"; String t = \"*/ ClassLoader\"; }"));
+    }
+
+    @Test
+    void scansCodeAfterLiterals() {
+        assertEquals("System.exit", validator.findForbidden("class S { char c = '\"'; void f() { System.exit(0); } }"));
+        assertEquals("System.exit",
+                validator.findForbidden("class S { char c = '\\''; void f() { System.exit(0); } }"));
+        assertEquals("ProcessBuilder",
+                validator.findForbidden("class S { String s = \"\"\"\n  x\n  \"\"\"; ProcessBuilder p; }"));
+    }
+
+    @Test
+    void endsUnterminatedLiteralAtLineBreak() {
+        assertEquals("System.exit", validator.findForbidden("class S { String s = \"abc\nSystem.exit(0); }"));
+        assertEquals("System.exit", validator.findForbidden("class S { String s = \"abc\rSystem.exit(0); }"));
+    }
+
+    @Test
+    void translatesUnicodeEscapes() {
+        assertEquals("A", SecurityCodeValidator.translateUnicodeEscapes("\\u0041"));
+        assertEquals("A", SecurityCodeValidator.translateUnicodeEscapes("\\uuu0041"));
+        assertEquals("\"x\"", SecurityCodeValidator.translateUnicodeEscapes("\\u0022x\\u0022"));
+    }
+
+    @Test
+    void leavesEscapedBackslashBeforeUAlone() {
+        assertEquals("\\\\u0041", SecurityCodeValidator.translateUnicodeEscapes("\\\\u0041"));
+        assertEquals("\\\\A", SecurityCodeValidator.translateUnicodeEscapes("\\\\\\u0041"));
+    }
+
+    @Test
+    void leavesIncompleteEscapesAlone() {
+        assertEquals("\\u00G1", SecurityCodeValidator.translateUnicodeEscapes("\\u00G1"));
+        assertEquals("x\\u00", SecurityCodeValidator.translateUnicodeEscapes("x\\u00"));
+    }
+
+    @Test
+    void rejectsForbiddenApiHiddenByUnicodeEscapes() {
+        assertThrows(SecurityException.class,
+                () -> validator.validateCode("class S { void f() { System.\\u0065xit(0); } }"));
+        // The escaped quote closes the literal, so the call is code
+        assertThrows(SecurityException.class,
+                () -> validator.validateCode("class S { String s = \"\\u0022; void f() { System.exit(0); } // \"; }"));
+        // An escaped comment opener ends at the first */ like any other comment
+        assertThrows(SecurityException.class,
+                () -> validator.validateCode("class S { \\u002f\\u002a */ void f() { System.exit(0); } }"));
+    }
+
+    @Test
+    void acceptsLiteralWithEscapedBackslashBeforeU() {
+        assertDoesNotThrow(() -> validator.validateCode("class S { String s = \"\\\\u0022 System.exit(0) \"; }"));
+    }
+
+    @Test
+    void appliesExtraPatterns() {
+        SecurityCodeValidator extended = new SecurityCodeValidator(new String[]{" Math.random ", ""}, true);
+
+        assertThrows(SecurityException.class, () -> extended.validateCode("class S { double d = Math.random(); }"));
+        assertThrows(SecurityException.class, () -> extended.validateCode("class S { ProcessBuilder p; }"));
+    }
+
+    @Test
+    void skipsScanWhenDisabledButStillLimitsLength() {
+        SecurityCodeValidator lengthOnly = new SecurityCodeValidator(new String[0], false);
+
+        assertDoesNotThrow(() -> lengthOnly.validateCode("class S { void f() { System.exit(0); } }"));
+        assertThrows(SecurityException.class, () -> lengthOnly.validateCode("x".repeat(50_001)));
+    }
+}
@@ -43,6 +43,8 @@ class Solution {
 	const [testing, setTesting] = useState(false);
 	const [submitting, setSubmitting] = useState(false);
 	const [regenerating, setRegenerating] = useState(false);
+	// Complexity analysis adds timed runs to a submit, so it is opt-in
+	const [analyzeComplexity, setAnalyzeComplexity] = useState(false);
 	const hasFetchedQuestion = useRef(false);
 
 	const handleEditorWillMount = (monaco: Monaco) => {
@@ -105,6 +107,7 @@ class Solution {
 			const response = await submitCode({
 				questionId: codingQuestion.id,
 				code,
+				analyzeComplexity,
 			});
 
 			if (response.data) {
@@ -265,7 +268,20 @@ class Solution {
 					</button>
 					</div>
 				</div>
-				<div className="flex-1 flex justify-end items-center">
+				<div className="flex-1 flex justify-end items-center gap-3">
+					<label
+						className="flex items-center gap-2 text-sm text-gray-400 cursor-pointer select-none"
+						title="Estimate the time complexity of a passing submission (takes a few extra seconds)"
+					>
+						<input
+							type="checkbox"
+							checked={analyzeComplexity}
+							onChange={(e) => setAnalyzeComplexity(e.target.checked)}
+							disabled={submitting}
+							className="accent-blue-500 cursor-pointer disabled:cursor-not-allowed"
+						/>
+						Analyze complexity
+					</label>
 					<button
 						onClick={handleRegenerate}
 						disabled={regenerating || loading || testing || submitting}
@@ -111,8 +111,37 @@ export default function ConsolePanel({
                   Passed: {executionResult.passedTests}/{executionResult.totalTests} |
                   Execution Time: {executionResult.executionTime}ms
                 </div>
+                {executionResult.runTime !== undefined && (
+                  <div className="text-gray-500 text-xs mt-1">
+                    Validate: {executionResult.validationTime}ms |
+                    Compile: {executionResult.compilationTime}ms |
+                    Load: {executionResult.classLoadTime}ms |
+                    Run: {executionResult.runTime}ms
+                  </div>
+                )}
               </div>
 
+              {/* Complexity analysis, only present for passing submissions */}
+              {executionResult.complexity && (
+                <div className={`border rounded p-3 text-xs ${
+                  executionResult.complexity.withinExpected === false
+                    ? "border-yellow-500/50 bg-yellow-900/10"
+                    : "border-[#333333]"
+                }`}>
+                  <div className="text-gray-400 font-semibold mb-1">Time Complexity:</div>
+                  <div className={executionResult.complexity.withinExpected === false ? "text-yellow-400" : "text-gray-300"}>
+                    {executionResult.complexity.message}
+                  </div>
+                  {executionResult.complexity.samples.length > 0 && (
+                    <div className="text-gray-500 mt-1">
+                      {executionResult.complexity.samples
+                        .map((sample) => `n=${sample.inputSize}: ${(sample.nanosPerCall / 1000).toFixed(1)}µs`)
+                        .join(" | ")}
+                    </div>
+                  )}
+                </div>
+              )}
+
               {/* Error message if any */}
               {executionResult.error && (
                 <div className="bg-red-900/20 border border-red-500/50 rounded p-3">
@@ -133,6 +162,13 @@ export default function ConsolePanel({
                 >
                   <div className={`font-semibold mb-2 ${result.passed ? "text-green-400" : "text-red-400"}`}>
                     {result.passed ? "✓" : "✗"} Test Case {index + 1}
+                    {result.wallTimeNanos > 0 && (
+                      <span className="text-gray-500 text-xs font-normal ml-2">
+                        {(result.wallTimeNanos / 1e6).toFixed(2)}ms |
+                        CPU {(result.cpuTimeNanos / 1e6).toFixed(2)}ms |
+                        {" "}{(result.allocatedBytes / 1024).toFixed(1)}KB allocated
+                      </span>
+                    )}
                   </div>
 
                   <div className="space-y-2 text-xs">
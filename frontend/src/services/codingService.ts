@@ -1,11 +1,17 @@
 import { ApiResponse } from "@/types/documentTypes";
 import { API_BASE_URL } from "./documentService";
 import {
+	BenchmarkResult,
 	CodeSubmission,
 	CodingQuestion,
 	CodingQuestionRequest,
 	CodingTopicList,
+	CompileCheck,
+	CompileStatus,
 	ExecutionResult,
+	JobStatus,
+	SubmissionStreamHandlers,
+	TestResult,
 } from "@/types/codingTypes";
 
 export const getCodingTopics = async (): Promise<ApiResponse<CodingTopicList>> => {
@@ -76,3 +82,167 @@ export const submitCode = async (codeSubmission: CodeSubmission): Promise<ApiRes
 
 	return result;
 };
+
+export const benchmarkCode = async (codeSubmission: CodeSubmission): Promise<ApiResponse<BenchmarkResult>> => {
+	const res = await fetch(`${API_BASE_URL}/api/coding/coding-question/benchmark`, {
+		method: "POST",
+		headers: { "Content-Type": "application/json" },
+		body: JSON.stringify(codeSubmission),
+		credentials: "include",
+	});
+
+	const result: ApiResponse<BenchmarkResult> = await res.json();
+
+	if (!res.ok) {
+		throw new Error(result.message || "Failed to benchmark code");
+	}
+
+	return result;
+};
+
+/**
+ * Compiles the current editor contents in the background and returns the compiler's diagnostics.
+ * A newer snapshot from the same session supersedes this one, which then resolves as SUPERSEDED.
+ */
+export const compileCode = async (
+	codeSubmission: CodeSubmission,
+	signal?: AbortSignal
+): Promise<ApiResponse<CompileCheck>> => {
+	const res = await fetch(`${API_BASE_URL}/api/coding/coding-question/compile`, {
+		method: "POST",
+		headers: { "Content-Type": "application/json" },
+		body: JSON.stringify(codeSubmission),
+		credentials: "include",
+		signal,
+	});
+
+	const result: ApiResponse<CompileCheck> = await res.json();
+
+	if (!res.ok) {
+		throw new Error(result.message || "Failed to compile code");
+	}
+
+	return result;
+};
+
+export const submitCodeJob = async (codeSubmission: CodeSubmission): Promise<ApiResponse<JobStatus>> => {
+	const res = await fetch(`${API_BASE_URL}/api/coding/coding-question/jobs`, {
+		method: "POST",
+		headers: { "Content-Type": "application/json" },
+		body: JSON.stringify(codeSubmission),
+		credentials: "include",
+	});
+
+	const result: ApiResponse<JobStatus> = await res.json();
+
+	if (!res.ok) {
+		throw new Error(result.message || "Failed to submit code");
+	}
+
+	return result;
+};
+
+/**
+ * Fetches the state of a submission job. With waitMs, the server holds the request until the job
+ * finishes or the wait is over.
+ */
+export const getCodeJob = async (jobId: string, waitMs = 0): Promise<ApiResponse<JobStatus>> => {
+	const res = await fetch(`${API_BASE_URL}/api/coding/coding-question/jobs/${jobId}?waitMs=${waitMs}`, {
+		method: "GET",
+		headers: { "Content-Type": "application/json" },
+		credentials: "include",
+	});
+
+	const result: ApiResponse<JobStatus> = await res.json();
+
+	if (!res.ok) {
+		throw new Error(result.message || "Failed to fetch submission status");
+	}
+
+	return result;
+};
+
+export const cancelCodeJob = async (jobId: string): Promise<ApiResponse<JobStatus>> => {
+	const res = await fetch(`${API_BASE_URL}/api/coding/coding-question/jobs/${jobId}`, {
+		method: "DELETE",
+		headers: { "Content-Type": "application/json" },
+		credentials: "include",
+	});
+
+	const result: ApiResponse<JobStatus> = await res.json();
+
+	if (!res.ok) {
+		throw new Error(result.message || "Failed to cancel submission");
+	}
+
+	return result;
+};
+
+/**
+ * Submits code and streams progress from the server as each test completes.
+ * Aborting the signal closes the stream, which stops the run from starting further tests.
+ */
+export const streamSubmitCode = async (
+	codeSubmission: CodeSubmission,
+	handlers: SubmissionStreamHandlers,
+	signal?: AbortSignal
+): Promise<ApiResponse<ExecutionResult>> => {
+	const res = await fetch(`${API_BASE_URL}/api/coding/coding-question/submit/stream`, {
+		method: "POST",
+		headers: { "Content-Type": "application/json", Accept: "text/event-stream" },
+		body: JSON.stringify(codeSubmission),
+		credentials: "include",
+		signal,
+	});
+
+	if (!res.ok || !res.body) {
+		throw new Error("Failed to submit code");
+	}
+
+	const reader = res.body.getReader();
+	const decoder = new TextDecoder();
+	let buffer = "";
+
+	while (true) {
+		const { done, value } = await reader.read();
+		if (done) {
+			break;
+		}
+		buffer += decoder.decode(value, { stream: true });
+
+		let boundary = buffer.search(/\r?\n\r?\n/);
+		while (boundary !== -1) {
+			const rawEvent = buffer.slice(0, boundary);
+			buffer = buffer.slice(boundary).replace(/^\r?\n\r?\n/, "");
+			boundary = buffer.search(/\r?\n\r?\n/);
+
+			let name = "message";
+			const data: string[] = [];
+			for (const line of rawEvent.split(/\r?\n/)) {
+				if (line.startsWith("event:")) {
+					name = line.slice(6).trim();
+				} else if (line.startsWith("data:")) {
+					data.push(line.slice(5).replace(/^ /, ""));
+				}
+			}
+			if (data.length === 0) {
+				continue;
+			}
+			const payload = JSON.parse(data.join("\n"));
+
+			if (name === "compiled") {
+				handlers.onCompiled?.(payload as CompileStatus);
+			} else if (name === "test-result") {
+				handlers.onTestResult?.(payload as TestResult);
+			} else if (name === "result") {
+				await reader.cancel();
+				return payload as ApiResponse<ExecutionResult>;
+			} else if (name === "error") {
+				await reader.cancel();
+				throw new Error((payload as ApiResponse<unknown>).message || "Failed to submit code");
+			}
+		}
+	}
+
+	throw new Error("Submission stream ended before a result was received");
+};
@@ -53,6 +53,8 @@ export interface CodingQuestionRequest {
 export interface CodeSubmission {
 	questionId: string;
 	code: string;
+	maxFailures?: number;
+	analyzeComplexity?: boolean;
 }
 
 export interface TestResult {
@@ -62,13 +64,95 @@ export interface TestResult {
 	expectedOutput: string;
 	actualOutput: string;
 	error: string;
+	skipped: boolean;
+	memoryLimitExceeded: boolean;
+	transientFailure: boolean;
+	cpuTimeNanos: number;
+	wallTimeNanos: number;
+	allocatedBytes: number;
+	peakThreads: number;
+	runs: number;
+	failedRuns: number;
+}
+
+export interface CompileStatus {
+	totalTests: number;
+	compilationTime: number;
 }
 
 export interface ExecutionResult {
 	success: boolean;
 	passedTests: number;
 	totalTests: number;
+	skippedTests?: number;
 	results: TestResult[] | null;
 	error: string;
 	executionTime: number;
+	validationTime?: number;
+	compilationTime?: number;
+	classLoadTime?: number;
+	runTime?: number;
+	complexity?: ComplexityReport | null;
+}
+
+export interface CompileDiagnostic {
+	kind: string;
+	line: number;
+	column: number;
+	message: string;
+}
+
+export interface CompileCheck {
+	status: "COMPILED" | "FAILED" | "SUPERSEDED";
+	diagnostics: CompileDiagnostic[];
+	error: string | null;
+	compilationTime: number;
+}
+
+export type JobState = "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED" | "CANCELLED";
+
+export interface JobStatus {
+	jobId: string;
+	state: JobState;
+	completedTests: number;
+	totalTests: number;
+	result: ExecutionResult | null;
+	error: string | null;
+	retryAfterSeconds: number | null;
+}
+
+export interface ComplexitySample {
+	inputSize: number;
+	nanosPerCall: number;
+}
+
+export interface ComplexityReport {
+	expectedComplexity: string | null;
+	measuredComplexity: string | null;
+	withinExpected: boolean | null;
+	growthExponent: number;
+	samples: ComplexitySample[];
+	message: string;
+}
+
+export interface BenchmarkResult {
+	success: boolean;
+	error: string | null;
+	message: string | null;
+	isolation: string;
+	warmupIterations: number;
+	measurementIterations: number;
+	iterationTime: number;
+	operations: number;
+	opsPerSecond: number;
+	iterationOpsPerSecond: number[];
+	meanNanos: number;
+	p50Nanos: number;
+	p99Nanos: number;
+	cpuTime: number;
+}
+
+export interface SubmissionStreamHandlers {
+	onCompiled?: (status: CompileStatus) => void;
+	onTestResult?: (result: TestResult) => void;
 }